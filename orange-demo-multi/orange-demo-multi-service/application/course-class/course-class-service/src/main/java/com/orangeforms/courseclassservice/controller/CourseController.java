@@ -2,7 +2,6 @@ package com.orangeforms.courseclassservice.controller;
 
 import cn.jimmyshi.beanquery.BeanQuery;
 import cn.hutool.core.util.ReflectUtil;
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.courseclassservice.model.*;
 import com.orangeforms.courseclassservice.service.*;
 import com.orangeforms.courseclassapi.dto.*;
@@ -166,9 +165,7 @@ public class CourseController extends BaseController<Course, CourseVo, Long> {
             @MyRequestBody CourseDto courseDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Course courseFilter = MyModelUtil.copyTo(courseDtoFilter, Course.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Course.class);
         List<Course> courseList = courseService.getCourseListWithRelation(courseFilter, orderBy);
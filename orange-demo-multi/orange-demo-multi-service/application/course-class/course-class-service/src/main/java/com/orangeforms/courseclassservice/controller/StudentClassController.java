@@ -1,6 +1,5 @@
 package com.orangeforms.courseclassservice.controller;
 
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.courseclassservice.model.*;
 import com.orangeforms.courseclassservice.service.*;
 import com.orangeforms.courseclassapi.dto.*;
@@ -141,9 +140,7 @@ public class StudentClassController extends BaseController<StudentClass, Student
             @MyRequestBody StudentClassDto studentClassDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         StudentClass studentClassFilter = MyModelUtil.copyTo(studentClassDtoFilter, StudentClass.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, StudentClass.class);
         List<StudentClass> studentClassList =
@@ -189,9 +186,7 @@ public class StudentClassController extends BaseController<StudentClass, Student
         if (MyCommonUtil.isNotBlankOrNull(classId) && !studentClassService.existId(classId)) {
             return ResponseResult.error(ErrorCodeEnum.INVALID_RELATED_RECORD_ID);
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Course filter = MyModelUtil.copyTo(courseDtoFilter, Course.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Course.class);
         List<Course> courseList;
@@ -222,9 +217,7 @@ public class StudentClassController extends BaseController<StudentClass, Student
         if (!studentClassService.existId(classId)) {
             return ResponseResult.error(ErrorCodeEnum.INVALID_RELATED_RECORD_ID);
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Course filter = MyModelUtil.copyTo(courseDtoFilter, Course.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Course.class);
         List<Course> courseList =
@@ -344,9 +337,7 @@ public class StudentClassController extends BaseController<StudentClass, Student
         if (MyCommonUtil.isNotBlankOrNull(classId) && !studentClassService.existId(classId)) {
             return ResponseResult.error(ErrorCodeEnum.INVALID_RELATED_RECORD_ID);
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Student filter = MyModelUtil.copyTo(studentDtoFilter, Student.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Student.class);
         List<Student> studentList;
@@ -377,9 +368,7 @@ public class StudentClassController extends BaseController<StudentClass, Student
         if (!studentClassService.existId(classId)) {
             return ResponseResult.error(ErrorCodeEnum.INVALID_RELATED_RECORD_ID);
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Student filter = MyModelUtil.copyTo(studentDtoFilter, Student.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Student.class);
         List<Student> studentList =
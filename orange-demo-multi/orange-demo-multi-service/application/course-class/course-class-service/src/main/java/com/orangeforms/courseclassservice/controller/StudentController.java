@@ -1,7 +1,6 @@
 package com.orangeforms.courseclassservice.controller;
 
 import cn.jimmyshi.beanquery.BeanQuery;
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.courseclassservice.model.*;
 import com.orangeforms.courseclassservice.service.*;
 import com.orangeforms.courseclassapi.dto.*;
@@ -20,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -149,15 +149,39 @@ public class StudentController extends BaseController<Student, StudentVo, Long>
             @MyRequestBody StudentDto studentDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         Student studentFilter = MyModelUtil.copyTo(studentDtoFilter, Student.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, Student.class);
         List<Student> studentList = studentService.getStudentListWithRelation(studentFilter, orderBy);
         return ResponseResult.success(MyPageUtil.makeResponseData(studentList, Student.INSTANCE));
     }
 
+    /**
+     * 导出符合过滤条件的学生数据列表。数据以游标方式分批读取并流式写出，适用于大数据量的导出。
+     *
+     * @param studentDtoFilter 过滤对象。
+     * @param orderParam 排序参数。
+     * @throws IOException 文件读写失败。
+     */
+    @OperationLog(type = SysOperationLogType.EXPORT)
+    @PostMapping("/export")
+    public void export(
+            @MyRequestBody StudentDto studentDtoFilter,
+            @MyRequestBody MyOrderParam orderParam) throws IOException {
+        Student studentFilter = MyModelUtil.copyTo(studentDtoFilter, Student.class);
+        String orderBy = MyOrderParam.buildOrderBy(orderParam, Student.class);
+        Map<String, String> headerMap = new LinkedHashMap<>(8);
+        headerMap.put("studentId", "学生Id");
+        headerMap.put("loginMobile", "登录手机");
+        headerMap.put("studentName", "学生姓名");
+        headerMap.put("provinceIdDictMap.name", "所在省份");
+        headerMap.put("cityIdDictMap.name", "所在城市");
+        headerMap.put("gradeIdDictMap.name", "年级");
+        headerMap.put("registerTime", "注册时间");
+        headerMap.put("statusDictMap.name", "学生状态");
+        studentService.exportStudentListWithRelation(studentFilter, orderBy, headerMap, "student.xlsx");
+    }
+
     /**
      * 查看指定学生数据对象详情。
      *
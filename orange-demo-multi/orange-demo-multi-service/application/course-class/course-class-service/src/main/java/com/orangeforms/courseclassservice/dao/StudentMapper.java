@@ -4,6 +4,7 @@ import com.orangeforms.common.core.annotation.EnableDataPerm;
 import com.orangeforms.common.core.base.dao.BaseDaoMapper;
 import com.orangeforms.courseclassservice.model.Student;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.*;
 
@@ -38,6 +39,21 @@ public interface StudentMapper extends BaseDaoMapper<Student> {
             @Param("studentFilter") Student studentFilter,
             @Param("orderBy") String orderBy);
 
+    /**
+     * 以游标方式获取过滤后的对象列表，用于大数据量的流式导出。
+     *
+     * @param inFilterColumn 参与(In-list)过滤的数据表列。
+     * @param inFilterValues 参与(In-list)过滤的数据表列值集合。
+     * @param studentFilter 过滤对象。
+     * @param orderBy 排序字符串，order by从句的参数。
+     * @return 对象游标。
+     */
+    <M> Cursor<Student> getStudentListCursor(
+            @Param("inFilterColumn") String inFilterColumn,
+            @Param("inFilterValues") Set<M> inFilterValues,
+            @Param("studentFilter") Student studentFilter,
+            @Param("orderBy") String orderBy);
+
     /**
      * 获取对象列表，过滤条件中包含like和between条件，以及指定属性的(in list)过滤条件。
      *
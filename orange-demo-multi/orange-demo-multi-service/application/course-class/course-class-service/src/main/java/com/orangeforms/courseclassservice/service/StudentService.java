@@ -3,6 +3,7 @@ package com.orangeforms.courseclassservice.service;
 import com.orangeforms.courseclassservice.model.*;
 import com.orangeforms.common.core.base.service.IBaseService;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -92,6 +93,19 @@ public interface StudentService extends IBaseService<Student, Long> {
     <M> List<Student> getStudentListWithRelation(
             String inFilterField, Set<M> inFilterValues, Student filter, String orderBy);
 
+    /**
+     * 流式导出主表的查询结果，以及主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
+     * 主表数据通过游标分批读取，内存占用与导出的总行数无关。
+     *
+     * @param filter 主表过滤对象。
+     * @param orderBy 排序对象。
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename 导出文件名。
+     * @throws IOException 文件操作失败。
+     */
+    void exportStudentListWithRelation(
+            Student filter, String orderBy, Map<String, String> selectFieldMap, String filename) throws IOException;
+
     /**
      * 在多对多关系中，当前Service的数据表为从表，返回不与指定主表主键Id存在对多对关系的列表。
      *
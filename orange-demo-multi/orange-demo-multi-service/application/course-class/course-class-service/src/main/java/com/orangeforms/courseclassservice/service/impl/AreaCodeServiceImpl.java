@@ -23,12 +23,21 @@ public class AreaCodeServiceImpl extends BaseDictService<AreaCode, Long> impleme
 
     @Autowired
     private AreaCodeMapper areaCodeMapper;
+    /**
+     * 基类中的dictionaryCache会被包装为带有指标统计的缓存对象，这里保留原始的树形缓存对象，以便按照父Id查询。
+     */
+    private final MapTreeDictionaryCache<Long, AreaCode> areaCodeCache;
 
     public AreaCodeServiceImpl() {
         super();
-        this.dictionaryCache = MapTreeDictionaryCache.create(AreaCode::getAreaId, AreaCode::getParentId);
+        this.areaCodeCache = MapTreeDictionaryCache.create(AreaCode::getAreaId, AreaCode::getParentId);
+        this.dictionaryCache = areaCodeCache;
     }
 
+    /**
+     * 行政区划数据仅缓存在本地内存且不会过期，因此必须在服务注册和接收请求之前完成全量加载。
+     * 否则启动期间的查询会将数据库中的个别数据写入缓存，之后的预热任务将误认为缓存已有数据而不再加载。
+     */
     @PostConstruct
     public void init() {
         this.reloadCachedData(true);
@@ -47,6 +56,6 @@ public class AreaCodeServiceImpl extends BaseDictService<AreaCode, Long> impleme
      */
     @Override
     public Collection<AreaCode> getListByParentId(Long parentId) {
-        return ((MapTreeDictionaryCache<Long, AreaCode>) dictionaryCache).getListByParentId(parentId);
+        return areaCodeCache.getListByParentId(parentId);
     }
 }
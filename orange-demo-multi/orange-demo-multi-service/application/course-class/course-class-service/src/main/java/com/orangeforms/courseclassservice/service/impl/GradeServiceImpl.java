@@ -1,6 +1,7 @@
 package com.orangeforms.courseclassservice.service.impl;
 
-import com.orangeforms.common.redis.cache.RedisDictionaryCache;
+import com.orangeforms.common.core.annotation.MyCacheWarmup;
+import com.orangeforms.common.redis.cache.NearRedisDictionaryCache;
 import com.orangeforms.common.core.base.service.BaseDictService;
 import com.orangeforms.common.core.base.dao.BaseDaoMapper;
 import com.orangeforms.courseclassservice.service.GradeService;
@@ -20,6 +21,7 @@ import javax.annotation.PostConstruct;
  * @date 2020-08-08
  */
 @Slf4j
+@MyCacheWarmup(critical = false)
 @Service("gradeService")
 public class GradeServiceImpl extends BaseDictService<Grade, Integer> implements GradeService {
 
@@ -34,7 +36,7 @@ public class GradeServiceImpl extends BaseDictService<Grade, Integer> implements
 
     @PostConstruct
     public void init() {
-        this.dictionaryCache = RedisDictionaryCache.create(
+        this.dictionaryCache = NearRedisDictionaryCache.create(
                 redissonClient, "Grade", Grade.class, Grade::getGradeId);
     }
 
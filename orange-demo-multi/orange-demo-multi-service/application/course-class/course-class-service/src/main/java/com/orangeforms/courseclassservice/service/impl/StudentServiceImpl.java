@@ -21,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -191,6 +192,24 @@ public class StudentServiceImpl extends BaseService<Student, Long> implements St
         return resultList;
     }
 
+    /**
+     * 流式导出主表的查询结果，以及主表关联的字典数据和一对一从表数据，以及一对一从表的字典数据。
+     * 主表数据通过游标分批读取，每个批次组装关联数据后立即写出，内存占用与导出的总行数无关。
+     *
+     * @param filter 主表过滤对象。
+     * @param orderBy 排序对象。
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename 导出文件名。
+     * @throws IOException 文件操作失败。
+     */
+    @Override
+    public void exportStudentListWithRelation(
+            Student filter, String orderBy, Map<String, String> selectFieldMap, String filename) throws IOException {
+        this.exportWithRelation(
+                sqlSession -> sqlSession.getMapper(StudentMapper.class).getStudentListCursor(null, null, filter, orderBy),
+                MyRelationParam.normal(), selectFieldMap, filename);
+    }
+
     /**
      * 在多对多关系中，当前Service的数据表为从表，返回不与指定主表主键Id存在对多对关系的列表。
      *
@@ -0,0 +1,155 @@
+package com.orangeforms.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.common.core.util.UrlPatternMatcher;
+import com.orangeforms.gateway.config.ApplicationConfig;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关本地的会话和权限数据缓存。
+ * 缓存的数据在写入sessionNearCacheMaxStalenessSeconds秒之后自动过期，此外在登出、强制下线和重复登录时，
+ * upms服务会通过Redis主题发送会话失效通知，网关收到通知后立即清除匹配的本地数据。
+ * 由于权限数据是在登录时生成的，角色和菜单的修改不会影响已经登录的会话，因此无需额外的失效通知。
+ * 不同会话的权限url数量差异较大，因此缓存的容量按照权限url的总数量，而不是会话数量进行限制。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class SessionNearCache {
+
+    @Autowired
+    private ApplicationConfig appConfig;
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private Cache<String, SessionEntry> cache;
+    /**
+     * 本地缓存的失效次数。从Redis读取数据期间如果收到失效通知，读取的结果将不会再保存到本地。
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!appConfig.isSessionNearCacheEnabled()) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumWeight(appConfig.getSessionNearCacheMaximumWeight())
+                .weigher((String sessionId, SessionEntry entry) -> 1 + entry.getPermUrlSet().size())
+                .expireAfterWrite(appConfig.getSessionNearCacheMaxStalenessSeconds(), TimeUnit.SECONDS)
+                .build();
+        redissonClient.getTopic(RedisKeyUtil.getSessionInvalidateTopic())
+                .addListener(String.class, (channel, sessionIdPrefix) -> this.invalidate(sessionIdPrefix));
+    }
+
+    /**
+     * 是否启用了本地缓存。
+     *
+     * @return 启用返回true，否则false。
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * 获取当前的失效次数，在从Redis读取数据之前调用，并在保存数据时作为参数传入。
+     *
+     * @return 当前的失效次数。
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * 获取本地缓存的会话数据。
+     *
+     * @param sessionId 会话Id。
+     * @return 会话数据，不存在或未启用本地缓存时返回null。
+     */
+    public SessionEntry get(String sessionId) {
+        return cache == null ? null : cache.getIfPresent(sessionId);
+    }
+
+    /**
+     * 保存会话数据到本地缓存。
+     *
+     * @param sessionId          会话Id。
+     * @param entry              会话数据。
+     * @param expectedGeneration 从Redis读取数据之前获取的失效次数。
+     */
+    public void put(String sessionId, SessionEntry entry, long expectedGeneration) {
+        if (cache == null) {
+            return;
+        }
+        cache.put(sessionId, entry);
+        // 写入期间可能已经收到了失效通知，此时需要移除刚刚写入的旧数据。
+        if (generation.get() != expectedGeneration) {
+            cache.asMap().remove(sessionId, entry);
+        }
+    }
+
+    /**
+     * 清除本地缓存的会话数据。
+     *
+     * @param sessionIdPrefix 会话Id或会话Id前缀，所有匹配该前缀的会话都会被清除。
+     */
+    public void invalidate(String sessionIdPrefix) {
+        if (cache == null || sessionIdPrefix == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(sessionId -> sessionId.startsWith(sessionIdPrefix));
+        log.debug("Session near cache is invalidated by prefix [{}].", sessionIdPrefix);
+    }
+
+    /**
+     * 本地缓存的会话数据。
+     */
+    @Getter
+    public static class SessionEntry {
+        /**
+         * Redis中保存的会话数据。
+         */
+        private final String sessionData;
+        /**
+         * 会话可以访问的全部url。
+         */
+        private final Set<String> permUrlSet;
+        /**
+         * 权限url中Ant风格的url模式，如"/admin/app/course/**"，在创建时一次性编译。
+         */
+        private final UrlPatternMatcher permUrlMatcher;
+
+        public SessionEntry(String sessionData, Set<String> permUrlSet) {
+            this.sessionData = sessionData;
+            this.permUrlSet = permUrlSet == null ? Collections.emptySet() : permUrlSet;
+            this.permUrlMatcher = UrlPatternMatcher.compile(this.permUrlSet.stream()
+                    .filter(UrlPatternMatcher::isPattern).collect(Collectors.toList()));
+        }
+
+        /**
+         * 判断会话是否可以访问指定的url。先精确匹配，再匹配权限数据中的url模式。
+         *
+         * @param url 请求的url。
+         * @return 可以访问返回true，否则false。
+         */
+        public boolean hasPermission(String url) {
+            return permUrlSet.contains(url) || permUrlMatcher.matches(url);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.orangeforms.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orangeforms.common.core.util.UrlPatternMatcher;
+import com.orangeforms.gateway.config.ApplicationConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 网关本地的会话权限url模式缓存，保存每个会话编译后的Ant风格权限url模式匹配器。
+ * 未启用SessionNearCache时，精确匹配失败的请求只有在首次访问时才会读取全部权限url并编译，
+ * 之后同一会话的请求(包括被拒绝的请求)都直接使用本地编译好的匹配器，不会再读取Redis。
+ * 由于权限数据是在登录时生成的，会话存续期间不会改变，因此缓存数据和会话具有相同的过期时间，且无需失效通知。
+ * 会话被删除后，请求会因会话数据不存在而被拒绝，不会再使用这里的数据。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+public class SessionPermPatternCache {
+
+    @Autowired
+    private ApplicationConfig appConfig;
+
+    private Cache<String, UrlPatternMatcher> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getSessionPermPatternCacheMaximumSize())
+                .expireAfterWrite(appConfig.getSessionExpiredSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取会话编译后的权限url模式匹配器。
+     *
+     * @param sessionId 会话Id。
+     * @return 匹配器对象，尚未缓存时返回null。
+     */
+    public UrlPatternMatcher get(String sessionId) {
+        return cache.getIfPresent(sessionId);
+    }
+
+    /**
+     * 编译会话全部权限url中的url模式，并保存到本地缓存。
+     *
+     * @param sessionId  会话Id。
+     * @param permUrlSet 会话的全部权限url。
+     * @return 编译后的匹配器对象。
+     */
+    public UrlPatternMatcher put(String sessionId, Collection<String> permUrlSet) {
+        UrlPatternMatcher matcher = UrlPatternMatcher.compile(permUrlSet.stream()
+                .filter(UrlPatternMatcher::isPattern).collect(Collectors.toList()));
+        cache.put(sessionId, matcher);
+        return matcher;
+    }
+}
@@ -1,10 +1,13 @@
 package com.orangeforms.gateway.config;
 
+import com.orangeforms.gateway.constant.GatewayConstant;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -52,4 +55,27 @@ public class ApplicationConfig {
      * 基于Ant Pattern模式判定规则的白名单地址集合。如：/aa/**。
      */
     private Set<String> whitelistUrlPattern;
+    /**
+     * 需要读取完整应答消息体的url集合，其他请求的应答数据直接透传。
+     * 除登出url之外，集合中的其他url均视为登录类接口(如登录和令牌刷新)，网关会从其应答中提取令牌数据并保存会话。
+     */
+    private Set<String> bodyCaptureUrl = new HashSet<>(
+            Arrays.asList(GatewayConstant.ADMIN_LOGIN_URL, GatewayConstant.ADMIN_LOGOUT_URL));
+    /**
+     * 是否在网关本地缓存会话和权限数据。缺省关闭，需要时可在配置中开启。
+     */
+    private boolean sessionNearCacheEnabled = false;
+    /**
+     * 会话和权限数据在网关本地缓存中的最长保留时间(秒)，即本地数据和Redis数据之间可能出现的最大不一致时长。
+     * 登出和强制下线等操作会通过Redis主题主动通知网关清除本地缓存，该值仅用于限定通知丢失时的影响范围。
+     */
+    private int sessionNearCacheMaxStalenessSeconds = 10;
+    /**
+     * 网关本地缓存的最大权重。每个会话的权重为1加上其权限url的数量，从而按照实际占用的内存限制缓存的大小。
+     */
+    private long sessionNearCacheMaximumWeight = 1000000;
+    /**
+     * 网关本地缓存编译后权限url模式的最大会话数量。未启用会话本地缓存时使用，数据的过期时间和会话相同。
+     */
+    private long sessionPermPatternCacheMaximumSize = 10000;
 }
@@ -10,13 +10,14 @@ import com.orangeforms.common.core.object.TokenData;
 import com.orangeforms.common.core.util.JwtUtil;
 import com.orangeforms.common.core.util.MyCommonUtil;
 import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.gateway.cache.SessionNearCache;
 import com.orangeforms.gateway.config.ApplicationConfig;
 import com.orangeforms.gateway.constant.GatewayConstant;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.reactivestreams.Publisher;
-import org.redisson.api.RBucket;
-import org.redisson.api.RSet;
+import org.redisson.api.RBatch;
+import org.redisson.api.RSetAsync;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -37,8 +38,8 @@ import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -55,6 +56,8 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
     private ApplicationConfig appConfig;
     @Autowired
     private RedissonClient redissonClient;
+    @Autowired
+    private SessionNearCache sessionNearCache;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -65,8 +68,9 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
         if (refreshedToken != null) {
             originalResponse.getHeaders().add(appConfig.getRefreshedTokenHeaderKey(), refreshedToken);
         }
-        if (!originalRequest.getURI().getPath().equals(GatewayConstant.ADMIN_LOGIN_URL)
-                && !originalRequest.getURI().getPath().equals(GatewayConstant.ADMIN_LOGOUT_URL)) {
+        // 只有配置的登录和登出等请求需要读取完整的应答消息体，其他请求的应答数据直接透传，不做任何缓冲和拷贝。
+        Set<String> bodyCaptureUrl = appConfig.getBodyCaptureUrl();
+        if (bodyCaptureUrl == null || !bodyCaptureUrl.contains(originalRequest.getURI().getPath())) {
             return chain.filter(exchange);
         }
         DataBufferFactory bufferFactory = originalResponse.bufferFactory();
@@ -87,9 +91,9 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
                     return super.writeWith(bodyData);
                 }
                 Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) bodyData;
-                return super.writeWith(fluxBody.buffer().map(dataBuffers -> {
+                return super.writeWith(DataBufferUtils.join(fluxBody).flatMap(dataBuffer -> {
                     // 读取完整的服务应答消息体。
-                    String responseBody = readResponseBody(dataBuffers);
+                    String responseBody = readResponseBody(dataBuffer);
                     originalResponse.getHeaders().setContentType(MediaType.APPLICATION_JSON);
                     // 先判断body中是否包含数据。
                     if (StringUtils.isBlank(responseBody)) {
@@ -98,25 +102,20 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
                         String errorMessage = "后台服务没有任何数据返回！";
                         responseBody = JSON.toJSONString(
                                 ResponseResult.error(ErrorCodeEnum.SERVER_INTERNAL_ERROR, errorMessage));
-                        byte[] uppedContent = new String(responseBody.getBytes(), StandardCharsets.UTF_8).getBytes();
-                        originalResponse.getHeaders().setContentLength(uppedContent.length);
-                        return bufferFactory.wrap(uppedContent);
+                        return Mono.just(wrapResponseBody(originalResponse, bufferFactory, responseBody));
                     }
                     // 处理登录和登出请求。
-                    String result;
-                    try {
-                        result = doProcess(exchange, responseBody);
-                    } catch (Exception e) {
-                        setStatusCode(HttpStatus.BAD_REQUEST);
-                        String errorMsg = "Server Internal Error";
-                        sb.append(errorMsg);
-                        log.error(sb.toString(), e);
-                        result = JSON.toJSONString(
-                                ResponseResult.error(ErrorCodeEnum.SERVER_INTERNAL_ERROR, errorMsg));
-                    }
-                    byte[] uppedContent = new String(result.getBytes(), StandardCharsets.UTF_8).getBytes();
-                    originalResponse.getHeaders().setContentLength(uppedContent.length);
-                    return bufferFactory.wrap(uppedContent);
+                    String body = responseBody;
+                    return Mono.defer(() -> doProcess(exchange, body))
+                            .onErrorResume(e -> {
+                                setStatusCode(HttpStatus.BAD_REQUEST);
+                                String errorMsg = "Server Internal Error";
+                                sb.append(errorMsg);
+                                log.error(sb.toString(), e);
+                                return Mono.just(JSON.toJSONString(
+                                        ResponseResult.error(ErrorCodeEnum.SERVER_INTERNAL_ERROR, errorMsg)));
+                            })
+                            .map(result -> wrapResponseBody(originalResponse, bufferFactory, result));
                 }));
             }
         };
@@ -134,98 +133,95 @@ public class AuthenticationPostFilter implements GlobalFilter, Ordered {
         return -2;
     }
 
-    private String readResponseBody(List<? extends DataBuffer> dataBuffers) {
-        int dataCount = 0;
-        for (DataBuffer dataBuffer : dataBuffers) {
-            dataCount += dataBuffer.readableByteCount();
-        }
-        byte[] allBytes = new byte[dataCount];
-        int offset = 0;
-        for (DataBuffer dataBuffer : dataBuffers) {
-            int length = dataBuffer.readableByteCount();
-            dataBuffer.read(allBytes, offset, length);
+    private String readResponseBody(DataBuffer dataBuffer) {
+        try {
+            return dataBuffer.toString(StandardCharsets.UTF_8);
+        } finally {
             DataBufferUtils.release(dataBuffer);
-            offset += length;
         }
-        return new String(allBytes, StandardCharsets.UTF_8);
+    }
+
+    private DataBuffer wrapResponseBody(
+            ServerHttpResponse response, DataBufferFactory bufferFactory, String responseBody) {
+        byte[] content = responseBody.getBytes(StandardCharsets.UTF_8);
+        response.getHeaders().setContentLength(content.length);
+        return bufferFactory.wrap(content);
     }
 
     @SuppressWarnings("unchecked")
-    private String doProcess(ServerWebExchange exchange, String responseBody) {
+    private Mono<String> doProcess(ServerWebExchange exchange, String responseBody) {
         // 这个解析出来的就是upms登录或登出接口返回的ResponseResult对象。
         ServerHttpRequest originalRequest = exchange.getRequest();
-        if (originalRequest.getURI().getPath().equals(GatewayConstant.ADMIN_LOGIN_URL)) {
-            // 处理登录服务的消息体，同时重构该消息体，并最终返回前端。
-            ResponseResult<JSONObject> result = processLoginResponse(responseBody);
-            return JSON.toJSONString(result);
+        if (!originalRequest.getURI().getPath().equals(GatewayConstant.ADMIN_LOGOUT_URL)) {
+            // 处理登录和令牌刷新等服务的消息体，同时重构该消息体，并最终返回前端。
+            return processLoginResponse(responseBody).map(JSON::toJSONString);
         }
-        if (originalRequest.getURI().getPath().equals(GatewayConstant.ADMIN_LOGOUT_URL)) {
-            ResponseResult<Void> result = JSON.parseObject(responseBody, ResponseResult.class);
-            if (result.isSuccess()) {
-                String sessionId = (String) exchange.getAttributes().get(GatewayConstant.SESSION_ID_KEY_NAME);
-                redissonClient.getBucket(RedisKeyUtil.makeSessionIdKey(sessionId)).deleteAsync();
-                redissonClient.getSet(RedisKeyUtil.makeSessionPermIdKey(sessionId)).deleteAsync();
-            }
-            return responseBody;
+        ResponseResult<Void> result = JSON.parseObject(responseBody, ResponseResult.class);
+        if (result.isSuccess()) {
+            String sessionId = (String) exchange.getAttributes().get(GatewayConstant.SESSION_ID_KEY_NAME);
+            redissonClient.getBucket(RedisKeyUtil.makeSessionIdKey(sessionId)).deleteAsync();
+            redissonClient.getSet(RedisKeyUtil.makeSessionPermIdKey(sessionId)).deleteAsync();
+            sessionNearCache.invalidate(sessionId);
         }
-        return null;
+        return Mono.just(responseBody);
     }
 
     @SuppressWarnings("unchecked")
-    private ResponseResult<JSONObject> processLoginResponse(String responseBody) {
+    private Mono<ResponseResult<JSONObject>> processLoginResponse(String responseBody) {
         ResponseResult<JSONObject> responseResult = JSON.parseObject(responseBody, ResponseResult.class);
         if (!responseResult.isSuccess()) {
-            return responseResult;
+            return Mono.just(responseResult);
         }
         JSONObject loginData = responseResult.getData();
         // 1. 先验证登陆服务器返回的应答数据是否正确
         JSONObject tokenData = loginData.getJSONObject(TokenData.REQUEST_ATTRIBUTE_NAME);
         ErrorCodeEnum errorCode = ErrorCodeEnum.SERVER_INTERNAL_ERROR;
         if (tokenData == null) {
-            return ResponseResult.error(errorCode, "内部错误，用户登录令牌对象没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，用户登录令牌对象没有正确返回！"));
         }
         Long userId = tokenData.getLong("userId");
         if (MyCommonUtil.isBlankOrNull(userId)) {
-            return ResponseResult.error(errorCode, "内部错误，用户Id没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，用户Id没有正确返回！"));
         }
         Boolean isAdmin = tokenData.getBoolean("isAdmin");
         if (isAdmin == null) {
-            return ResponseResult.error(errorCode, "内部错误，是否为管理员标记没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，是否为管理员标记没有正确返回！"));
         }
         String showName = tokenData.getString("showName");
         if (StringUtils.isBlank(showName)) {
-            return ResponseResult.error(errorCode, "内部错误，用户显示名没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，用户显示名没有正确返回！"));
         }
         String loginName = tokenData.getString("loginName");
         if (StringUtils.isBlank(loginName)) {
-            return ResponseResult.error(errorCode, "内部错误，用户登录名没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，用户登录名没有正确返回！"));
         }
         String sessionId = tokenData.getString("sessionId");
         if (StringUtils.isBlank(sessionId)) {
-            return ResponseResult.error(errorCode, "内部错误，SESSION_ID没有正确返回！");
+            return Mono.just(ResponseResult.error(errorCode, "内部错误，SESSION_ID没有正确返回！"));
         }
         // 2. 生成sessionId并存放到token中
         Map<String, Object> claims = new HashMap<>(1);
         claims.put(GatewayConstant.SESSION_ID_KEY_NAME, sessionId);
         String token = JwtUtil.generateToken(claims, appConfig.getExpiration(), appConfig.getTokenSigningKey());
-        // 3. 更新缓存
+        // 3. 更新缓存。会话数据和权限数据通过同一个批量请求写入，会话数据的写入和过期时间设置由一条原子命令完成。
+        // 整个过程都是异步的，不会阻塞网关的事件循环线程，全部写入完成之后才会给前端返回登录应答。
+        RBatch batch = redissonClient.createBatch();
+        int sessionExpiredSeconds = appConfig.getSessionExpiredSeconds();
         String sessionIdKey = RedisKeyUtil.makeSessionIdKey(sessionId);
         String sessionData = JSON.toJSONString(tokenData, SerializerFeature.WriteNonStringValueAsString);
-        RBucket<String> bucket = redissonClient.getBucket(sessionIdKey);
-        bucket.set(sessionData);
-        bucket.expire(appConfig.getSessionExpiredSeconds(), TimeUnit.SECONDS);
+        batch.<String>getBucket(sessionIdKey).setAsync(sessionData, sessionExpiredSeconds, TimeUnit.SECONDS);
         // 3.2 sessionId -> permList 是set结构的缓存
         JSONArray permSet = loginData.getJSONArray("permSet");
         if (permSet != null) {
             String sessionPermKey = RedisKeyUtil.makeSessionPermIdKey(sessionId);
-            RSet<String> redisPermSet = redissonClient.getSet(sessionPermKey);
-            redisPermSet.addAll(permSet.stream().map(Object::toString).collect(Collectors.toSet()));
-            redisPermSet.expire(appConfig.getSessionExpiredSeconds(), TimeUnit.SECONDS);
+            RSetAsync<String> redisPermSet = batch.getSet(sessionPermKey);
+            redisPermSet.addAllAsync(permSet.stream().map(Object::toString).collect(Collectors.toSet()));
+            redisPermSet.expireAsync(sessionExpiredSeconds, TimeUnit.SECONDS);
         }
         // 4. 构造返回给用户的应答，将加密后的令牌返回给前端。
         loginData.put(TokenData.REQUEST_ATTRIBUTE_NAME, token);
         // 5. 这里需要移除权限资源集合的数据，验证在后端进行，无需返回给前端。
         loginData.remove("permSet");
-        return ResponseResult.success(loginData);
+        return Mono.fromCompletionStage(batch.executeAsync()).thenReturn(ResponseResult.success(loginData));
     }
 }
@@ -1,6 +1,5 @@
 package com.orangeforms.statsservice.controller;
 
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.statsservice.model.*;
 import com.orangeforms.statsservice.service.*;
 import com.orangeforms.statsapi.dto.*;
@@ -51,9 +50,7 @@ public class CourseTransStatsController extends BaseController<CourseTransStats,
             @MyRequestBody CourseTransStatsDto courseTransStatsDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         CourseTransStats courseTransStatsFilter = MyModelUtil.copyTo(courseTransStatsDtoFilter, CourseTransStats.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, CourseTransStats.class);
         List<CourseTransStats> courseTransStatsList =
@@ -82,9 +79,7 @@ public class CourseTransStatsController extends BaseController<CourseTransStats,
             return ResponseResult.error(
                     ErrorCodeEnum.INVALID_ARGUMENT_FORMAT, "数据参数错误，分组参数不能为空！");
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         CourseTransStats filter = MyModelUtil.copyTo(courseTransStatsDtoFilter, CourseTransStats.class);
         MyGroupCriteria criteria = groupParam.getGroupCriteria();
         List<CourseTransStats> resultList = courseTransStatsService.getGroupedCourseTransStatsListWithRelation(
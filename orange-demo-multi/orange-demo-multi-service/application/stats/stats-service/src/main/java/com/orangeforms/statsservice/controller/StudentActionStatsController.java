@@ -1,6 +1,5 @@
 package com.orangeforms.statsservice.controller;
 
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.statsservice.model.*;
 import com.orangeforms.statsservice.service.*;
 import com.orangeforms.statsapi.dto.*;
@@ -51,9 +50,7 @@ public class StudentActionStatsController extends BaseController<StudentActionSt
             @MyRequestBody StudentActionStatsDto studentActionStatsDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         StudentActionStats studentActionStatsFilter = MyModelUtil.copyTo(studentActionStatsDtoFilter, StudentActionStats.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, StudentActionStats.class);
         List<StudentActionStats> studentActionStatsList =
@@ -82,9 +79,7 @@ public class StudentActionStatsController extends BaseController<StudentActionSt
             return ResponseResult.error(
                     ErrorCodeEnum.INVALID_ARGUMENT_FORMAT, "数据参数错误，分组参数不能为空！");
         }
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         StudentActionStats filter = MyModelUtil.copyTo(studentActionStatsDtoFilter, StudentActionStats.class);
         MyGroupCriteria criteria = groupParam.getGroupCriteria();
         List<StudentActionStats> resultList = studentActionStatsService.getGroupedStudentActionStatsListWithRelation(
@@ -1,6 +1,5 @@
 package com.orangeforms.statsservice.controller;
 
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.statsservice.model.*;
 import com.orangeforms.statsservice.service.*;
 import com.orangeforms.statsapi.dto.*;
@@ -142,9 +141,7 @@ public class StudentActionTransController extends BaseController<StudentActionTr
             @MyRequestBody StudentActionTransDto studentActionTransDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         StudentActionTrans studentActionTransFilter = MyModelUtil.copyTo(studentActionTransDtoFilter, StudentActionTrans.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, StudentActionTrans.class);
         List<StudentActionTrans> studentActionTransList =
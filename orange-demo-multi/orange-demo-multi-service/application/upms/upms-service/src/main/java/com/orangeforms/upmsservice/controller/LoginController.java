@@ -100,8 +100,10 @@ public class LoginController {
             errorMessage = "登录失败，用户账号被锁定！";
             return ResponseResult.error(ErrorCodeEnum.INVALID_USER_STATUS, errorMessage);
         }
-        String patternKey = RedisKeyUtil.getSessionIdPrefix(user.getLoginName(), MyCommonUtil.getDeviceType()) + "*";
-        redissonClient.getKeys().deleteByPatternAsync(patternKey);
+        String sessionKeyPrefix = RedisKeyUtil.getSessionIdPrefix(user.getLoginName(), MyCommonUtil.getDeviceType());
+        redissonClient.getKeys().deleteByPatternAsync(sessionKeyPrefix + "*");
+        // 会话的Redis键由固定前缀加SessionId组成，去掉固定前缀后即为同一用户同一设备类型的SessionId前缀。
+        cacheHelper.publishSessionInvalidation(sessionKeyPrefix.substring(RedisKeyUtil.getSessionIdPrefix().length()));
         JSONObject jsonData = this.buildLoginData(user);
         return ResponseResult.success(jsonData);
     }
@@ -117,6 +119,7 @@ public class LoginController {
         TokenData tokenData = TokenData.takeFromRequest();
         sysDataPermService.removeDataPermCache(tokenData.getSessionId());
         cacheHelper.removeAllSessionCache(tokenData.getSessionId());
+        cacheHelper.publishSessionInvalidation(tokenData.getSessionId());
         return ResponseResult.success();
     }
 
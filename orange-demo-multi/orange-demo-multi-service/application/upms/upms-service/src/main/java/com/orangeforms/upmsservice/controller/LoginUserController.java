@@ -6,6 +6,7 @@ import com.alibaba.fastjson.JSON;
 import com.orangeforms.common.core.annotation.MyRequestBody;
 import com.orangeforms.common.core.object.*;
 import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.common.redis.cache.SessionCacheHelper;
 import io.swagger.annotations.Api;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBucket;
@@ -31,6 +32,8 @@ public class LoginUserController {
 
     @Autowired
     private RedissonClient redissonClient;
+    @Autowired
+    private SessionCacheHelper cacheHelper;
 
     /**
      * 显示在线用户列表。
@@ -72,6 +75,7 @@ public class LoginUserController {
         // 为了保证被剔除用户正在进行的操作不被干扰，这里只是删除sessionIdKey即可，这样可以使强制下线操作更加平滑。
         // 比如，如果删除操作权限或数据权限的redis session key，那么正在请求数据的操作就会报错。
         redissonClient.getBucket(RedisKeyUtil.makeSessionIdKey(sessionId)).delete();
+        cacheHelper.publishSessionInvalidation(sessionId);
         return ResponseResult.success();
     }
 
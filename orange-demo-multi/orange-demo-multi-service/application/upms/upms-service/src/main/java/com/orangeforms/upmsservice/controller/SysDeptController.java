@@ -1,7 +1,6 @@
 package com.orangeforms.upmsservice.controller;
 
 import cn.jimmyshi.beanquery.BeanQuery;
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.upmsservice.model.*;
 import com.orangeforms.upmsservice.service.*;
 import com.orangeforms.upmsapi.dto.*;
@@ -155,9 +154,7 @@ public class SysDeptController extends BaseController<SysDept, SysDeptVo, Long>
             @MyRequestBody SysDeptDto sysDeptDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         SysDept sysDeptFilter = MyModelUtil.copyTo(sysDeptDtoFilter, SysDept.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, SysDept.class);
         List<SysDept> sysDeptList = sysDeptService.getSysDeptListWithRelation(sysDeptFilter, orderBy);
@@ -2,7 +2,6 @@ package com.orangeforms.upmsservice.controller;
 
 import com.alibaba.fastjson.TypeReference;
 import cn.hutool.core.collection.CollUtil;
-import com.github.pagehelper.page.PageMethod;
 import com.orangeforms.upmsservice.model.*;
 import com.orangeforms.upmsservice.service.*;
 import com.orangeforms.upmsapi.dto.*;
@@ -176,9 +175,7 @@ public class SysUserController extends BaseController<SysUser, SysUserVo, Long>
             @MyRequestBody SysUserDto sysUserDtoFilter,
             @MyRequestBody MyOrderParam orderParam,
             @MyRequestBody MyPageParam pageParam) {
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
-        }
+        MyPageUtil.startPage(pageParam);
         SysUser sysUserFilter = MyModelUtil.copyTo(sysUserDtoFilter, SysUser.class);
         String orderBy = MyOrderParam.buildOrderBy(orderParam, SysUser.class);
         List<SysUser> sysUserList = sysUserService.getSysUserListWithRelation(sysUserFilter, orderBy);
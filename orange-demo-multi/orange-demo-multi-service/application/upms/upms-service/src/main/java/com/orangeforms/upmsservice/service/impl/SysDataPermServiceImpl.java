@@ -11,6 +11,7 @@ import com.orangeforms.common.core.object.CallResult;
 import com.orangeforms.common.core.util.MyModelUtil;
 import com.orangeforms.common.core.util.RedisKeyUtil;
 import com.orangeforms.common.sequence.wrapper.IdGeneratorWrapper;
+import com.orangeforms.common.datafilter.cache.SessionDataPermCache;
 import com.orangeforms.common.datafilter.constant.DataPermRuleType;
 import com.orangeforms.upmsservice.dao.SysDataPermDeptMapper;
 import com.orangeforms.upmsservice.dao.SysDataPermMapper;
@@ -56,6 +57,8 @@ public class SysDataPermServiceImpl extends BaseService<SysDataPerm, Long> imple
     private ApplicationConfig applicationConfig;
     @Autowired
     private IdGeneratorWrapper idGenerator;
+    @Autowired
+    private SessionDataPermCache sessionDataPermCache;
 
     /**
      * 返回主对象的Mapper对象。
@@ -150,6 +153,7 @@ public class SysDataPermServiceImpl extends BaseService<SysDataPerm, Long> imple
     public void removeDataPermCache(String sessionId) {
         String sessionPermKey = RedisKeyUtil.makeSessionDataPermIdKey(sessionId);
         redissonClient.getBucket(sessionPermKey).deleteAsync();
+        sessionDataPermCache.invalidate(sessionId);
     }
 
     /**
@@ -169,6 +173,7 @@ public class SysDataPermServiceImpl extends BaseService<SysDataPerm, Long> imple
             bucket.set(JSON.toJSONString(dataPermMap),
                     applicationConfig.getDataPermExpiredSeconds(), TimeUnit.SECONDS);
         }
+        sessionDataPermCache.invalidate(sessionId);
         return dataPermMap;
     }
 
@@ -11,6 +11,7 @@ import com.orangeforms.common.core.constant.GlobalDeletedFlag;
 import com.orangeforms.common.core.base.dao.BaseDaoMapper;
 import com.orangeforms.common.core.base.service.BaseService;
 import com.orangeforms.common.sequence.wrapper.IdGeneratorWrapper;
+import com.orangeforms.common.datafilter.cache.DeptClosureIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -41,6 +42,8 @@ public class SysDeptServiceImpl extends BaseService<SysDept, Long> implements Sy
     private SysDataPermDeptMapper sysDataPermDeptMapper;
     @Autowired
     private IdGeneratorWrapper idGenerator;
+    @Autowired
+    private DeptClosureIndex deptClosureIndex;
 
     /**
      * 返回当前Service的主表Mapper对象。
@@ -72,6 +75,7 @@ public class SysDeptServiceImpl extends BaseService<SysDept, Long> implements Sy
         } else {
             sysDeptRelationMapper.insertParentList(parentSysDept.getDeptId(), sysDept.getDeptId());
         }
+        deptClosureIndex.invalidate();
         return sysDept;
     }
 
@@ -92,6 +96,7 @@ public class SysDeptServiceImpl extends BaseService<SysDept, Long> implements Sy
         }
         if (ObjectUtils.notEqual(sysDept.getParentId(), originalSysDept.getParentId())) {
             this.updateParentRelation(sysDept, originalSysDept);
+            deptClosureIndex.invalidate();
         }
         return true;
     }
@@ -171,6 +176,7 @@ public class SysDeptServiceImpl extends BaseService<SysDept, Long> implements Sy
         SysDeptRelation deptRelation = new SysDeptRelation();
         deptRelation.setDeptId(deptId);
         sysDeptRelationMapper.delete(new QueryWrapper<>(deptRelation));
+        deptClosureIndex.invalidate();
         SysDataPermDept dataPermDept = new SysDataPermDept();
         dataPermDept.setDeptId(deptId);
         sysDataPermDeptMapper.delete(new QueryWrapper<>(dataPermDept));
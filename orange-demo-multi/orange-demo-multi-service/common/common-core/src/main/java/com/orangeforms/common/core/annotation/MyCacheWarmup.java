@@ -0,0 +1,23 @@
+package com.orangeforms.common.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 主要用于标记字典Service实现类的启动预热方式。没有该注解的字典Service，均视为关键预热任务。
+ * 服务启动时，只有全部关键预热任务执行完毕，健康检查才会返回UP，非关键预热任务则会在后台继续执行。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyCacheWarmup {
+
+    /**
+     * 是否为关键预热任务。
+     *
+     * @return true表示关键预热任务，否则false。
+     */
+    boolean critical() default true;
+}
@@ -0,0 +1,17 @@
+package com.orangeforms.common.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 主要用于标记Service中的只读方法。当前数据源配置了只读副本时，方法内的数据库查询会被路由到只读副本。
+ * 如果方法在已经开启的写事务中被调用，或者当前请求刚刚执行过写操作，仍会使用主库，以保证读到自己写入的数据。
+ * 与@Transactional(readOnly = true)的作用相同，但不会开启事务。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyReadOnly {
+}
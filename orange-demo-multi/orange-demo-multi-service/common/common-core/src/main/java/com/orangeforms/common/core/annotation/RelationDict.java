@@ -74,4 +74,19 @@ public @interface RelationDict {
      * @return 与该字典字段引用关系完全相同的一对一关联属性名称。
      */
     String equalOneToOneRelationField() default "";
+
+    /**
+     * 远程关联时，近端缓存数据的过期秒数。大于0时开启近端缓存，组装关联数据时会优先从本地缓存中获取，
+     * 只有未命中的数据才会发起远程调用。适用于很少变化的从表数据，缺省为0，即不开启近端缓存。
+     *
+     * @return 近端缓存数据的过期秒数。
+     */
+    int nearCacheExpiredSeconds() default 0;
+
+    /**
+     * 远程关联时，近端缓存的最大条目数量，超出后按照最近最少使用的原则淘汰。仅当开启近端缓存时有效。
+     *
+     * @return 近端缓存的最大条目数量。
+     */
+    int nearCacheMaximumSize() default 5000;
 }
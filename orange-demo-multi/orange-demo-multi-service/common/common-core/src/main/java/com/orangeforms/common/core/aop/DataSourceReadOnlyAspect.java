@@ -0,0 +1,68 @@
+package com.orangeforms.common.core.aop;
+
+import com.orangeforms.common.core.annotation.MyReadOnly;
+import com.orangeforms.common.core.config.DataSourceContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * 读写分离AOP切面处理类。
+ * 为@Transactional(readOnly = true)和@MyReadOnly标记的Service方法设置只读标记，动态数据源会据此将查询路由到只读副本。
+ * 方法上没有@Transactional注解时，以Service类上的@Transactional注解为准。
+ * 写操作的记录由MybatisWriteMarkInterceptor在实际执行写语句时完成，和这里的注解无关。
+ * 该切面必须在事务切面之前执行，因为事务开启时就会从动态数据源获取连接，而此时事务的只读属性尚未同步到上下文中。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Aspect
+@Component
+@Order(2)
+public class DataSourceReadOnlyAspect {
+
+    /**
+     * 所有配置Transactional或MyReadOnly注解的Service方法，以及配置了Transactional注解的Service类中的方法。
+     */
+    @Pointcut("execution(public * com.orangeforms..service..*(..)) " +
+            "&& (@annotation(org.springframework.transaction.annotation.Transactional) " +
+            "|| @within(org.springframework.transaction.annotation.Transactional) " +
+            "|| @annotation(com.orangeforms.common.core.annotation.MyReadOnly))")
+    public void readOnlyPointCut() {
+        // 空注释，避免sonar警告
+    }
+
+    @Around("readOnlyPointCut()")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(point.getTarget());
+        method = AopUtils.getMostSpecificMethod(method, targetClass);
+        boolean readOnly = method.isAnnotationPresent(MyReadOnly.class);
+        if (!readOnly) {
+            Transactional transactional = AnnotationUtils.findAnnotation(method, Transactional.class);
+            if (transactional == null) {
+                transactional = AnnotationUtils.findAnnotation(targetClass, Transactional.class);
+            }
+            readOnly = transactional != null && transactional.readOnly();
+        }
+        // 在写事务中调用的只读方法，仍然使用写事务已经绑定的主库连接。
+        boolean inWriteTransaction = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        Boolean original = DataSourceContextHolder.setReadOnly(readOnly && !inWriteTransaction);
+        try {
+            return point.proceed();
+        } finally {
+            DataSourceContextHolder.unsetReadOnly(original);
+        }
+    }
+}
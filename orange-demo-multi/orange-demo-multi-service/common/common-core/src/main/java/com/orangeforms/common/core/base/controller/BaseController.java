@@ -12,7 +12,9 @@ import com.orangeforms.common.core.constant.ErrorCodeEnum;
 import com.orangeforms.common.core.exception.RemoteDataBuildException;
 import com.orangeforms.common.core.object.*;
 import com.orangeforms.common.core.util.MyCommonUtil;
+import com.orangeforms.common.core.util.MyKeysetPageUtil;
 import com.orangeforms.common.core.util.MyModelUtil;
+import com.orangeforms.common.core.util.MyPageUtil;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.page.PageMethod;
 import lombok.extern.slf4j.Slf4j;
@@ -246,28 +248,78 @@ public abstract class BaseController<M, V, K extends Serializable> {
         }
         M filter = queryParam.getFilterDto(modelClass);
         String whereClause = MyWhereCriteria.makeCriteriaString(queryParam.getCriteriaList(), modelClass);
-        String orderBy = MyOrderParam.buildOrderBy(queryParam.getOrderParam(), modelClass);
         MyPageParam pageParam = queryParam.getPageParam();
-        if (pageParam != null) {
-            PageMethod.startPage(pageParam.getPageNum(), pageParam.getPageSize());
+        if (pageParam != null && pageParam.isKeysetMode()) {
+            ResponseResult<MyPageData<V>> result =
+                    this.doKeysetListBy(queryParam, filter, whereClause, modelMapper);
+            GlobalThreadLocal.setDataFilter(dataFilterEnabled);
+            return result;
         }
+        String orderBy = MyOrderParam.buildOrderBy(queryParam.getOrderParam(), modelClass);
+        MyPageUtil.startPage(pageParam);
         List<M> resultList = service().getListByCondition(
                 queryParam.getSelectFieldList(), filter, whereClause, orderBy);
         if (CollectionUtils.isEmpty(resultList)) {
             return ResponseResult.success(MyPageData.emptyPageData());
         }
-        long totalCount;
-        if (resultList instanceof Page) {
+        Boolean hasNext = MyPageUtil.trimExtraRow(resultList);
+        Long totalCount;
+        if (hasNext != null) {
+            totalCount = null;
+        } else if (resultList instanceof Page) {
             totalCount = ((Page<M>) resultList).getTotal();
         } else {
-            totalCount = resultList.size();
+            totalCount = (long) resultList.size();
         }
         if (queryParam.getWithDict()) {
             service().buildRelationForDataList(resultList, MyRelationParam.dictOnly());
         }
         List<V> resultVoList = convertToVoList(resultList, modelMapper);
         GlobalThreadLocal.setDataFilter(dataFilterEnabled);
-        return ResponseResult.success(new MyPageData<>(resultVoList, totalCount));
+        MyPageData<V> pageData = new MyPageData<>(resultVoList, totalCount);
+        pageData.setHasNext(hasNext);
+        return ResponseResult.success(pageData);
+    }
+
+    private ResponseResult<MyPageData<V>> doKeysetListBy(
+            MyQueryParam queryParam, M filter, String whereClause, BaseModelMapper<V, M> modelMapper) {
+        CallResult verifyResult = MyOrderParam.verifyKeysetOrder(queryParam.getOrderParam(), modelClass);
+        if (!verifyResult.isSuccess()) {
+            return ResponseResult.error(ErrorCodeEnum.DATA_VALIDATED_FAILED, verifyResult.getErrorMessage());
+        }
+        MyKeysetPageUtil.KeysetQuery keysetQuery;
+        try {
+            keysetQuery = MyKeysetPageUtil.prepare(
+                    queryParam.getOrderParam(), queryParam.getPageParam(), modelClass, idFieldName);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid keyset pagination argument.", e);
+            return ResponseResult.error(ErrorCodeEnum.INVALID_ARGUMENT_FORMAT);
+        }
+        // 续页游标需要从结果中读取排序字段和主键的值，因此必须保证它们在返回字段中。
+        List<String> selectFieldList = queryParam.getSelectFieldList();
+        if (CollectionUtils.isNotEmpty(selectFieldList)) {
+            selectFieldList = new LinkedList<>(selectFieldList);
+            for (String keyFieldName : keysetQuery.getKeyFieldNames()) {
+                if (!selectFieldList.contains(keyFieldName)) {
+                    selectFieldList.add(keyFieldName);
+                }
+            }
+        }
+        // 多获取一条数据用于判断是否存在下一页，同时无需执行COUNT查询。
+        PageMethod.startPage(1, keysetQuery.getLimit(), false);
+        List<M> resultList = service().getListByCondition(selectFieldList,
+                filter, keysetQuery.mergeWhereClause(whereClause), keysetQuery.getOrderBy());
+        if (CollectionUtils.isEmpty(resultList)) {
+            return ResponseResult.success(new MyPageData<>(new LinkedList<>(), null));
+        }
+        String nextCursor = MyKeysetPageUtil.makeNextCursor(resultList, keysetQuery);
+        if (queryParam.getWithDict()) {
+            service().buildRelationForDataList(resultList, MyRelationParam.dictOnly());
+        }
+        MyPageData<V> pageData = new MyPageData<>(convertToVoList(resultList, modelMapper), null);
+        pageData.setNextCursor(nextCursor);
+        pageData.setHasNext(nextCursor != null);
+        return ResponseResult.success(pageData);
     }
 
     /**
@@ -286,7 +338,10 @@ public abstract class BaseController<M, V, K extends Serializable> {
         }
         List<Map<String, Object>> resultMapList =
                 result.getData().getDataList().stream().map(BeanUtil::beanToMap).collect(Collectors.toList());
-        return ResponseResult.success(new MyPageData<>(resultMapList, result.getData().getTotalCount()));
+        MyPageData<Map<String, Object>> pageData = new MyPageData<>(resultMapList, result.getData().getTotalCount());
+        pageData.setNextCursor(result.getData().getNextCursor());
+        pageData.setHasNext(result.getData().getHasNext());
+        return ResponseResult.success(pageData);
     }
 
     /**
@@ -348,6 +403,18 @@ public abstract class BaseController<M, V, K extends Serializable> {
                 .append(verifyInfo.aggregationColumn)
                 .append(") ")
                 .append(MyAggregationParam.VALUE_NAME);
+        // 附加的聚合计算，和主聚合计算在同一个分组查询中完成。
+        if (verifyInfo.extraAggregationList != null) {
+            int index = 1;
+            for (Tuple2<Integer, String> extraAggregation : verifyInfo.extraAggregationList) {
+                selectList.append(", ")
+                        .append(AggregationType.getAggregationFunction(extraAggregation.getFirst()))
+                        .append("(")
+                        .append(extraAggregation.getSecond())
+                        .append(") ")
+                        .append(MyAggregationParam.makeValueName(index++));
+            }
+        }
         String whereClause = MyWhereCriteria.makeCriteriaString(param.getWhereCriteriaList(), modelClass);
         List<Map<String, Object>> resultMapList = null;
         // 一对多场景直接返回分组查询计算结果即可。
@@ -446,6 +513,17 @@ public abstract class BaseController<M, V, K extends Serializable> {
                 verifyInfo.errorMsg = "参数验证失败，一对多聚合 [MyAggregationParam.GroupField] 分组字段为非法值！";
                 return verifyInfo;
             }
+            if (CollectionUtils.isNotEmpty(param.getExtraAggregationList())) {
+                verifyInfo.extraAggregationList = new LinkedList<>();
+                for (MyAggregationParam.AggregationItem item : param.getExtraAggregationList()) {
+                    String extraColumn = MyModelUtil.mapToColumnName(item.getAggregationField(), modelClass);
+                    if (!AggregationType.isValid(item.getAggregationType()) || StringUtils.isBlank(extraColumn)) {
+                        verifyInfo.errorMsg = "参数验证失败，附加聚合 [MyAggregationParam.ExtraAggregationList] 包含非法值！";
+                        return verifyInfo;
+                    }
+                    verifyInfo.extraAggregationList.add(new Tuple2<>(item.getAggregationType(), extraColumn));
+                }
+            }
         } else {
             String inFilterColumn = MyModelUtil.mapToColumnName(param.getInFilterField(), modelClass);
             if (StringUtils.isBlank(inFilterColumn)) {
@@ -469,5 +547,6 @@ public abstract class BaseController<M, V, K extends Serializable> {
         private Integer aggregationType;
         private String aggregationColumn;
         private String groupColumn;
+        private List<Tuple2<Integer, String>> extraAggregationList;
     }
 }
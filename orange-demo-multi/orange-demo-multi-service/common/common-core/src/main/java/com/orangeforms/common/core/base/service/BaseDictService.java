@@ -4,8 +4,11 @@ import cn.hutool.core.util.ReflectUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.orangeforms.common.core.constant.GlobalDeletedFlag;
 import com.orangeforms.common.core.exception.MyRuntimeException;
+import com.orangeforms.common.core.exception.StaleCacheDataException;
 import com.orangeforms.common.core.cache.DictionaryCache;
+import com.orangeforms.common.core.cache.MetricsDictionaryCache;
 import com.orangeforms.common.core.object.TokenData;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +40,18 @@ public abstract class BaseDictService<M, K extends Serializable> extends BaseSer
         super();
     }
 
+    /**
+     * 为当前的字典缓存添加指标统计，缓存名称为实体对象的类名。
+     * 该方法由DictionaryCacheMetricsPostProcessor在Bean初始化之后自动调用，此时子类已经完成了缓存对象的创建。
+     *
+     * @param meterRegistry 指标注册对象。
+     */
+    public void enableCacheMetrics(MeterRegistry meterRegistry) {
+        if (dictionaryCache != null) {
+            dictionaryCache = MetricsDictionaryCache.create(modelClass.getSimpleName(), dictionaryCache, meterRegistry);
+        }
+    }
+
     /**
      * 重新加载数据库中所有当前表数据到系统内存。
      *
@@ -132,7 +147,16 @@ public abstract class BaseDictService<M, K extends Serializable> extends BaseSer
      */
     @Override
     public List<M> getAllListFromCache() {
-        return dictionaryCache.getAll();
+        try {
+            return dictionaryCache.getAll();
+        } catch (StaleCacheDataException e) {
+            // 缓存中存在其他版本服务节点写入的数据，此时从数据库重新加载，并以当前格式回写缓存。
+            log.warn("Reload dictionary cache of [{}] because of undecodable cached data.",
+                    modelClass.getSimpleName());
+            List<M> allList = super.getAllList();
+            dictionaryCache.reload(allList, true);
+            return allList;
+        }
     }
 
     /**
@@ -4,6 +4,9 @@ import cn.hutool.core.collection.CollUtil;
 import com.baomidou.mybatisplus.annotation.*;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import cn.hutool.core.util.ReflectUtil;
@@ -11,6 +14,7 @@ import com.alibaba.fastjson.JSONObject;
 import com.orangeforms.common.core.annotation.*;
 import com.orangeforms.common.core.base.dao.BaseDaoMapper;
 import com.orangeforms.common.core.base.client.BaseClient;
+import com.orangeforms.common.core.cache.RemoteRelationNearCache;
 import com.orangeforms.common.core.constant.AggregationKind;
 import com.orangeforms.common.core.constant.AggregationType;
 import com.orangeforms.common.core.constant.GlobalDeletedFlag;
@@ -20,6 +24,8 @@ import com.orangeforms.common.core.exception.RemoteDataBuildException;
 import com.orangeforms.common.core.object.*;
 import com.orangeforms.common.core.util.AopTargetUtil;
 import com.orangeforms.common.core.util.ApplicationContextHolder;
+import com.orangeforms.common.core.util.ExportUtil;
+import com.orangeforms.common.core.util.FieldAccessor;
 import com.orangeforms.common.core.util.MyModelUtil;
 import com.orangeforms.common.core.util.LogMessageUtil;
 import lombok.Getter;
@@ -27,17 +33,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.*;
 
@@ -178,6 +194,10 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
     private final TableModelInfo tableModelInfo = new TableModelInfo();
 
     private static final String AND_OP = " AND ";
+    /**
+     * JDBC批处理更新时，每个批次的最大数据数量。
+     */
+    private static final int UPDATE_BATCH_SIZE = 500;
 
     @Override
     public BaseDaoMapper<M> getBaseMapper() {
@@ -253,6 +273,17 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         return false;
     }
 
+    /**
+     * 该方法为BaseService类buildRelationForDataList方法中使用到的模板方法，子类可根据需要返回true，
+     * 以便在当前Service的所有数据列表关联组装中，均启用并行组装模式。
+     * 缺省返回false，此时仅当MyRelationParam.buildParallel为true时，才会并行组装。
+     *
+     * @return true启用并行组装，否则false。
+     */
+    protected boolean parallelBuildRelation() {
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void saveNewOrUpdate(M data, Consumer<M> saveNew, BiConsumer<M, M> update) {
@@ -273,17 +304,19 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (CollUtil.isEmpty(dataList)) {
             return;
         }
-        List<M> saveNewDataList = dataList.stream()
-                .filter(c -> ReflectUtil.getFieldValue(c, idFieldName) == null).collect(toList());
+        FieldAccessor idAccessor = FieldAccessor.of(modelClass, idFieldName);
+        List<M> saveNewDataList = dataList.stream().filter(c -> idAccessor.get(c) == null).collect(toList());
         if (CollUtil.isNotEmpty(saveNewDataList)) {
             saveNewBatch.accept(saveNewDataList);
         }
-        List<M> updateDataList = dataList.stream()
-                .filter(c -> ReflectUtil.getFieldValue(c, idFieldName) != null).collect(toList());
+        List<M> updateDataList = dataList.stream().filter(c -> idAccessor.get(c) != null).collect(toList());
         if (CollUtil.isNotEmpty(updateDataList)) {
+            // 一次性查询出全部的原有数据，避免逐条调用getById。
+            Set<K> idSet = updateDataList.stream().map(c -> (K) idAccessor.get(c)).collect(toSet());
+            Map<Object, M> originalDataMap = this.getInList(idSet).stream()
+                    .collect(toMap(idAccessor::get, c -> c, (c1, c2) -> c1));
             for (M data : updateDataList) {
-                K id = (K) ReflectUtil.getFieldValue(data, idFieldName);
-                update.accept(data, this.getById(id));
+                update.accept(data, originalDataMap.get(idAccessor.get(data)));
             }
         }
     }
@@ -302,54 +335,118 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
 
     @Transactional(rollbackFor = Exception.class)
     @Override
-    public void updateBatchOneToManyRelation(
+    public BatchWriteResult updateBatchOneToManyRelation(
             String relationFieldName,
             Object relationFieldValue,
             String updateUserIdFieldName,
             String updateTimeFieldName,
             List<M> dataList,
             Consumer<List<M>> batchInserter) {
-        // 删除在现有数据列表dataList中不存在的从表数据。
+        BatchWriteResult writeResult = new BatchWriteResult();
+        FieldAccessor idAccessor = FieldAccessor.of(modelClass, idFieldName);
+        // 一次性查询出现有的从表数据，并在内存中基于主键和参数数据进行比对，计算出需要删除、插入和更新的数据。
         QueryWrapper<M> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(this.safeMapToColumnName(relationFieldName), relationFieldValue);
+        Map<Object, M> existingDataMap = new HashMap<>(16);
+        for (M existingData : mapper().selectList(queryWrapper)) {
+            existingDataMap.put(idAccessor.get(existingData), existingData);
+        }
+        List<M> newDataList = new LinkedList<>();
+        List<M> updateDataList = new LinkedList<>();
+        Set<Object> keptIdSet = new HashSet<>();
         if (CollUtil.isNotEmpty(dataList)) {
-            Set<Object> keptIdSet = dataList.stream()
-                    .filter(c -> ReflectUtil.getFieldValue(c, idFieldName) != null)
-                    .map(c -> ReflectUtil.getFieldValue(c, idFieldName)).collect(toSet());
-            if (CollUtil.isNotEmpty(keptIdSet)) {
-                queryWrapper.notIn(idColumnName, keptIdSet);
+            for (M data : dataList) {
+                Object id = idAccessor.get(data);
+                if (id == null) {
+                    newDataList.add(data);
+                    continue;
+                }
+                keptIdSet.add(id);
+                // 和数据库中现有数据完全一致的，无需再次更新。
+                M existingData = existingDataMap.get(id);
+                if (existingData != null && existingData.equals(data)) {
+                    writeResult.setUnchangedCount(writeResult.getUnchangedCount() + 1);
+                } else {
+                    updateDataList.add(data);
+                }
             }
         }
-        mapper().delete(queryWrapper);
-        if (CollUtil.isNotEmpty(dataList)) {
-            // 没有包含主键的对象被视为新对象，为了效率最优化，这里执行批量插入。
-            List<M> newDataList = dataList.stream()
-                    .filter(c -> ReflectUtil.getFieldValue(c, idFieldName) == null).collect(toList());
-            if (CollUtil.isNotEmpty(newDataList)) {
-                newDataList.forEach(o -> ReflectUtil.setFieldValue(o, relationFieldName, relationFieldValue));
-                batchInserter.accept(newDataList);
-            }
-            // 对于主键已经存在的数据，我们视为已存在数据，这里执行逐条更新操作。
-            List<M> updateDataList =
-                    dataList.stream().filter(c -> ReflectUtil.getFieldValue(c, idFieldName) != null).collect(toList());
+        // 删除在现有数据列表dataList中不存在的从表数据，这里仅执行一次基于主键的(IN LIST)删除。
+        List<Object> deletedIdList = existingDataMap.keySet().stream()
+                .filter(id -> !keptIdSet.contains(id)).collect(toList());
+        if (CollUtil.isNotEmpty(deletedIdList)) {
+            writeResult.setDeleteCount(mapper().deleteBatchIds(deletedIdList));
+        }
+        // 没有包含主键的对象被视为新对象，为了效率最优化，这里执行批量插入。
+        if (CollUtil.isNotEmpty(newDataList)) {
+            newDataList.forEach(o -> ReflectUtil.setFieldValue(o, relationFieldName, relationFieldValue));
+            batchInserter.accept(newDataList);
+            writeResult.setInsertCount(newDataList.size());
+        }
+        // 对于主键已经存在的数据，我们视为已存在数据，这里基于JDBC的批处理执行更新操作。
+        if (CollUtil.isNotEmpty(updateDataList)) {
+            // 当前用户Id仅在存在需要填充的数据时才会获取，因为在定时任务等非请求上下文中无法获取令牌数据。
+            Long userId = null;
+            Date now = new Date();
             for (M updateData : updateDataList) {
                 // 如果前端将更新用户Id置空，这里使用当前用户更新该字段。
                 if (updateUserIdFieldName != null && ReflectUtil.getFieldValue(updateData, updateUserIdFieldName) == null) {
-                    ReflectUtil.setFieldValue(updateData, updateUserIdFieldName, TokenData.takeFromRequest().getUserId());
+                    if (userId == null) {
+                        userId = TokenData.takeFromRequest().getUserId();
+                    }
+                    ReflectUtil.setFieldValue(updateData, updateUserIdFieldName, userId);
                 }
                 // 如果前端将更新时间置空，这里使用当前时间更新该字段。
                 if (updateTimeFieldName != null && ReflectUtil.getFieldValue(updateData, updateTimeFieldName) == null) {
-                    ReflectUtil.setFieldValue(updateData, updateTimeFieldName, new Date());
+                    ReflectUtil.setFieldValue(updateData, updateTimeFieldName, now);
                 }
                 if (this.deletedFlagFieldName != null) {
                     ReflectUtil.setFieldValue(updateData, deletedFlagFieldName, GlobalDeletedFlag.NORMAL);
                 }
-                @SuppressWarnings("unchecked")
-                UpdateWrapper<M> uw = this.createUpdateQueryForNullValue(
-                        updateData, (K) ReflectUtil.getFieldValue(updateData, idFieldName));
-                mapper().update(updateData, uw);
             }
+            writeResult.setUpdateCount(this.updateBatchInJdbcBatch(updateDataList, idAccessor));
         }
+        return writeResult;
+    }
+
+    /**
+     * 通过JDBC批处理，逐条更新参数列表中的数据，值为null的字段也会被更新为null。
+     * 批处理的SqlSession和当前事务共享同一数据库连接，因此所有更新都在调用者的事务中完成。
+     *
+     * @param dataList   待更新的数据列表。
+     * @param idAccessor 主键字段的访问器。
+     * @return 更新的数据数量。
+     */
+    @SuppressWarnings("unchecked")
+    private int updateBatchInJdbcBatch(List<M> dataList, FieldAccessor idAccessor) {
+        String statement = TableInfoHelper.getTableInfo(modelClass).getSqlStatement(SqlMethod.UPDATE.getMethod());
+        SqlSessionFactory sqlSessionFactory = ApplicationContextHolder.getBean(SqlSessionFactory.class);
+        int updateCount = 0;
+        try (SqlSession batchSqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            int i = 0;
+            for (M data : dataList) {
+                MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+                param.put(Constants.ENTITY, data);
+                param.put(Constants.WRAPPER, this.createUpdateQueryForNullValue(data, (K) idAccessor.get(data)));
+                batchSqlSession.update(statement, param);
+                if (++i % UPDATE_BATCH_SIZE == 0) {
+                    updateCount += this.sumBatchUpdateCount(batchSqlSession.flushStatements());
+                }
+            }
+            updateCount += this.sumBatchUpdateCount(batchSqlSession.flushStatements());
+        }
+        return updateCount;
+    }
+
+    private int sumBatchUpdateCount(List<BatchResult> batchResultList) {
+        int count = 0;
+        for (BatchResult batchResult : batchResultList) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                // 部分驱动在批处理重写后，会返回SUCCESS_NO_INFO(-2)，这里视为更新成功。
+                count += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+            }
+        }
+        return count;
     }
 
     /**
@@ -559,6 +656,35 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         return resultList;
     }
 
+    /**
+     * 流式导出主表数据及其关联数据。主表数据通过MyBatis游标分批读取，每个批次组装关联数据后，
+     * 立即写出到Http应答流中，因此内存占用仅和批次大小相关，与导出的总行数无关。
+     * NOTE: 游标在独立的SqlSession中打开，以免流式读取期间，关联数据的查询和游标争用同一个数据库连接。
+     * 因此该方法不能在事务中调用。
+     *
+     * @param cursorFunc     使用参数SqlSession打开主表数据游标的函数。
+     * @param relationParam  实体对象数据组装的参数构建器。
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename       导出文件名。
+     * @throws IOException 文件操作失败。
+     */
+    public void exportWithRelation(
+            Function<SqlSession, Cursor<M>> cursorFunc,
+            MyRelationParam relationParam,
+            Map<String, String> selectFieldMap,
+            String filename) throws IOException {
+        SqlSessionFactory sqlSessionFactory = ApplicationContextHolder.getBean(SqlSessionFactory.class);
+        try (SqlSession sqlSession = sqlSessionFactory.openSession();
+             Cursor<M> cursor = cursorFunc.apply(sqlSession)) {
+            ExportUtil.doExport(cursor, ExportUtil.DEFAULT_WINDOW_SIZE,
+                    window -> {
+                        this.buildRelationForDataList(window, relationParam);
+                        // 远程关联数据仅在当前批次内复用，以免其随导出行数无限增长。
+                        RemoteRelationLoader.clearCurrent();
+                    }, selectFieldMap, filename);
+        }
+    }
+
     /**
      * 用参数对象作为过滤条件，获取数据数量。
      *
@@ -796,6 +922,10 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (relationParam == null || CollectionUtils.isEmpty(resultList)) {
             return;
         }
+        if (relationParam.isBuildParallel() || this.parallelBuildRelation()) {
+            this.buildRelationForDataListInParallel(resultList, relationParam, ignoreFields);
+            return;
+        }
         boolean dataFilterValue = GlobalThreadLocal.setDataFilter(false);
         try {
             // 集成本地一对一和字段级别的数据关联。
@@ -843,6 +973,83 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         }
     }
 
+    /**
+     * 并行集成所有与主表实体对象相关的关联数据列表。各个关联组装阶段之间的依赖关系如下：
+     * 1. 本地字典关联，仅当需要复用本地一对一关联结果(RelationDict.equalOneToOneRelationField)时，依赖本地一对一。
+     * 2. 远程一对一关联，依赖本地一对一。
+     * 3. 远程字典关联，仅当需要复用远程一对一关联结果时，依赖远程一对一。
+     * 4. 本地一对多、本地和远程聚合计算，不依赖任何其他阶段。
+     * 没有依赖关系的阶段会在有界线程池中并行执行，且每个阶段只会写入各自关联的字段。
+     * NOTE: 工作线程会继承当前请求对象、令牌数据、数据源类型和已禁用的数据权限过滤标记，
+     * 但不会加入调用线程的数据库事务，因此无法读取到调用线程事务内尚未提交的数据。
+     *
+     * @param resultList    主表实体对象列表。数据集成将直接作用于该对象列表。
+     * @param relationParam 实体对象数据组装的参数构建器。
+     * @param ignoreFields  该集合中的字段，即便包含注解也不会在当前调用中进行数据组装。
+     * @throws RemoteDataBuildException ignoreRpcError()方法返回false，同时远程服务调用出现错误时抛出此异常。
+     */
+    private void buildRelationForDataListInParallel(
+            List<M> resultList, MyRelationParam relationParam, Set<String> ignoreFields) {
+        boolean dataFilterValue = GlobalThreadLocal.setDataFilter(false);
+        try {
+            List<CompletableFuture<Void>> futureList = new LinkedList<>();
+            boolean buildOneToOne = relationParam.isBuildOneToOne() || relationParam.isBuildOneToOneWithDict();
+            CompletableFuture<Void> oneToOneFuture = null;
+            if (buildOneToOne && CollectionUtils.isNotEmpty(this.localRelationOneToOneStructList)) {
+                oneToOneFuture = RelationBuildExecutor.submit(() -> this.buildOneToOneForDataList(
+                        resultList, relationParam.isBuildOneToOneWithDict(), ignoreFields));
+                futureList.add(oneToOneFuture);
+            }
+            if (relationParam.isBuildOneToMany() && CollectionUtils.isNotEmpty(this.localRelationOneToManyStructList)) {
+                futureList.add(RelationBuildExecutor.submit(() -> this.buildOneToManyForDataList(resultList, ignoreFields)));
+            }
+            if (relationParam.isBuildDict()) {
+                // 只有字典关联需要复用一对一的组装结果时，才需要等待一对一组装完成。
+                boolean dependOnOneToOne = buildOneToOne && this.localRelationDictStructList.stream()
+                        .anyMatch(s -> s.equalOneToOneRelationField != null);
+                futureList.add(RelationBuildExecutor.submitAfter(dependOnOneToOne ? oneToOneFuture : null, () -> {
+                    this.buildConstDictForDataList(resultList, ignoreFields);
+                    this.buildDictForDataList(resultList, buildOneToOne, ignoreFields);
+                }));
+            }
+            boolean buildRemoteOneToOne =
+                    relationParam.isBuildRemoteOneToOne() || relationParam.isBuildRemoteOneToOneWithDict();
+            CompletableFuture<Void> remoteOneToOneFuture = null;
+            if (buildRemoteOneToOne && CollectionUtils.isNotEmpty(this.remoteRelationOneToOneStructList)) {
+                remoteOneToOneFuture = RelationBuildExecutor.submitAfter(oneToOneFuture, () ->
+                        this.buildRemoteOneToOneForDataList(
+                                resultList, relationParam.isBuildRemoteOneToOneWithDict(), ignoreFields));
+                futureList.add(remoteOneToOneFuture);
+            }
+            if (relationParam.isBuildRemoteDict() && CollectionUtils.isNotEmpty(this.remoteRelationDictStructList)) {
+                boolean dependOnRemoteOneToOne = buildRemoteOneToOne && this.remoteRelationDictStructList.stream()
+                        .anyMatch(s -> s.equalOneToOneRelationField != null);
+                futureList.add(RelationBuildExecutor.submitAfter(dependOnRemoteOneToOne ? remoteOneToOneFuture : null,
+                        () -> this.buildRemoteDictForDataList(resultList, buildRemoteOneToOne, ignoreFields)));
+            }
+            if (relationParam.isBuildAggregation()) {
+                // 自定义过滤条件在调用线程中获取，同时每个阶段使用各自独立的过滤条件对象。
+                Map<String, List<MyWhereCriteria>> oneToManyCriteriaMap = buildAggregationAdditionalWhereCriteria();
+                Map<String, List<MyWhereCriteria>> manyToManyCriteriaMap = buildAggregationAdditionalWhereCriteria();
+                futureList.add(RelationBuildExecutor.submit(() ->
+                        this.buildOneToManyAggregationForDataList(resultList, oneToManyCriteriaMap, ignoreFields)));
+                futureList.add(RelationBuildExecutor.submit(() ->
+                        this.buildManyToManyAggregationForDataList(resultList, manyToManyCriteriaMap, ignoreFields)));
+            }
+            if (relationParam.isBuildRemoteAggregation()) {
+                Map<String, List<MyWhereCriteria>> oneToManyCriteriaMap = buildAggregationAdditionalWhereCriteria();
+                Map<String, List<MyWhereCriteria>> manyToManyCriteriaMap = buildAggregationAdditionalWhereCriteria();
+                futureList.add(RelationBuildExecutor.submit(() -> this.buildRemoteOneToManyAggregationForDataList(
+                        resultList, oneToManyCriteriaMap, ignoreFields)));
+                futureList.add(RelationBuildExecutor.submit(() -> this.buildRemoteManyToManyAggregationForDataList(
+                        resultList, manyToManyCriteriaMap, ignoreFields)));
+            }
+            RelationBuildExecutor.awaitAll(futureList);
+        } finally {
+            GlobalThreadLocal.setDataFilter(dataFilterValue);
+        }
+    }
+
     /**
      * 该函数主要用于对查询结果的批量导出。不同于支持分页的列表查询，批量导出没有分页机制，
      * 因此在导出数据量较大的情况下，很容易给数据库的内存、CPU和IO带来较大的压力。而通过
@@ -995,14 +1202,14 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 continue;
             }
             for (M dataObject : resultList) {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object id = relationStruct.masterIdAccessor.get(dataObject);
                 if (id != null) {
                     String name = relationStruct.dictMap.get(id);
                     if (name != null) {
                         Map<String, Object> dictMap = new HashMap<>(2);
                         dictMap.put("id", id);
                         dictMap.put("name", name);
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, dictMap);
+                        relationStruct.relationAccessor.set(dataObject, dictMap);
                     }
                 }
             }
@@ -1023,14 +1230,14 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
                 String name = relationStruct.dictMap.get(id);
                 if (name != null) {
                     Map<String, Object> dictMap = new HashMap<>(2);
                     dictMap.put("id", id);
                     dictMap.put("name", name);
-                    ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, dictMap);
+                    relationStruct.relationAccessor.set(dataObject, dictMap);
                 }
             }
         }
@@ -1050,12 +1257,12 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             String masterIdColumn = this.safeMapToColumnName(relationStruct.masterIdField.getName());
             Map<String, Object> filterMap = new HashMap<>(1);
             filterMap.put(masterIdColumn, masterIdValue);
             List<?> manyToManyList = relationStruct.manyToManyMapper.selectByMap(filterMap);
-            ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, manyToManyList);
+            relationStruct.relationAccessor.set(dataObject, manyToManyList);
         }
     }
 
@@ -1071,32 +1278,34 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (CollectionUtils.isEmpty(this.remoteRelationOneToOneStructList) || CollectionUtils.isEmpty(resultList)) {
             return;
         }
+        // 先登记所有关联结构的主键集合，指向同一远程服务和同一关联字段的请求会被合并为一次远程调用。
+        RemoteRelationLoader loader = RemoteRelationLoader.current();
+        RemoteRelationLoader.Batch batch = loader.newBatch();
+        Map<RemoteRelationStruct, Set<Object>> masterIdSetMap = new LinkedHashMap<>();
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToOneStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             if (CollectionUtils.isEmpty(masterIdSet)) {
                 continue;
             }
             boolean buildRemoteOneToOneDict = withDict && relationStruct.relationOneToOne.loadSlaveDict();
-            MyQueryParam queryParam = new MyQueryParam(buildRemoteOneToOneDict);
-            queryParam.setUseDataFilter(false);
-            MyWhereCriteria whereCriteria = new MyWhereCriteria();
-            whereCriteria.setCriteria(
-                    relationStruct.relationOneToOne.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-            queryParam.addCriteriaList(whereCriteria);
-            ResponseResult<MyPageData<Object>> result = relationStruct.remoteClient.listBy(queryParam);
-            if (result.isSuccess()) {
-                List<Object> relationList = result.getData().getDataList();
-                MyModelUtil.makeOneToOneRelation(
-                        modelClass, resultList, relationList, relationStruct.relationField.getName());
-            } else {
-                this.logErrorOrThrowException(result.getErrorMessage());
-            }
+            batch.add(relationStruct.remoteClient, relationStruct.relationOneToOne.slaveIdField(),
+                    buildRemoteOneToOneDict, masterIdSet, relationStruct.nearCache);
+            masterIdSetMap.put(relationStruct, masterIdSet);
+        }
+        batch.execute(this::logErrorOrThrowException);
+        for (Map.Entry<RemoteRelationStruct, Set<Object>> e : masterIdSetMap.entrySet()) {
+            RemoteRelationStruct relationStruct = e.getKey();
+            boolean buildRemoteOneToOneDict = withDict && relationStruct.relationOneToOne.loadSlaveDict();
+            List<Object> relationList = loader.getList(relationStruct.remoteClient,
+                    relationStruct.relationOneToOne.slaveIdField(), buildRemoteOneToOneDict, e.getValue());
+            MyModelUtil.makeOneToOneRelation(
+                    modelClass, resultList, relationList, relationStruct.relationField.getName());
         }
     }
 
@@ -1112,28 +1321,29 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (dataObject == null || CollectionUtils.isEmpty(this.remoteRelationOneToOneStructList)) {
             return;
         }
+        RemoteRelationLoader loader = RemoteRelationLoader.current();
+        RemoteRelationLoader.Batch batch = loader.newBatch();
+        Map<RemoteRelationStruct, Object> masterIdMap = new LinkedHashMap<>();
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToOneStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
-                MyQueryParam queryParam = new MyQueryParam(withDict);
-                queryParam.setUseDataFilter(false);
-                MyWhereCriteria whereCriteria = new MyWhereCriteria();
-                whereCriteria.setCriteria(
-                        relationStruct.relationOneToOne.slaveIdField(), MyWhereCriteria.OPERATOR_EQUAL, id);
-                queryParam.addCriteriaList(whereCriteria);
-                ResponseResult<Object> result = relationStruct.remoteClient.getBy(queryParam);
-                if (result.isSuccess()) {
-                    Object relationObject = this.normalizeData(
-                            result.getData(), relationStruct.relationOneToOne.slaveModelClass());
-                    if (relationObject != null) {
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, relationObject);
-                    }
-                } else {
-                    this.logErrorOrThrowException(result.getErrorMessage());
-                }
+                batch.add(relationStruct.remoteClient, relationStruct.relationOneToOne.slaveIdField(),
+                        withDict, Collections.singleton(id), relationStruct.nearCache);
+                masterIdMap.put(relationStruct, id);
+            }
+        }
+        batch.execute(this::logErrorOrThrowException);
+        for (Map.Entry<RemoteRelationStruct, Object> e : masterIdMap.entrySet()) {
+            RemoteRelationStruct relationStruct = e.getKey();
+            Object relationObject = this.normalizeData(
+                    loader.get(relationStruct.remoteClient,
+                            relationStruct.relationOneToOne.slaveIdField(), withDict, e.getValue()),
+                    relationStruct.relationOneToOne.slaveModelClass());
+            if (relationObject != null) {
+                relationStruct.relationAccessor.set(dataObject, relationObject);
             }
         }
     }
@@ -1151,37 +1361,41 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (CollectionUtils.isEmpty(this.remoteRelationDictStructList) || CollectionUtils.isEmpty(resultList)) {
             return;
         }
+        // 先登记所有关联结构的主键集合，如多个用户Id字段都关联SysUserClient时，只会发起一次远程调用。
+        RemoteRelationLoader loader = RemoteRelationLoader.current();
+        RemoteRelationLoader.Batch batch = loader.newBatch();
+        Map<RemoteRelationStruct, Set<Object>> masterIdSetMap = new LinkedHashMap<>();
         for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            List<Object> relationList = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
+                masterIdSetMap.put(relationStruct, null);
+                continue;
+            }
+            Set<Object> masterIdSet = resultList.stream()
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
+                    .filter(Objects::nonNull)
+                    .collect(toSet());
+            if (CollectionUtils.isEmpty(masterIdSet)) {
+                continue;
+            }
+            batch.add(relationStruct.remoteClient,
+                    relationStruct.relationDict.slaveIdField(), false, masterIdSet, relationStruct.nearCache);
+            masterIdSetMap.put(relationStruct, masterIdSet);
+        }
+        batch.execute(this::logErrorOrThrowException);
+        for (Map.Entry<RemoteRelationStruct, Set<Object>> e : masterIdSetMap.entrySet()) {
+            RemoteRelationStruct relationStruct = e.getKey();
+            List<Object> relationList;
+            if (e.getValue() == null) {
                 relationList = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.equalOneToOneRelationField))
+                        .map(obj -> relationStruct.equalOneToOneRelationAccessor.get(obj))
                         .filter(Objects::nonNull)
                         .collect(toList());
             } else {
-                Set<Object> masterIdSet = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
-                        .filter(Objects::nonNull)
-                        .collect(toSet());
-                if (CollectionUtils.isEmpty(masterIdSet)) {
-                    continue;
-                }
-                MyQueryParam queryParam = new MyQueryParam(false);
-                queryParam.setUseDataFilter(false);
-                MyWhereCriteria whereCriteria = new MyWhereCriteria();
-                whereCriteria.setCriteria(
-                        relationStruct.relationDict.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-                queryParam.addCriteriaList(whereCriteria);
-                ResponseResult<MyPageData<Object>> result = relationStruct.remoteClient.listBy(queryParam);
-                // 成功或者没有数据
-                if (result.isSuccess()) {
-                    relationList = result.getData().getDataList();
-                } else {
-                    logErrorOrThrowException(result.getErrorMessage());
-                }
+                relationList = loader.getList(
+                        relationStruct.remoteClient, relationStruct.relationDict.slaveIdField(), false, e.getValue());
             }
             MyModelUtil.makeDictRelation(
                     modelClass, resultList, relationList, relationStruct.relationField.getName());
@@ -1201,31 +1415,36 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (dataObject == null || CollectionUtils.isEmpty(this.remoteRelationDictStructList)) {
             return;
         }
+        RemoteRelationLoader loader = RemoteRelationLoader.current();
+        RemoteRelationLoader.Batch batch = loader.newBatch();
+        Map<RemoteRelationStruct, Object> masterIdMap = new LinkedHashMap<>();
         for (RemoteRelationStruct relationStruct : this.remoteRelationDictStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object relationObject = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
-                relationObject = ReflectUtil.getFieldValue(dataObject, relationStruct.equalOneToOneRelationField);
+                masterIdMap.put(relationStruct, null);
+                continue;
+            }
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
+            if (id == null) {
+                continue;
+            }
+            batch.add(relationStruct.remoteClient, relationStruct.relationDict.slaveIdField(),
+                    false, Collections.singleton(id), relationStruct.nearCache);
+            masterIdMap.put(relationStruct, id);
+        }
+        batch.execute(this::logErrorOrThrowException);
+        for (Map.Entry<RemoteRelationStruct, Object> e : masterIdMap.entrySet()) {
+            RemoteRelationStruct relationStruct = e.getKey();
+            Object relationObject;
+            if (e.getValue() == null) {
+                relationObject = relationStruct.equalOneToOneRelationAccessor.get(dataObject);
             } else {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
-                if (id == null) {
-                    continue;
-                }
-                MyQueryParam queryParam = new MyQueryParam(false);
-                queryParam.setUseDataFilter(false);
-                MyWhereCriteria whereCriteria = new MyWhereCriteria();
-                whereCriteria.setCriteria(
-                        relationStruct.relationDict.slaveIdField(), MyWhereCriteria.OPERATOR_EQUAL, id);
-                queryParam.addCriteriaList(whereCriteria);
-                ResponseResult<Object> result = relationStruct.remoteClient.getBy(queryParam);
-                if (result.isSuccess()) {
-                    relationObject = this.normalizeData(
-                            result.getData(), relationStruct.relationDict.slaveModelClass());
-                } else {
-                    this.logErrorOrThrowException(result.getErrorMessage());
-                }
+                relationObject = this.normalizeData(
+                        loader.get(relationStruct.remoteClient,
+                                relationStruct.relationDict.slaveIdField(), false, e.getValue()),
+                        relationStruct.relationDict.slaveModelClass());
             }
             MyModelUtil.makeDictRelation(
                     modelClass, dataObject, relationObject, relationStruct.relationField.getName());
@@ -1247,25 +1466,34 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (criteriaListMap == null) {
             criteriaListMap = new HashMap<>(this.remoteRelationOneToManyAggrStructList.size());
         }
+        // 远程服务、分组字段和过滤条件完全相同的多个聚合计算，会被合并为一次远程调用，并在同一个分组查询中完成计算。
+        Map<List<Object>, RemoteFusedAggregation> fusedAggregationMap = new LinkedHashMap<>();
         for (RemoteRelationStruct relationStruct : this.remoteRelationOneToManyAggrStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             if (CollectionUtils.isEmpty(masterIdSet)) {
                 continue;
             }
             RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
+            List<MyWhereCriteria> customCriteriaList = criteriaListMap.get(relationStruct.relationField.getName());
+            List<Object> fusedKey = Arrays.asList(relationStruct.remoteClient,
+                    relation.slaveIdField(), relationStruct.masterIdField.getName(), customCriteriaList);
+            RemoteFusedAggregation fusedAggregation = fusedAggregationMap.get(fusedKey);
+            if (fusedAggregation != null) {
+                fusedAggregation.add(relationStruct);
+                continue;
+            }
             MyAggregationParam aggregationParam =
                     createAggregationParam(AggregationKind.ONE_TO_MANY,
                             relation.aggregationType(), relation.aggregationField(), relation.slaveIdField());
-            List<MyWhereCriteria> criteriaList =
-                    criteriaListMap.get(relationStruct.relationField.getName());
-            if (criteriaList == null) {
-                criteriaList = new LinkedList<>();
+            List<MyWhereCriteria> criteriaList = new LinkedList<>();
+            if (customCriteriaList != null) {
+                criteriaList.addAll(customCriteriaList);
             }
             MyWhereCriteria criteria = new MyWhereCriteria();
             CallResult result = criteria.setCriteria(
@@ -1277,12 +1505,19 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             criteriaList.add(criteria);
             aggregationParam.setWhereCriteriaList(criteriaList);
             aggregationParam.setUseDataFilter(false);
+            fusedAggregationMap.put(fusedKey, new RemoteFusedAggregation(relationStruct, aggregationParam));
+        }
+        for (RemoteFusedAggregation fusedAggregation : fusedAggregationMap.values()) {
             ResponseResult<List<Map<String, Object>>> responseResult =
-                    relationStruct.remoteClient.aggregateBy(aggregationParam);
-            if (responseResult.isSuccess()) {
-                this.doMakeAggregationData(responseResult.getData(), resultList, relationStruct);
-            } else {
-                this.logErrorOrThrowException(result.getErrorMessage());
+                    fusedAggregation.structList.get(0).remoteClient.aggregateBy(fusedAggregation.aggregationParam);
+            if (!responseResult.isSuccess()) {
+                this.logErrorOrThrowException(responseResult.getErrorMessage());
+                continue;
+            }
+            int index = 0;
+            for (RemoteRelationStruct relationStruct : fusedAggregation.structList) {
+                this.doMakeAggregationData(responseResult.getData(),
+                        resultList, relationStruct, MyAggregationParam.makeValueName(index++));
             }
         }
     }
@@ -1307,7 +1542,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue == null) {
                 continue;
             }
@@ -1356,7 +1591,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             if (CollectionUtils.isEmpty(masterIdSet)) {
@@ -1396,7 +1631,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue == null) {
                 continue;
             }
@@ -1438,7 +1673,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             // 从主表集合中，抽取主表关联字段的集合，再以in list形式去从表中查询。
@@ -1482,11 +1717,11 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
                 BaseService<Object, Serializable> relationService = relationStruct.localService;
                 Object relationObject = relationService.getOne(relationStruct.relationOneToOne.slaveIdField(), id);
-                ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, relationObject);
+                relationStruct.relationAccessor.set(dataObject, relationObject);
                 // 仅仅当需要加载从表字典关联时，才去加载。
                 if (withDict && relationStruct.relationOneToOne.loadSlaveDict() && relationObject != null) {
                     @SuppressWarnings("unchecked")
@@ -1518,7 +1753,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             // 从主表集合中，抽取主表关联字段的集合，再以in list形式去从表中查询。
@@ -1546,14 +1781,14 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object id = relationStruct.masterIdAccessor.get(dataObject);
             if (id != null) {
                 BaseService<Object, Serializable> relationService = relationStruct.localService;
                 Set<Object> masterIdSet = new HashSet<>(1);
                 masterIdSet.add(id);
                 List<Object> relationObject = relationService.getInList(
                         relationStruct.relationOneToMany.slaveIdField(), masterIdSet);
-                ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, relationObject);
+                relationStruct.relationAccessor.set(dataObject, relationObject);
             }
         }
     }
@@ -1577,13 +1812,13 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             List<Object> relationList = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
                 relationList = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.equalOneToOneRelationField))
+                        .map(obj -> relationStruct.equalOneToOneRelationAccessor.get(obj))
                         .filter(Objects::nonNull)
                         .collect(toList());
             } else {
                 String slaveId = relationStruct.relationDict.slaveIdField();
                 Set<Object> masterIdSet = resultList.stream()
-                        .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                        .map(obj -> relationStruct.masterIdAccessor.get(obj))
                         .filter(Objects::nonNull)
                         .collect(toSet());
                 if (CollectionUtils.isNotEmpty(masterIdSet)) {
@@ -1613,9 +1848,9 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             }
             Object relationObject = null;
             if (hasBuiltOneToOne && relationStruct.equalOneToOneRelationField != null) {
-                relationObject = ReflectUtil.getFieldValue(dataObject, relationStruct.equalOneToOneRelationField);
+                relationObject = relationStruct.equalOneToOneRelationAccessor.get(dataObject);
             } else {
-                Object id = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object id = relationStruct.masterIdAccessor.get(dataObject);
                 if (id != null) {
                     relationObject = relationStruct.localService.getOne(relationStruct.relationDict.slaveIdField(), id);
                 }
@@ -1640,12 +1875,13 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (criteriaListMap == null) {
             criteriaListMap = new HashMap<>(this.localRelationManyToManyAggrStructList.size());
         }
+        Map<String, LocalFusedAggregation> fusedAggregationMap = new LinkedHashMap<>();
         for (LocalRelationStruct relationStruct : this.localRelationManyToManyAggrStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
             if (CollectionUtils.isEmpty(masterIdSet)) {
@@ -1669,9 +1905,10 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             } else {
                 whereClause.append("1 = 1");
             }
-            List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-            if (criteriaList == null) {
-                criteriaList = new LinkedList<>();
+            List<MyWhereCriteria> criteriaList = new LinkedList<>();
+            List<MyWhereCriteria> customCriteriaList = criteriaListMap.get(relationStruct.relationField.getName());
+            if (customCriteriaList != null) {
+                criteriaList.addAll(customCriteriaList);
             }
             MyWhereCriteria inlistFilter = new MyWhereCriteria();
             inlistFilter.setCriteria(relation.relationModelClass(),
@@ -1693,11 +1930,13 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (!basicRelationInfo.onlySelectRelationTable) {
                 tableNames.append(", ").append(basicRelationInfo.slaveTable);
             }
-            List<Map<String, Object>> aggregationMapList =
-                    mapper().getGroupedListByCondition(tableNames.toString(),
-                            basicRelationInfo.selectList, whereClause.toString(), basicRelationInfo.groupBy);
-            doMakeAggregationData(aggregationMapList, resultList, relationStruct);
+            // 关联表、分组字段和过滤条件完全相同的多个聚合计算，会被合并到同一个分组查询中。
+            String fusedKey = tableNames + "|" + basicRelationInfo.groupBy + "|" + whereClause;
+            fusedAggregationMap.computeIfAbsent(fusedKey, k -> new LocalFusedAggregation(
+                    tableNames.toString(), basicRelationInfo.groupBy, whereClause.toString()))
+                    .add(relationStruct, basicRelationInfo.aggregationExpression);
         }
+        this.doFusedAggregation(fusedAggregationMap.values(), resultList);
     }
 
     /**
@@ -1715,48 +1954,51 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         if (criteriaListMap == null) {
             criteriaListMap = new HashMap<>(localRelationOneToManyAggrStructList.size());
         }
+        Map<String, LocalFusedAggregation> fusedAggregationMap = new LinkedHashMap<>();
         for (LocalRelationStruct relationStruct : this.localRelationOneToManyAggrStructList) {
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
             Set<Object> masterIdSet = resultList.stream()
-                    .map(obj -> ReflectUtil.getFieldValue(obj, relationStruct.masterIdField))
+                    .map(obj -> relationStruct.masterIdAccessor.get(obj))
                     .filter(Objects::nonNull)
                     .collect(toSet());
-            if (CollectionUtils.isNotEmpty(masterIdSet)) {
-                RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
-                // 开始获取后面所需的各种关联数据。此部分今后可以移植到缓存中，无需每次计算。
-                String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
-                String slaveColumnName = MyModelUtil.mapToColumnName(
-                        relation.slaveIdField(), relation.slaveModelClass());
-                Tuple2<String, String> selectAndGroupByTuple = makeSelectListAndGroupByClause(
-                        slaveTable, slaveColumnName, relation.slaveModelClass(),
-                        slaveTable, relation.aggregationField(), relation.aggregationType());
-                String selectList = selectAndGroupByTuple.getFirst();
-                String groupBy = selectAndGroupByTuple.getSecond();
-                List<MyWhereCriteria> criteriaList = criteriaListMap.get(relationStruct.relationField.getName());
-                if (criteriaList == null) {
-                    criteriaList = new LinkedList<>();
-                }
-                MyWhereCriteria inlistFilter = new MyWhereCriteria();
-                inlistFilter.setCriteria(relation.slaveModelClass(),
-                        relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
-                criteriaList.add(inlistFilter);
-                if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
-                    MyWhereCriteria deleteFilter = new MyWhereCriteria();
-                    deleteFilter.setCriteria(
-                            relation.slaveModelClass(),
-                            relationStruct.localService.deletedFlagFieldName,
-                            MyWhereCriteria.OPERATOR_EQUAL,
-                            GlobalDeletedFlag.NORMAL);
-                    criteriaList.add(deleteFilter);
-                }
-                String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
-                List<Map<String, Object>> aggregationMapList =
-                        mapper().getGroupedListByCondition(slaveTable, selectList, criteriaString, groupBy);
-                doMakeAggregationData(aggregationMapList, resultList, relationStruct);
+            if (CollectionUtils.isEmpty(masterIdSet)) {
+                continue;
+            }
+            RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
+            // 开始获取后面所需的各种关联数据。此部分今后可以移植到缓存中，无需每次计算。
+            String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
+            String slaveColumnName = MyModelUtil.mapToColumnName(
+                    relation.slaveIdField(), relation.slaveModelClass());
+            String groupBy = slaveTable + "." + slaveColumnName;
+            List<MyWhereCriteria> criteriaList = new LinkedList<>();
+            List<MyWhereCriteria> customCriteriaList = criteriaListMap.get(relationStruct.relationField.getName());
+            if (customCriteriaList != null) {
+                criteriaList.addAll(customCriteriaList);
             }
+            MyWhereCriteria inlistFilter = new MyWhereCriteria();
+            inlistFilter.setCriteria(relation.slaveModelClass(),
+                    relation.slaveIdField(), MyWhereCriteria.OPERATOR_IN, masterIdSet);
+            criteriaList.add(inlistFilter);
+            if (StringUtils.isNotBlank(relationStruct.localService.deletedFlagFieldName)) {
+                MyWhereCriteria deleteFilter = new MyWhereCriteria();
+                deleteFilter.setCriteria(
+                        relation.slaveModelClass(),
+                        relationStruct.localService.deletedFlagFieldName,
+                        MyWhereCriteria.OPERATOR_EQUAL,
+                        GlobalDeletedFlag.NORMAL);
+                criteriaList.add(deleteFilter);
+            }
+            String criteriaString = MyWhereCriteria.makeCriteriaString(criteriaList);
+            String aggregationExpression = makeAggregationExpression(relation.slaveModelClass(),
+                    slaveTable, relation.aggregationField(), relation.aggregationType());
+            // 从表、分组字段和过滤条件完全相同的多个聚合计算，如同一从表的COUNT、SUM和MAX，会被合并到同一个分组查询中。
+            fusedAggregationMap.computeIfAbsent(slaveTable + "|" + groupBy + "|" + criteriaString,
+                    k -> new LocalFusedAggregation(slaveTable, groupBy, criteriaString))
+                    .add(relationStruct, aggregationExpression);
         }
+        this.doFusedAggregation(fusedAggregationMap.values(), resultList);
     }
 
     /**
@@ -1778,7 +2020,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue != null) {
                 LocalAggregationRelationInfo basicRelationInfo =
                         this.parseLocalAggregationRelationInfo(relationStruct, criteriaListMap);
@@ -1797,7 +2039,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 if (CollectionUtils.isNotEmpty(aggregationMapList)) {
                     Object value = aggregationMapList.get(0).get(MyAggregationParam.VALUE_NAME);
                     if (value != null) {
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
+                        relationStruct.relationAccessor.set(dataObject, value);
                     }
                 }
             }
@@ -1823,7 +2065,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             if (ignoreFields != null && ignoreFields.contains(relationStruct.relationField.getName())) {
                 continue;
             }
-            Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+            Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
             if (masterIdValue != null) {
                 RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
                 String slaveTable = MyModelUtil.mapToTableName(relation.slaveModelClass());
@@ -1843,7 +2085,7 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 if (CollectionUtils.isNotEmpty(aggregationMapList)) {
                     Object value = aggregationMapList.get(0).get(MyAggregationParam.VALUE_NAME);
                     if (value != null) {
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
+                        relationStruct.relationAccessor.set(dataObject, value);
                     }
                 }
             }
@@ -1861,6 +2103,10 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             initializeRemoteRelationStruct(f);
             initializeRemoteRelationAggregationStruct(f);
         }
+        Stream.of(remoteRelationDictStructList,
+                remoteRelationOneToOneStructList,
+                remoteRelationOneToManyAggrStructList,
+                remoteRelationManyToManyAggrStructList).flatMap(List::stream).forEach(RelationStruct::initializeAccessor);
     }
 
     /**
@@ -1874,6 +2120,13 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             initializeLocalRelationStruct(f);
             initializeLocalRelationAggregationStruct(f);
         }
+        Stream.of(relationConstDictStructList,
+                localRelationDictStructList,
+                localRelationOneToOneStructList,
+                localRelationOneToManyStructList,
+                localRelationManyToManyStructList,
+                localRelationOneToManyAggrStructList,
+                localRelationManyToManyAggrStructList).flatMap(List::stream).forEach(RelationStruct::initializeAccessor);
     }
 
     /**
@@ -2036,6 +2289,11 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             }
             Object client = ApplicationContextHolder.getBean(relationDict.slaveClientClass());
             relationStruct.remoteClient = (BaseClient<Object, Object, Object>) client;
+            if (relationDict.nearCacheExpiredSeconds() > 0) {
+                relationStruct.nearCache = RemoteRelationNearCache.getOrCreate(relationDict.slaveModelClass(),
+                        relationDict.slaveIdField(), relationDict.nearCacheExpiredSeconds(),
+                        relationDict.nearCacheMaximumSize());
+            }
             remoteRelationDictStructList.add(relationStruct);
         }
     }
@@ -2053,6 +2311,11 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             relationStruct.relationOneToOne = relationOneToOne;
             Object client = ApplicationContextHolder.getBean(relationOneToOne.slaveClientClass());
             relationStruct.remoteClient = (BaseClient<Object, Object, Object>) client;
+            if (relationOneToOne.nearCacheExpiredSeconds() > 0) {
+                relationStruct.nearCache = RemoteRelationNearCache.getOrCreate(relationOneToOne.slaveModelClass(),
+                        relationOneToOne.slaveIdField(), relationOneToOne.nearCacheExpiredSeconds(),
+                        relationOneToOne.nearCacheMaximumSize());
+            }
             remoteRelationOneToOneStructList.add(relationStruct);
         }
     }
@@ -2266,6 +2529,8 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 aggregationTable, relation.aggregationField(), relation.aggregationType());
         relationInfo.selectList = selectAndGroupByTuple.getFirst();
         relationInfo.groupBy = selectAndGroupByTuple.getSecond();
+        relationInfo.aggregationExpression = makeAggregationExpression(relation.aggregationModelClass(),
+                aggregationTable, relation.aggregationField(), relation.aggregationType());
         return relationInfo;
     }
 
@@ -2515,9 +2780,55 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         private String relationSlaveColumn;
         private String selectList;
         private String groupBy;
+        private String aggregationExpression;
         private boolean onlySelectRelationTable;
     }
 
+    /**
+     * 合并后的本地聚合计算。表名、分组字段和过滤条件完全相同的多个聚合计算，会在同一个分组查询中完成。
+     */
+    private static class LocalFusedAggregation {
+        private final String tableNames;
+        private final String groupBy;
+        private final String whereClause;
+        private final List<String> aggregationExpressionList = new LinkedList<>();
+        private final List<RelationStruct> structList = new LinkedList<>();
+
+        LocalFusedAggregation(String tableNames, String groupBy, String whereClause) {
+            this.tableNames = tableNames;
+            this.groupBy = groupBy;
+            this.whereClause = whereClause;
+        }
+
+        void add(RelationStruct relationStruct, String aggregationExpression) {
+            structList.add(relationStruct);
+            aggregationExpressionList.add(aggregationExpression);
+        }
+    }
+
+    /**
+     * 合并后的远程一对多聚合计算。第一个关联结构的聚合为主聚合，其余的作为附加聚合，在同一次远程调用中完成计算。
+     */
+    private static class RemoteFusedAggregation {
+        private final MyAggregationParam aggregationParam;
+        private final List<RemoteRelationStruct> structList = new LinkedList<>();
+
+        RemoteFusedAggregation(RemoteRelationStruct relationStruct, MyAggregationParam aggregationParam) {
+            this.aggregationParam = aggregationParam;
+            this.structList.add(relationStruct);
+        }
+
+        void add(RemoteRelationStruct relationStruct) {
+            RelationOneToManyAggregation relation = relationStruct.relationOneToManyAggregation;
+            if (aggregationParam.getExtraAggregationList() == null) {
+                aggregationParam.setExtraAggregationList(new LinkedList<>());
+            }
+            aggregationParam.getExtraAggregationList().add(
+                    new MyAggregationParam.AggregationItem(relation.aggregationField(), relation.aggregationType()));
+            structList.add(relationStruct);
+        }
+    }
+
     private static class RemoteAggregationRelationInfo {
         private String relationTable;
         private String relationMasterColumn;
@@ -2530,24 +2841,57 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             List<Map<String, Object>> aggregationMapList,
             List<M> resultList,
             RelationStruct relationStruct) {
+        this.doMakeAggregationData(aggregationMapList, resultList, relationStruct, MyAggregationParam.VALUE_NAME);
+    }
+
+    private void doMakeAggregationData(
+            List<Map<String, Object>> aggregationMapList,
+            List<M> resultList,
+            RelationStruct relationStruct,
+            String valueName) {
         // 根据获取的分组聚合结果集，绑定到主表总的关联字段。
         if (CollectionUtils.isNotEmpty(aggregationMapList)) {
             Map<Object, Object> relatedMap = new HashMap<>(aggregationMapList.size());
             for (Map<String, Object> map : aggregationMapList) {
-                relatedMap.put(map.get(MyAggregationParam.KEY_NAME), map.get(MyAggregationParam.VALUE_NAME));
+                relatedMap.put(map.get(MyAggregationParam.KEY_NAME), map.get(valueName));
             }
             for (M dataObject : resultList) {
-                Object masterIdValue = ReflectUtil.getFieldValue(dataObject, relationStruct.masterIdField);
+                Object masterIdValue = relationStruct.masterIdAccessor.get(dataObject);
                 if (masterIdValue != null) {
                     Object value = relatedMap.get(masterIdValue);
                     if (value != null) {
-                        ReflectUtil.setFieldValue(dataObject, relationStruct.relationField, value);
+                        relationStruct.relationAccessor.set(dataObject, value);
                     }
                 }
             }
         }
     }
 
+    private void doFusedAggregation(Collection<LocalFusedAggregation> fusedAggregations, List<M> resultList) {
+        for (LocalFusedAggregation fusedAggregation : fusedAggregations) {
+            // 如：r_table.master_id groupedKey, COUNT(r_table.id) aggregatedValue, SUM(r_table.score) aggregatedValue1
+            StringBuilder selectList = new StringBuilder(128);
+            selectList.append(fusedAggregation.groupBy).append(" ").append(MyAggregationParam.KEY_NAME);
+            int index = 0;
+            for (String aggregationExpression : fusedAggregation.aggregationExpressionList) {
+                selectList.append(", ")
+                        .append(aggregationExpression)
+                        .append(" ")
+                        .append(MyAggregationParam.makeValueName(index++));
+            }
+            List<Map<String, Object>> aggregationMapList = mapper().getGroupedListByCondition(
+                    fusedAggregation.tableNames,
+                    selectList.toString(),
+                    fusedAggregation.whereClause,
+                    fusedAggregation.groupBy);
+            index = 0;
+            for (RelationStruct relationStruct : fusedAggregation.structList) {
+                this.doMakeAggregationData(aggregationMapList,
+                        resultList, relationStruct, MyAggregationParam.makeValueName(index++));
+            }
+        }
+    }
+
     private MyAggregationParam createAggregationParam(int kind, int type, String aggregationField, String groupField) {
         MyAggregationParam aggregationParam = new MyAggregationParam();
         aggregationParam.setAggregationKind(kind);
@@ -2564,16 +2908,8 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
             String aggregationTableName,
             String aggregationField,
             Integer aggregationType) {
-        if (!AggregationType.isValid(aggregationType)) {
-            throw new IllegalArgumentException("Invalid AggregationType Value ["
-                    + aggregationType + "] in Model [" + aggregationModel.getName() + "].");
-        }
-        String aggregationFunc = AggregationType.getAggregationFunction(aggregationType);
-        String aggregationColumn = MyModelUtil.mapToColumnName(aggregationField, aggregationModel);
-        if (StringUtils.isBlank(aggregationColumn)) {
-            throw new IllegalArgumentException("Invalid AggregationField ["
-                    + aggregationField + "] in Model [" + aggregationModel.getName() + "].");
-        }
+        String aggregationExpression = makeAggregationExpression(
+                aggregationModel, aggregationTableName, aggregationField, aggregationType);
         // 构建Select List
         // 如：r_table.master_id groupedKey, SUM(r_table.aggr_column) aggregated_value
         StringBuilder groupedSelectList = new StringBuilder(128);
@@ -2583,12 +2919,8 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
                 .append(" ")
                 .append(MyAggregationParam.KEY_NAME)
                 .append(", ")
-                .append(aggregationFunc)
-                .append("(")
-                .append(aggregationTableName)
-                .append(".")
-                .append(aggregationColumn)
-                .append(") ")
+                .append(aggregationExpression)
+                .append(" ")
                 .append(MyAggregationParam.VALUE_NAME)
                 .append(" ");
         StringBuilder groupBy = new StringBuilder(64);
@@ -2596,13 +2928,40 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         return new Tuple2<>(groupedSelectList.toString(), groupBy.toString());
     }
 
+    private String makeAggregationExpression(
+            Class<?> aggregationModel, String aggregationTableName, String aggregationField, Integer aggregationType) {
+        if (!AggregationType.isValid(aggregationType)) {
+            throw new IllegalArgumentException("Invalid AggregationType Value ["
+                    + aggregationType + "] in Model [" + aggregationModel.getName() + "].");
+        }
+        String aggregationFunc = AggregationType.getAggregationFunction(aggregationType);
+        String aggregationColumn = MyModelUtil.mapToColumnName(aggregationField, aggregationModel);
+        if (StringUtils.isBlank(aggregationColumn)) {
+            throw new IllegalArgumentException("Invalid AggregationField ["
+                    + aggregationField + "] in Model [" + aggregationModel.getName() + "].");
+        }
+        // 如：SUM(r_table.aggr_column)
+        return aggregationFunc + "(" + aggregationTableName + "." + aggregationColumn + ")";
+    }
+
     static class RelationStruct {
         protected Field relationField;
         protected Field masterIdField;
+        protected FieldAccessor relationAccessor;
+        protected FieldAccessor masterIdAccessor;
+
+        /**
+         * 在关联结构初始化完毕后调用，一次性生成关联字段的访问器，避免在数据组装时逐行反射。
+         */
+        void initializeAccessor() {
+            relationAccessor = FieldAccessor.of(relationField);
+            masterIdAccessor = FieldAccessor.of(masterIdField);
+        }
     }
 
     static class LocalRelationStruct extends RelationStruct {
         private Field equalOneToOneRelationField;
+        private FieldAccessor equalOneToOneRelationAccessor;
         private BaseService<Object, Serializable> localService;
         private BaseDaoMapper<Object> manyToManyMapper;
         private Map<Object, String> dictMap;
@@ -2612,14 +2971,28 @@ public abstract class BaseService<M, K extends Serializable> extends ServiceImpl
         private RelationManyToMany relationManyToMany;
         private RelationOneToManyAggregation relationOneToManyAggregation;
         private RelationManyToManyAggregation relationManyToManyAggregation;
+
+        @Override
+        void initializeAccessor() {
+            super.initializeAccessor();
+            equalOneToOneRelationAccessor = FieldAccessor.of(equalOneToOneRelationField);
+        }
     }
 
     static class RemoteRelationStruct extends RelationStruct {
         private Field equalOneToOneRelationField;
+        private FieldAccessor equalOneToOneRelationAccessor;
         private BaseClient<Object, Object, Object> remoteClient;
+        private RemoteRelationNearCache nearCache;
         private RelationDict relationDict;
         private RelationOneToOne relationOneToOne;
         private RelationOneToManyAggregation relationOneToManyAggregation;
         private RelationManyToManyAggregation relationManyToManyAggregation;
+
+        @Override
+        void initializeAccessor() {
+            super.initializeAccessor();
+            equalOneToOneRelationAccessor = FieldAccessor.of(equalOneToOneRelationField);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.orangeforms.common.core.base.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.orangeforms.common.core.object.BatchWriteResult;
 import com.orangeforms.common.core.object.CallResult;
 import com.orangeforms.common.core.object.MyRelationParam;
 import com.orangeforms.common.core.object.TableModelInfo;
@@ -51,8 +52,9 @@ public interface IBaseService<M, K extends Serializable> extends IService<M>{
      * 该操作会覆盖增、删、改三个操作，具体如下：
      * 1. 先删除。从表中relationFieldName字段的值为relationFieldValue, 同时主键Id不在dataList中的。
      * 2. 再批量插入。遍历dataList中没有主键Id的对象，视为新对象批量插入。
-     * 3. 最后逐条更新，遍历dataList中有主键Id的对象，视为已存在对象并逐条更新。
+     * 3. 最后批量更新，遍历dataList中有主键Id的对象，视为已存在对象，并通过JDBC批处理更新。
      * 4. 如果更新时间和更新用户Id为空，我们将视当前记录为变化数据，因此使用当前时间和用户分别填充这两个字段。
+     * 5. 现有从表数据只会查询一次，并在内存中基于主键比对，与现有数据完全一致的对象不会被更新。
      *
      * @param relationFieldName     主从表关联中，从表的Java字段名。
      * @param relationFieldValue    主从表关联中，与从表关联的主表字段值。该值会被赋值给从表关联字段。
@@ -60,8 +62,9 @@ public interface IBaseService<M, K extends Serializable> extends IService<M>{
      * @param updateTimeFieldName   一对多从表的更新时间字段名
      * @param dataList              批量更新的从表数据列表。
      * @param batchInserter         从表批量插入方法。
+     * @return 插入、更新和删除的数据数量。
      */
-    void updateBatchOneToManyRelation(
+    BatchWriteResult updateBatchOneToManyRelation(
             String relationFieldName,
             Object relationFieldValue,
             String updateUserIdFieldName,
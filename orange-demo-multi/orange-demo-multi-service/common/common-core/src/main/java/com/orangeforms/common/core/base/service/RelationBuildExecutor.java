@@ -0,0 +1,81 @@
+package com.orangeforms.common.core.base.service;
+
+import com.orangeforms.common.core.util.ThreadContextUtil;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * BaseService并行组装关联数据时使用的有界线程池。
+ * 线程数和队列长度均有上限，队列满时由调用线程直接执行，从而保证不会无限制的占用数据库连接和远程调用资源。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+final class RelationBuildExecutor {
+
+    private static final int CORE_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_POOL_SIZE = CORE_POOL_SIZE * 2;
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(
+            CORE_POOL_SIZE,
+            MAX_POOL_SIZE,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+            new BasicThreadFactory.Builder().namingPattern("relation-build-%d").daemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * 异步执行无前置依赖的组装任务。当前线程的上下文会被传递到工作线程。
+     *
+     * @param task 组装任务。
+     * @return 任务的Future对象。
+     */
+    static CompletableFuture<Void> submit(Runnable task) {
+        return CompletableFuture.runAsync(ThreadContextUtil.wrap(task), EXECUTOR);
+    }
+
+    /**
+     * 在前置任务完成后，异步执行当前组装任务。当前线程的上下文会被传递到工作线程。
+     *
+     * @param dependency 前置任务。如果为null，则等同于submit方法。
+     * @param task       组装任务。
+     * @return 任务的Future对象。
+     */
+    static CompletableFuture<Void> submitAfter(CompletableFuture<Void> dependency, Runnable task) {
+        if (dependency == null) {
+            return submit(task);
+        }
+        return dependency.thenRunAsync(ThreadContextUtil.wrap(task), EXECUTOR);
+    }
+
+    /**
+     * 等待全部任务结束。任一任务出现异常时，将原始的运行时异常重新抛出，以保持和串行执行一致的异常语义。
+     *
+     * @param futureList 任务Future列表。
+     */
+    static void awaitAll(List<CompletableFuture<Void>> futureList) {
+        try {
+            CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 私有构造函数，明确标识该常量类的作用。
+     */
+    private RelationBuildExecutor() {
+    }
+}
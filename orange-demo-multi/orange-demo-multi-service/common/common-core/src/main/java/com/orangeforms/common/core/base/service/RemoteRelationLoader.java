@@ -0,0 +1,249 @@
+package com.orangeforms.common.core.base.service;
+
+import com.orangeforms.common.core.base.client.BaseClient;
+import com.orangeforms.common.core.cache.RemoteRelationNearCache;
+import com.orangeforms.common.core.object.MyPageData;
+import com.orangeforms.common.core.object.MyQueryParam;
+import com.orangeforms.common.core.object.MyWhereCriteria;
+import com.orangeforms.common.core.object.ResponseResult;
+import com.orangeforms.common.core.util.ContextUtil;
+import com.orangeforms.common.core.util.FieldAccessor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.apache.commons.collections4.CollectionUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 请求级别的远程关联数据加载器。BaseService在组装远程一对一和远程字典关联数据时使用。
+ * 1. 同一批次中，指向同一个BaseClient、同一个从表关联字段的多个关联结构，其主键集合会被合并为一次OPERATOR_IN查询。
+ * 2. 在同一个Http请求内，已经获取过的(BaseClient, 关联字段, 主键值)数据会被缓存，不会再次发起远程调用。
+ * 3. 关联结构开启近端缓存时，会先从跨请求的近端缓存中获取数据，只有未命中的主键才会发起远程调用。
+ * 该对象存储于HttpServletRequest的属性中，随请求结束而释放。非Servlet请求的上下文中，每次都会创建新的加载器对象。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+final class RemoteRelationLoader {
+
+    /**
+     * 在HTTP Request对象中的属性键。
+     */
+    private static final String REQUEST_ATTRIBUTE_NAME = "remoteRelationLoader";
+    /**
+     * 已经加载的远程数据。key为加载键，value为从表关联字段值和从表数据对象的映射。
+     */
+    private final Map<LoadKey, Map<Object, Object>> loadedDataMap = new ConcurrentHashMap<>();
+    /**
+     * 已经请求过的主键集合。包括远程服务中不存在的主键值，以免重复请求。
+     */
+    private final Map<LoadKey, Set<Object>> loadedIdMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取当前请求的远程关联数据加载器。
+     *
+     * @return 当前请求的远程关联数据加载器。
+     */
+    static RemoteRelationLoader current() {
+        if (!ContextUtil.hasRequestContext()) {
+            return new RemoteRelationLoader();
+        }
+        HttpServletRequest request = ContextUtil.getHttpRequest();
+        // 并行组装时，可能会有多个工作线程同时获取，这里需要保证同一请求只会创建一个加载器。
+        // 锁定的是当前请求对象，不同请求之间不会相互阻塞。
+        synchronized (request) {
+            RemoteRelationLoader loader = (RemoteRelationLoader) request.getAttribute(REQUEST_ATTRIBUTE_NAME);
+            if (loader == null) {
+                loader = new RemoteRelationLoader();
+                request.setAttribute(REQUEST_ATTRIBUTE_NAME, loader);
+            }
+            return loader;
+        }
+    }
+
+    /**
+     * 释放当前请求中已经加载的远程数据。对于流式导出等在同一请求内多次组装关联数据的场景，
+     * 每个批次组装完成之后调用该方法，以免已加载的数据随导出行数无限增长。
+     */
+    static void clearCurrent() {
+        if (ContextUtil.hasRequestContext()) {
+            ContextUtil.getHttpRequest().removeAttribute(REQUEST_ATTRIBUTE_NAME);
+        }
+    }
+
+    /**
+     * 创建新的加载批次。
+     *
+     * @return 新的加载批次。
+     */
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * 从已加载的数据中，获取参数主键集合对应的从表数据列表。
+     * 不包含字典数据的查询，也可以直接使用已经加载的包含字典的数据。
+     *
+     * @param client       远程调用客户端。
+     * @param slaveIdField 从表关联字段。
+     * @param withDict     是否包含从表字典数据。
+     * @param ids          主键集合。
+     * @return 从表数据列表。
+     */
+    List<Object> getList(BaseClient<Object, Object, Object> client, String slaveIdField, boolean withDict, Set<Object> ids) {
+        List<Object> resultList = new LinkedList<>();
+        for (Object id : ids) {
+            Object data = this.get(client, slaveIdField, withDict, id);
+            if (data != null) {
+                resultList.add(data);
+            }
+        }
+        return resultList;
+    }
+
+    /**
+     * 从已加载的数据中，获取参数主键值对应的从表数据。
+     *
+     * @param client       远程调用客户端。
+     * @param slaveIdField 从表关联字段。
+     * @param withDict     是否包含从表字典数据。
+     * @param id           主键值。
+     * @return 从表数据对象，不存在时返回null。
+     */
+    Object get(BaseClient<Object, Object, Object> client, String slaveIdField, boolean withDict, Object id) {
+        Map<Object, Object> dataMap = loadedDataMap.get(new LoadKey(client, slaveIdField, withDict));
+        Object data = dataMap == null ? null : dataMap.get(id);
+        if (data == null && !withDict) {
+            dataMap = loadedDataMap.get(new LoadKey(client, slaveIdField, true));
+            data = dataMap == null ? null : dataMap.get(id);
+        }
+        return data;
+    }
+
+    private Set<Object> findMissingIds(LoadKey key, Set<Object> ids) {
+        Set<Object> loadedIds = loadedIdMap.get(key);
+        Set<Object> loadedWithDictIds = key.withDict ? null : loadedIdMap.get(new LoadKey(key.client, key.slaveIdField, true));
+        Set<Object> missingIds = new HashSet<>(ids.size());
+        for (Object id : ids) {
+            if ((loadedIds == null || !loadedIds.contains(id))
+                    && (loadedWithDictIds == null || !loadedWithDictIds.contains(id))) {
+                missingIds.add(id);
+            }
+        }
+        return missingIds;
+    }
+
+    private static Object readSlaveId(Object data, String slaveIdField) {
+        if (data instanceof Map) {
+            return ((Map<?, ?>) data).get(slaveIdField);
+        }
+        return FieldAccessor.of(data.getClass(), slaveIdField).get(data);
+    }
+
+    /**
+     * 远程关联数据的加载批次。先通过add方法登记所有待加载的主键集合，再调用execute方法合并执行远程调用。
+     */
+    final class Batch {
+        private final Map<LoadKey, Set<Object>> pendingIdMap = new LinkedHashMap<>();
+        private final Map<LoadKey, RemoteRelationNearCache> nearCacheMap = new HashMap<>();
+
+        /**
+         * 登记待加载的主键集合。
+         *
+         * @param client       远程调用客户端。
+         * @param slaveIdField 从表关联字段。
+         * @param withDict     是否包含从表字典数据。
+         * @param ids          主键集合。
+         * @param nearCache    关联结构的近端缓存，没有开启近端缓存时为null。
+         */
+        void add(
+                BaseClient<Object, Object, Object> client,
+                String slaveIdField,
+                boolean withDict,
+                Collection<Object> ids,
+                RemoteRelationNearCache nearCache) {
+            LoadKey key = new LoadKey(client, slaveIdField, withDict);
+            pendingIdMap.computeIfAbsent(key, k -> new HashSet<>()).addAll(ids);
+            if (nearCache != null) {
+                nearCacheMap.putIfAbsent(key, nearCache);
+            }
+        }
+
+        /**
+         * 对每个(BaseClient, 从表关联字段, 是否包含字典)，仅针对尚未加载过的主键集合发起一次远程调用。
+         *
+         * @param errorHandler 远程调用失败时的错误处理函数，参数为错误信息。
+         */
+        void execute(Consumer<String> errorHandler) {
+            for (Map.Entry<LoadKey, Set<Object>> e : pendingIdMap.entrySet()) {
+                LoadKey key = e.getKey();
+                Set<Object> missingIds = findMissingIds(key, e.getValue());
+                if (CollectionUtils.isEmpty(missingIds)) {
+                    continue;
+                }
+                RemoteRelationNearCache nearCache = nearCacheMap.get(key);
+                if (nearCache != null) {
+                    missingIds = loadFromNearCache(key, nearCache, missingIds);
+                    if (missingIds.isEmpty()) {
+                        continue;
+                    }
+                }
+                MyQueryParam queryParam = new MyQueryParam(key.withDict);
+                queryParam.setUseDataFilter(false);
+                MyWhereCriteria whereCriteria = new MyWhereCriteria();
+                whereCriteria.setCriteria(key.slaveIdField, MyWhereCriteria.OPERATOR_IN, missingIds);
+                queryParam.addCriteriaList(whereCriteria);
+                ResponseResult<MyPageData<Object>> result = key.client.listBy(queryParam);
+                if (!result.isSuccess()) {
+                    errorHandler.accept(result.getErrorMessage());
+                    continue;
+                }
+                Map<Object, Object> dataMap = loadedDataMap.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+                if (result.getData() != null && result.getData().getDataList() != null) {
+                    for (Object data : result.getData().getDataList()) {
+                        Object id = readSlaveId(data, key.slaveIdField);
+                        if (id != null) {
+                            dataMap.put(id, data);
+                            if (nearCache != null) {
+                                nearCache.put(id, key.withDict, data);
+                            }
+                        }
+                    }
+                }
+                loadedIdMap.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).addAll(missingIds);
+            }
+            pendingIdMap.clear();
+            nearCacheMap.clear();
+        }
+
+        private Set<Object> loadFromNearCache(LoadKey key, RemoteRelationNearCache nearCache, Set<Object> ids) {
+            Map<Object, Object> dataMap = loadedDataMap.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+            Set<Object> cachedIds = new HashSet<>(ids.size());
+            Set<Object> missingIds = new HashSet<>(ids.size());
+            for (Object id : ids) {
+                Object data = nearCache.get(id, key.withDict);
+                if (data == null) {
+                    missingIds.add(id);
+                } else {
+                    dataMap.put(id, data);
+                    cachedIds.add(id);
+                }
+            }
+            if (!cachedIds.isEmpty()) {
+                loadedIdMap.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).addAll(cachedIds);
+            }
+            return missingIds;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class LoadKey {
+        private final BaseClient<Object, Object, Object> client;
+        private final String slaveIdField;
+        private final boolean withDict;
+    }
+}
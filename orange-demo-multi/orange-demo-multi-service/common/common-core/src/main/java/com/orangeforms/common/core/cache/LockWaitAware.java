@@ -0,0 +1,19 @@
+package com.orangeforms.common.core.cache;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 内部使用读写锁的字典缓存可以实现该接口，以便MetricsDictionaryCache统计等待锁的耗时。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface LockWaitAware {
+
+    /**
+     * 设置记录等待锁耗时的计时器对象。
+     *
+     * @param lockWaitTimer 计时器对象。
+     */
+    void setLockWaitTimer(Timer lockWaitTimer);
+}
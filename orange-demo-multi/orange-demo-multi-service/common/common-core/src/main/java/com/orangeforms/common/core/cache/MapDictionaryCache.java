@@ -1,42 +1,31 @@
 package com.orangeforms.common.core.cache;
 
-import com.orangeforms.common.core.exception.MapCacheAccessException;
-import lombok.extern.slf4j.Slf4j;
-
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * 字典数据内存缓存对象。
+ * 缓存数据保存在不可变的快照对象中，读操作直接访问当前快照，无需加锁。写操作会基于当前快照复制出新的数据，
+ * 修改后生成新的快照，再通过CAS替换当前快照，如果替换期间快照已被其他写操作替换，则基于最新的快照重试。
+ * 由于字典数据读多写少，这种写时复制的方式可以保证读操作的伸缩性。
  *
  * @param <K> 字典表主键类型。
  * @param <V> 字典表对象类型。
  * @author Jerry
  * @date 2020-08-08
  */
-@Slf4j
 public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
 
     /**
-     * 存储字典数据的Map。
+     * 当前的数据快照。
      */
-    protected final LinkedHashMap<K, V> dataMap = new LinkedHashMap<>();
+    protected final AtomicReference<Snapshot<K, V>> snapshotRef;
     /**
      * 获取字典主键数据的函数对象。
      */
     protected final Function<V, K> idGetter;
-    /**
-     * 由于大部分场景是读取操作，所以使用读写锁提高并发的伸缩性。
-     */
-    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
-    /**
-     * 超时时长。单位毫秒。
-     */
-    protected static final long TIMEOUT = 2000L;
 
     /**
      * 当前对象的构造器函数。
@@ -60,37 +49,17 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     public MapDictionaryCache(Function<V, K> idGetter) {
         this.idGetter = idGetter;
+        this.snapshotRef = new AtomicReference<>(new Snapshot<>(new LinkedHashMap<>()));
     }
 
     /**
      * 按照数据插入的顺序返回全部字典对象的列表。
      *
-     * @return 全部字段数据列表。
+     * @return 全部字段数据列表。返回的列表不可修改。
      */
     @Override
     public List<V> getAll() {
-        List<V> resultList = new LinkedList<>();
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    for (Map.Entry<K, V> entry : dataMap.entrySet()) {
-                        resultList.add(entry.getValue());
-                    }
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
-        return resultList;
+        return snapshotRef.get().valueList;
     }
 
     /**
@@ -101,30 +70,14 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public List<V> getInList(Set<K> keys) {
-        List<V> resultList = new LinkedList<>();
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    keys.forEach(key -> {
-                        V object = dataMap.get(key);
-                        if (object != null) {
-                            resultList.add(object);
-                        }
-                    });
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        Map<K, V> dataMap = snapshotRef.get().dataMap;
+        List<V> resultList = new ArrayList<>(keys.size());
+        keys.forEach(key -> {
+            V object = dataMap.get(key);
+            if (object != null) {
+                resultList.add(object);
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
+        });
         return resultList;
     }
 
@@ -138,27 +91,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (dataList == null) {
             return;
         }
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataList.forEach(dataObj -> {
-                        K id = idGetter.apply(dataObj);
-                        dataMap.put(id, dataObj);
-                    });
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
+        this.update(dataMap -> dataList.forEach(dataObj -> dataMap.put(idGetter.apply(dataObj), dataObj)));
     }
 
     /**
@@ -172,28 +105,9 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (!force && this.getCount() > 0) {
             return;
         }
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.clear();
-                    dataList.forEach(dataObj -> {
-                        K id = idGetter.apply(dataObj);
-                        dataMap.put(id, dataObj);
-                    });
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
+        LinkedHashMap<K, V> dataMap = new LinkedHashMap<>();
+        dataList.forEach(dataObj -> dataMap.put(idGetter.apply(dataObj), dataObj));
+        snapshotRef.set(this.makeSnapshot(dataMap));
     }
 
     /**
@@ -207,26 +121,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (id == null) {
             return null;
         }
-        V data;
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    data = dataMap.get(id);
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
-        return data;
+        return snapshotRef.get().dataMap.get(id);
     }
 
     /**
@@ -237,24 +132,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public void put(K id, V object) {
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.put(id, object);
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
+        this.update(dataMap -> dataMap.put(id, object));
     }
 
     /**
@@ -264,7 +142,7 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public int getCount() {
-        return dataMap.size();
+        return snapshotRef.get().dataMap.size();
     }
 
     /**
@@ -278,26 +156,8 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (id == null) {
             return null;
         }
-        String exceptionMessage;
-        V data;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    data = dataMap.remove(id);
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
-            }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
-        return data;
+        Snapshot<K, V> original = this.update(dataMap -> dataMap.remove(id));
+        return original.dataMap.get(id);
     }
 
     /**
@@ -307,28 +167,11 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public void invalidateSet(Set<K> keys) {
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    keys.forEach(id -> {
-                        if (id != null) {
-                            dataMap.remove(id);
-                        }
-                    });
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        this.update(dataMap -> keys.forEach(id -> {
+            if (id != null) {
+                dataMap.remove(id);
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
-        }
+        }));
     }
 
     /**
@@ -336,23 +179,55 @@ public class MapDictionaryCache<K, V> implements DictionaryCache<K, V> {
      */
     @Override
     public void invalidateAll() {
-        String exceptionMessage;
-        try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
-                try {
-                    dataMap.clear();
-                } finally {
-                    lock.readLock().unlock();
-                }
-            } else {
-                throw new TimeoutException();
+        snapshotRef.set(this.makeSnapshot(new LinkedHashMap<>()));
+    }
+
+    /**
+     * 基于当前快照的数据副本执行修改，并以CAS的方式替换当前快照。
+     *
+     * @param mutator 修改数据副本的函数对象，该函数在重试时可能会被多次调用。
+     * @return 被替换的原有快照。
+     */
+    protected Snapshot<K, V> update(Consumer<LinkedHashMap<K, V>> mutator) {
+        while (true) {
+            Snapshot<K, V> original = snapshotRef.get();
+            LinkedHashMap<K, V> dataMap = new LinkedHashMap<>(original.dataMap);
+            mutator.accept(dataMap);
+            if (snapshotRef.compareAndSet(original, this.makeSnapshot(dataMap))) {
+                return original;
             }
-        } catch (Exception e) {
-            exceptionMessage = String.format(
-                    "LOCK Operation of [MapDictionaryCache::getInList] encountered EXCEPTION [%s] for DICT.",
-                    e.getClass().getSimpleName());
-            log.warn(exceptionMessage);
-            throw new MapCacheAccessException(exceptionMessage, e);
+        }
+    }
+
+    /**
+     * 根据修改后的数据创建新的快照。子类可以重写该方法，在快照中预先计算额外的索引数据。
+     *
+     * @param dataMap 修改后的数据。
+     * @return 新的快照对象。
+     */
+    protected Snapshot<K, V> makeSnapshot(LinkedHashMap<K, V> dataMap) {
+        return new Snapshot<>(dataMap);
+    }
+
+    /**
+     * 字典数据的不可变快照。
+     *
+     * @param <K> 字典表主键类型。
+     * @param <V> 字典表对象类型。
+     */
+    protected static class Snapshot<K, V> {
+        /**
+         * 存储字典数据的Map，按照数据插入的顺序排列。
+         */
+        protected final Map<K, V> dataMap;
+        /**
+         * 按照数据插入的顺序排列的字典数据列表。
+         */
+        protected final List<V> valueList;
+
+        protected Snapshot(LinkedHashMap<K, V> dataMap) {
+            this.dataMap = Collections.unmodifiableMap(dataMap);
+            this.valueList = Collections.unmodifiableList(new ArrayList<>(dataMap.values()));
         }
     }
 }
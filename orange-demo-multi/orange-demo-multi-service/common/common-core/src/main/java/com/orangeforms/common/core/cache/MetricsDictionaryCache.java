@@ -0,0 +1,176 @@
+package com.orangeforms.common.core.cache;
+
+import io.micrometer.core.instrument.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 带有指标统计的字典缓存装饰对象。所有操作都会委托给被包装的缓存对象，同时通过Micrometer记录以下指标，
+ * 所有指标均包含值为缓存名称的cache标签：
+ * dictionary.cache.gets: get和getInList的命中和未命中次数，通过result标签区分。
+ * dictionary.cache.batch.size: getInList每次查询的主键数量。
+ * dictionary.cache.operation: 各个操作的耗时，通过operation标签区分。
+ * dictionary.cache.reload: reload操作的耗时。
+ * dictionary.cache.lock.wait: 等待缓存内部读写锁的耗时，仅当被包装的缓存实现了LockWaitAware接口时才会记录。
+ * dictionary.cache.size: 缓存中的数据数量。
+ *
+ * @param <K> 字典表主键类型。
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MetricsDictionaryCache<K, V> implements DictionaryCache<K, V> {
+
+    private static final String METRIC_PREFIX = "dictionary.cache";
+    private static final String CACHE_TAG = "cache";
+
+    private final DictionaryCache<K, V> delegate;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer getTimer;
+    private final Timer getInListTimer;
+    private final Timer getAllTimer;
+    private final Timer writeTimer;
+    private final Timer reloadTimer;
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param name          缓存名称，通常为字典表对象的类名。
+     * @param delegate      被包装的缓存对象。
+     * @param meterRegistry 指标注册对象。
+     * @param <K>           字典主键类型。
+     * @param <V>           字典对象类型
+     * @return 带有指标统计的字典缓存对象。
+     */
+    public static <K, V> MetricsDictionaryCache<K, V> create(
+            String name, DictionaryCache<K, V> delegate, MeterRegistry meterRegistry) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate can't be NULL.");
+        }
+        if (delegate instanceof MetricsDictionaryCache) {
+            return (MetricsDictionaryCache<K, V>) delegate;
+        }
+        return new MetricsDictionaryCache<>(name, delegate, meterRegistry);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param name          缓存名称，通常为字典表对象的类名。
+     * @param delegate      被包装的缓存对象。
+     * @param meterRegistry 指标注册对象。
+     */
+    public MetricsDictionaryCache(String name, DictionaryCache<K, V> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        Tags tags = Tags.of(CACHE_TAG, name);
+        this.hitCounter = Counter.builder(METRIC_PREFIX + ".gets")
+                .tags(tags).tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_PREFIX + ".gets")
+                .tags(tags).tag("result", "miss").register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .tags(tags).register(meterRegistry);
+        this.getTimer = this.makeOperationTimer(meterRegistry, tags, "get");
+        this.getInListTimer = this.makeOperationTimer(meterRegistry, tags, "getInList");
+        this.getAllTimer = this.makeOperationTimer(meterRegistry, tags, "getAll");
+        this.writeTimer = this.makeOperationTimer(meterRegistry, tags, "write");
+        this.reloadTimer = Timer.builder(METRIC_PREFIX + ".reload").tags(tags).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, MetricsDictionaryCache::countForGauge)
+                .tags(tags).register(meterRegistry);
+        if (delegate instanceof LockWaitAware) {
+            ((LockWaitAware) delegate).setLockWaitTimer(
+                    Timer.builder(METRIC_PREFIX + ".lock.wait").tags(tags).register(meterRegistry));
+        }
+        if (delegate instanceof TenantLoadMetricsAware) {
+            ((TenantLoadMetricsAware) delegate).bindTenantLoadMetrics(meterRegistry, tags);
+        }
+    }
+
+    /**
+     * 获取被包装的缓存对象。
+     *
+     * @return 被包装的缓存对象。
+     */
+    public DictionaryCache<K, V> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public List<V> getAll() {
+        return getAllTimer.record(delegate::getAll);
+    }
+
+    @Override
+    public List<V> getInList(Set<K> keys) {
+        List<V> resultList = getInListTimer.record(() -> delegate.getInList(keys));
+        if (keys != null) {
+            int hitCount = resultList == null ? 0 : resultList.size();
+            batchSizeSummary.record(keys.size());
+            hitCounter.increment(hitCount);
+            missCounter.increment(Math.max(0, keys.size() - hitCount));
+        }
+        return resultList;
+    }
+
+    @Override
+    public void putAll(List<V> dataList) {
+        writeTimer.record(() -> delegate.putAll(dataList));
+    }
+
+    @Override
+    public void reload(List<V> dataList, boolean force) {
+        reloadTimer.record(() -> delegate.reload(dataList, force));
+    }
+
+    @Override
+    public V get(K key) {
+        V data = getTimer.record(() -> delegate.get(key));
+        if (data != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return data;
+    }
+
+    @Override
+    public void put(K key, V object) {
+        writeTimer.record(() -> delegate.put(key, object));
+    }
+
+    @Override
+    public int getCount() {
+        return delegate.getCount();
+    }
+
+    @Override
+    public V invalidate(K key) {
+        return writeTimer.record(() -> delegate.invalidate(key));
+    }
+
+    @Override
+    public void invalidateSet(Set<K> keys) {
+        writeTimer.record(() -> delegate.invalidateSet(keys));
+    }
+
+    @Override
+    public void invalidateAll() {
+        writeTimer.record(delegate::invalidateAll);
+    }
+
+    private Timer makeOperationTimer(MeterRegistry meterRegistry, Tags tags, String operation) {
+        return Timer.builder(METRIC_PREFIX + ".operation")
+                .tags(tags).tag("operation", operation).register(meterRegistry);
+    }
+
+    private double countForGauge() {
+        try {
+            return delegate.getCount();
+        } catch (Exception e) {
+            // 租户字典缓存需要从请求上下文中获取租户Id，在请求之外无法统计数量。
+            return Double.NaN;
+        }
+    }
+}
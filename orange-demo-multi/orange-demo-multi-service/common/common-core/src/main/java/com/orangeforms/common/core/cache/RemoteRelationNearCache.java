@@ -0,0 +1,185 @@
+package com.orangeforms.common.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 远程字典关联和远程一对一关联的近端缓存。
+ * 被关联的远程数据(如年级、课程、部门和用户等)通常很少变化，开启近端缓存后，组装关联数据时会先查找本地缓存，
+ * 只有未命中的主键才会发起Feign远程调用。缓存的条目数量有上限，超出后按照最近最少使用的原则淘汰，同时缓存数据会定时过期。
+ * 缓存由@RelationDict和@RelationOneToOne注解中的nearCacheExpiredSeconds参数开启，
+ * 同一从表Model和同一关联字段的多个关联结构，会共享同一缓存对象，此时以第一个创建缓存的注解参数为准，
+ * 后续注解的参数与之不一致时会输出警告日志。
+ * NOTE: 缓存的从表对象会被多个请求共享，因此在组装完毕后，业务代码不应再修改关联的从表对象。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class RemoteRelationNearCache {
+
+    /**
+     * 全部近端缓存对象。key为从表Model的完整类名和关联字段名称，如"com.orangeforms.upms.model.SysUser.userId"。
+     */
+    private static final Map<String, RemoteRelationNearCache> CACHE_MAP = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int expiredSeconds;
+    private final int maximumSize;
+    private final Cache<CacheKey, Object> cache;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 获取与从表Model和关联字段对应的近端缓存对象，如果不存在则创建。
+     *
+     * @param slaveModelClass 从表Model的Class对象。
+     * @param slaveIdField    从表关联字段名称。
+     * @param expiredSeconds  缓存数据的过期秒数。
+     * @param maximumSize     缓存的最大条目数量。
+     * @return 近端缓存对象。
+     */
+    public static RemoteRelationNearCache getOrCreate(
+            Class<?> slaveModelClass, String slaveIdField, int expiredSeconds, int maximumSize) {
+        // 不同包中可能存在同名的从表Model，因此这里使用完整的类名。
+        String name = slaveModelClass.getName() + "." + slaveIdField;
+        RemoteRelationNearCache nearCache =
+                CACHE_MAP.computeIfAbsent(name, k -> new RemoteRelationNearCache(k, expiredSeconds, maximumSize));
+        if (nearCache.expiredSeconds != expiredSeconds || nearCache.maximumSize != maximumSize) {
+            log.warn("Conflicting near cache settings [expiredSeconds = {}, maximumSize = {}] for [{}] are ignored, "
+                    + "the existing settings [expiredSeconds = {}, maximumSize = {}] are used.",
+                    expiredSeconds, maximumSize, name, nearCache.expiredSeconds, nearCache.maximumSize);
+        }
+        return nearCache;
+    }
+
+    /**
+     * 获取全部的近端缓存对象，通常用于监控缓存的命中情况。
+     *
+     * @return 全部近端缓存对象，key为从表Model的完整类名和关联字段名称。
+     */
+    public static Map<String, RemoteRelationNearCache> getCacheMap() {
+        return Collections.unmodifiableMap(CACHE_MAP);
+    }
+
+    private RemoteRelationNearCache(String name, int expiredSeconds, int maximumSize) {
+        this.name = name;
+        this.expiredSeconds = expiredSeconds;
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(expiredSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * 获取缓存的从表数据。
+     *
+     * @param id       从表关联字段值。
+     * @param withDict 是否包含从表的字典数据。
+     * @return 从表数据对象，未命中时返回null。
+     */
+    public Object get(Object id, boolean withDict) {
+        Object data = cache.getIfPresent(new CacheKey(id, withDict));
+        if (data == null && !withDict) {
+            // 不包含字典的查询，也可以直接使用已经缓存的包含字典的数据。
+            data = cache.getIfPresent(new CacheKey(id, true));
+        }
+        if (data == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return data;
+    }
+
+    /**
+     * 缓存从表数据。
+     *
+     * @param id       从表关联字段值。
+     * @param withDict 是否包含从表的字典数据。
+     * @param data     从表数据对象。
+     */
+    public void put(Object id, boolean withDict, Object data) {
+        cache.put(new CacheKey(id, withDict), data);
+    }
+
+    /**
+     * 清空缓存数据，可通过/actuator/relationcache端点的DELETE操作调用。
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 获取缓存名称。
+     *
+     * @return 缓存名称，格式为从表Model的完整类名和关联字段名称。
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取命中次数。
+     *
+     * @return 命中次数。
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取未命中次数。
+     *
+     * @return 未命中次数。
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取当前缓存的条目数量，该值是估算值。
+     *
+     * @return 当前缓存的条目数量。
+     */
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 转换为Map对象，便于Actuator端点输出。
+     *
+     * @return 缓存的统计数据。
+     */
+    public Map<String, Object> toMap() {
+        long hit = hitCount.sum();
+        long miss = missCount.sum();
+        Map<String, Object> resultMap = new LinkedHashMap<>(8);
+        resultMap.put("name", name);
+        resultMap.put("hitCount", hit);
+        resultMap.put("missCount", miss);
+        resultMap.put("hitRate", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+        resultMap.put("size", cache.estimatedSize());
+        resultMap.put("expiredSeconds", expiredSeconds);
+        resultMap.put("maximumSize", maximumSize);
+        return resultMap;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class CacheKey {
+        private final Object id;
+        private final boolean withDict;
+    }
+}
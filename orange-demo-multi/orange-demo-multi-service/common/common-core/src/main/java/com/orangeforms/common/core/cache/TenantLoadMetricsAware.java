@@ -0,0 +1,21 @@
+package com.orangeforms.common.core.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * 按租户加载字典数据的缓存可以实现该接口，以便MetricsDictionaryCache将每个租户的加载耗时和数据数量注册为指标。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface TenantLoadMetricsAware {
+
+    /**
+     * 绑定租户加载指标的注册对象。
+     *
+     * @param meterRegistry 指标注册对象。
+     * @param tags          当前缓存的公共标签，实现类需要在此基础上追加租户标签。
+     */
+    void bindTenantLoadMetrics(MeterRegistry meterRegistry, Tags tags);
+}
@@ -1,5 +1,7 @@
 package com.orangeforms.common.core.config;
 
+import com.orangeforms.common.core.util.ContextUtil;
+
 /**
  * 通过线程本地存储的方式，保存当前数据库操作所需的数据源类型，动态数据源会根据该值，进行动态切换。
  *
@@ -9,6 +11,11 @@ package com.orangeforms.common.core.config;
 public class DataSourceContextHolder {
 
     private static final ThreadLocal<Integer> CONTEXT_HOLDER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READ_ONLY_HOLDER = new ThreadLocal<>();
+    /**
+     * 当前请求最后一次执行写操作的时间，保存在HttpServletRequest的属性中。
+     */
+    private static final String LAST_WRITE_TIME_ATTRIBUTE = "DATASOURCE_LAST_WRITE_TIME";
 
     /**
      * 设置数据源类型。
@@ -44,6 +51,64 @@ public class DataSourceContextHolder {
         }
     }
 
+    /**
+     * 设置当前线程的数据库操作是否可以路由到只读副本。
+     *
+     * @param readOnly 是否只读。
+     * @return 原有的只读标记，如果第一次设置则返回null。
+     */
+    public static Boolean setReadOnly(Boolean readOnly) {
+        Boolean original = READ_ONLY_HOLDER.get();
+        READ_ONLY_HOLDER.set(readOnly);
+        return original;
+    }
+
+    /**
+     * 判断当前线程的数据库操作是否可以路由到只读副本，同时由动态数据源的路由函数调用。
+     *
+     * @return 只读返回true，否则false。
+     */
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY_HOLDER.get());
+    }
+
+    /**
+     * 恢复原有的只读标记，以免内存泄漏。
+     *
+     * @param original 原有的只读标记，如果该值为null，则清空本地化变量。
+     */
+    public static void unsetReadOnly(Boolean original) {
+        if (original == null) {
+            READ_ONLY_HOLDER.remove();
+        } else {
+            READ_ONLY_HOLDER.set(original);
+        }
+    }
+
+    /**
+     * 记录当前请求执行了写操作，此后在粘滞时间窗口内，该请求的只读操作仍然使用主库。
+     * 非HttpServletRequest上下文中的调用将被忽略。
+     */
+    public static void markWritten() {
+        if (ContextUtil.hasRequestContext()) {
+            ContextUtil.getHttpRequest().setAttribute(LAST_WRITE_TIME_ATTRIBUTE, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 判断当前请求是否在指定的时间窗口内执行过写操作。
+     *
+     * @param windowMillis 粘滞时间窗口的毫秒数。
+     * @return 执行过写操作返回true，否则false。
+     */
+    public static boolean isWrittenWithin(long windowMillis) {
+        if (!ContextUtil.hasRequestContext()) {
+            return false;
+        }
+        Object lastWriteTime = ContextUtil.getHttpRequest().getAttribute(LAST_WRITE_TIME_ATTRIBUTE);
+        return lastWriteTime != null && System.currentTimeMillis() - (Long) lastWriteTime < windowMillis;
+    }
+
     /**
      * 私有构造函数，明确标识该常量类的作用。
      */
@@ -1,17 +1,209 @@
 package com.orangeforms.common.core.config;
 
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 动态数据源对象。当存在多个数据连接时使用。
+ * 每个数据源类型还可以通过addReadReplicas方法注册多个只读副本，标记为@Transactional(readOnly = true)
+ * 或@MyReadOnly的Service方法，其查询将被路由到只读副本。写操作以及处于写事务中的全部操作，始终使用主库。
+ * 为了保证读到自己写入的数据，当前请求执行过写操作后，在粘滞时间窗口内的只读操作也会继续使用主库。
+ * 配置示例如下：
+ * <pre>
+ *     DynamicDataSource dynamicDataSource = new DynamicDataSource();
+ *     dynamicDataSource.setTargetDataSources(targetDataSources);
+ *     dynamicDataSource.setDefaultTargetDataSource(mainDataSource);
+ *     dynamicDataSource.addReadReplicas(DataSourceType.MAIN, replicaList, ReplicaLoadBalance.LEAST_CONNECTIONS);
+ * </pre>
  *
  * @author Jerry
  * @date 2020-08-08
  */
 public class DynamicDataSource extends AbstractRoutingDataSource {
 
+    /**
+     * 只读副本的负载均衡策略。
+     */
+    public enum ReplicaLoadBalance {
+        /**
+         * 轮询。
+         */
+        ROUND_ROBIN,
+        /**
+         * 当前借出连接数最少的副本优先。
+         */
+        LEAST_CONNECTIONS
+    }
+
+    /**
+     * 数据源类型和只读副本组之间的映射。
+     */
+    private final Map<Integer, ReplicaGroup> replicaGroupMap = new ConcurrentHashMap<>();
+    /**
+     * 未指定数据源类型时(即使用缺省数据源)所对应的只读副本组。
+     */
+    private ReplicaGroup defaultReplicaGroup;
+    /**
+     * 写操作之后，当前请求的只读操作仍然使用主库的时间窗口毫秒数。
+     */
+    private long stickyWindowMillis = 5000L;
+
     @Override
     protected Object determineCurrentLookupKey() {
         return DataSourceContextHolder.getDataSourceType();
     }
+
+    /**
+     * 为指定的数据源类型注册只读副本，使用轮询的负载均衡策略。
+     *
+     * @param type     数据源类型，null表示缺省数据源。
+     * @param replicas 只读副本列表。
+     */
+    public void addReadReplicas(Integer type, List<DataSource> replicas) {
+        this.addReadReplicas(type, replicas, ReplicaLoadBalance.ROUND_ROBIN);
+    }
+
+    /**
+     * 为指定的数据源类型注册只读副本。
+     *
+     * @param type        数据源类型，null表示缺省数据源。
+     * @param replicas    只读副本列表。
+     * @param loadBalance 只读副本之间的负载均衡策略。
+     */
+    public void addReadReplicas(Integer type, List<DataSource> replicas, ReplicaLoadBalance loadBalance) {
+        if (replicas == null || replicas.isEmpty()) {
+            return;
+        }
+        ReplicaGroup group = new ReplicaGroup(replicas, loadBalance);
+        if (type == null) {
+            defaultReplicaGroup = group;
+        } else {
+            replicaGroupMap.put(type, group);
+        }
+    }
+
+    /**
+     * 设置写操作之后的粘滞时间窗口。
+     *
+     * @param stickyWindowMillis 粘滞时间窗口的毫秒数。
+     */
+    public void setStickyWindowMillis(long stickyWindowMillis) {
+        this.stickyWindowMillis = stickyWindowMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaGroup group = this.lookupReplicaGroup();
+        return group == null ? super.getConnection() : group.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ReplicaGroup group = this.lookupReplicaGroup();
+        return group == null ? super.getConnection(username, password) : group.getConnection();
+    }
+
+    private ReplicaGroup lookupReplicaGroup() {
+        if (!DataSourceContextHolder.isReadOnly()) {
+            return null;
+        }
+        // 处于写事务中时，同一事务的全部操作必须使用同一主库连接。
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        if (DataSourceContextHolder.isWrittenWithin(stickyWindowMillis)) {
+            return null;
+        }
+        Integer type = DataSourceContextHolder.getDataSourceType();
+        return type == null ? defaultReplicaGroup : replicaGroupMap.get(type);
+    }
+
+    /**
+     * 同一数据源类型的一组只读副本。
+     */
+    private static class ReplicaGroup {
+        private final List<DataSource> replicas;
+        private final List<AtomicInteger> activeCounts;
+        private final ReplicaLoadBalance loadBalance;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        ReplicaGroup(List<DataSource> replicas, ReplicaLoadBalance loadBalance) {
+            this.replicas = new ArrayList<>(replicas);
+            this.loadBalance = loadBalance;
+            this.activeCounts = new ArrayList<>(replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                activeCounts.add(new AtomicInteger());
+            }
+        }
+
+        Connection getConnection() throws SQLException {
+            if (loadBalance == ReplicaLoadBalance.ROUND_ROBIN) {
+                int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size();
+                return replicas.get(index).getConnection();
+            }
+            int index = this.selectLeastConnections();
+            AtomicInteger activeCount = activeCounts.get(index);
+            activeCount.incrementAndGet();
+            Connection connection;
+            try {
+                connection = replicas.get(index).getConnection();
+            } catch (SQLException | RuntimeException e) {
+                activeCount.decrementAndGet();
+                throw e;
+            }
+            return wrapConnection(connection, activeCount);
+        }
+
+        private int selectLeastConnections() {
+            // 从轮询位置开始查找，连接数相同的副本之间仍然可以均匀分布。
+            int start = (counter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size();
+            int selected = start;
+            int minCount = Integer.MAX_VALUE;
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = (start + i) % replicas.size();
+                int count = activeCounts.get(index).get();
+                if (count < minCount) {
+                    minCount = count;
+                    selected = index;
+                }
+            }
+            return selected;
+        }
+
+        private static Connection wrapConnection(Connection connection, AtomicInteger activeCount) {
+            AtomicBoolean closed = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(method.getName())) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            activeCount.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
 }
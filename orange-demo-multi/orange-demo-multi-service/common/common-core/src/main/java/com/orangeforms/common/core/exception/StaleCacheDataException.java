@@ -0,0 +1,20 @@
+package com.orangeforms.common.core.exception;
+
+/**
+ * 缓存中存在无法解码的数据。比如：滚动升级期间，其他版本的服务节点使用了不同的数据结构版本写入缓存。
+ * 调用方应视为缓存未命中，从数据库重新加载数据并以当前格式回写缓存。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class StaleCacheDataException extends RedisCacheAccessException {
+
+    /**
+     * 构造函数。
+     *
+     * @param msg 错误信息。
+     */
+    public StaleCacheDataException(String msg) {
+        super(msg, null);
+    }
+}
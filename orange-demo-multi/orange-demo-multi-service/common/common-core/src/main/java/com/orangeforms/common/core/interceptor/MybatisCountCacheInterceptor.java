@@ -0,0 +1,279 @@
+package com.orangeforms.common.core.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orangeforms.common.core.config.DataSourceContextHolder;
+import com.orangeforms.common.core.object.GlobalThreadLocal;
+import com.orangeforms.common.core.object.TokenData;
+import com.orangeforms.common.core.util.ContextUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Mybatis拦截器。用于缓存PageHelper分页查询时自动生成的COUNT查询结果。
+ * 前端翻页时，同一过滤条件的COUNT查询会被反复执行，而对于大数据表，COUNT查询的代价往往高于分页数据查询本身。
+ * 缓存键由COUNT语句Id、规范化后的SQL、参数值、数据源、租户以及数据权限签名共同构成，
+ * 因此不同租户和不同数据权限的用户之间不会共享缓存结果。
+ * 当通过Mapper执行任何写操作时(包括BaseService中的增删改)，都会递增该Mapper命名空间的版本号，使其缓存的COUNT结果立即失效。
+ * 如果服务依赖了common-redis模块，失效通知还会在事务提交后通过Redis主题发送给其他服务实例，否则仅失效本地缓存，
+ * 因此该缓存缺省是关闭的，多实例部署时需要确保失效通知可用后再开启。
+ * NOTE: 对于多表关联的COUNT查询，其他表的数据变化不会导致缓存失效，只能依赖于较短的过期时间，因此总数量可能存在秒级的延迟。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+@Component
+public class MybatisCountCacheInterceptor implements Interceptor {
+
+    /**
+     * PageHelper自动生成的COUNT查询语句Id的后缀。
+     */
+    private static final String COUNT_SUFFIX = "_COUNT";
+
+    /**
+     * 是否开启COUNT查询结果缓存。
+     */
+    @Value("${countcache.enabled:false}")
+    private Boolean enabled;
+    /**
+     * 缓存数据的过期秒数。
+     */
+    @Value("${countcache.expiredSeconds:10}")
+    private Integer expiredSeconds;
+    /**
+     * 缓存的最大条目数。
+     */
+    @Value("${countcache.maximumSize:10000}")
+    private Integer maximumSize;
+
+    private Cache<String, Long> countCache;
+    /**
+     * 每个Mapper命名空间的数据版本号，写操作会递增该值，缓存键中包含版本号，因此旧版本的缓存数据将不会再被命中。
+     */
+    private final Map<String, AtomicLong> namespaceVersionMap = new ConcurrentHashMap<>();
+    /**
+     * 向其他服务实例发送失效通知的对象，参数为Mapper命名空间。没有设置时仅失效本地缓存。
+     */
+    private volatile Consumer<String> invalidationPublisher;
+
+    @PostConstruct
+    public void init() {
+        countCache = Caffeine.newBuilder()
+                .expireAfterWrite(expiredSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!enabled) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        String namespace = StringUtils.substringBeforeLast(ms.getId(), ".");
+        if ("update".equals(invocation.getMethod().getName())) {
+            // 无论写操作是否成功，都先行失效，以免并发的COUNT查询将写操作之前的结果写入缓存。
+            this.invalidate(namespace);
+            try {
+                return invocation.proceed();
+            } finally {
+                this.invalidate(namespace);
+                this.publishInvalidation(namespace);
+            }
+        }
+        if (!ms.getId().endsWith(COUNT_SUFFIX)) {
+            return invocation.proceed();
+        }
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+        String cacheKey = this.makeCacheKey(namespace, ms, boundSql, parameter);
+        Long totalCount = countCache.getIfPresent(cacheKey);
+        if (totalCount != null) {
+            List<Long> resultList = new ArrayList<>(1);
+            resultList.add(totalCount);
+            return resultList;
+        }
+        Object result = invocation.proceed();
+        if (result instanceof List && ((List<?>) result).size() == 1) {
+            Object count = ((List<?>) result).get(0);
+            if (count instanceof Number) {
+                countCache.put(cacheKey, ((Number) count).longValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 使指定Mapper的COUNT缓存数据失效。对于绕过Mapper直接修改数据的场景，可手动调用该方法。
+     *
+     * @param mapperClass Mapper接口的Class对象。
+     */
+    public void invalidate(Class<?> mapperClass) {
+        this.invalidate(mapperClass.getName());
+        this.publishInvalidation(mapperClass.getName());
+    }
+
+    /**
+     * 仅使当前服务实例中指定命名空间的COUNT缓存数据失效，通常在收到其他实例的失效通知时调用。
+     *
+     * @param namespace Mapper命名空间。
+     */
+    public void invalidate(String namespace) {
+        namespaceVersionMap.computeIfAbsent(namespace, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 是否开启COUNT查询结果缓存。
+     *
+     * @return 开启返回true，否则false。
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置向其他服务实例发送失效通知的对象。
+     *
+     * @param invalidationPublisher 失效通知发送对象，参数为Mapper命名空间。
+     */
+    public void setInvalidationPublisher(Consumer<String> invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    private void publishInvalidation(String namespace) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.doPublishInvalidation(namespace);
+            return;
+        }
+        // 事务提交之后再通知，以免其他实例在提交前重新执行COUNT查询，并将旧的结果再次写入缓存。
+        // 同一事务中涉及的全部命名空间会先收集起来，提交后每个命名空间只通知一次，避免批量写入时发送大量重复的通知。
+        // 这里从当前事务的同步对象中查找，而不是绑定事务资源，因为新开启的内层事务会挂起外层事务的同步对象。
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidation) {
+                ((PendingInvalidation) synchronization).namespaceSet.add(namespace);
+                return;
+            }
+        }
+        PendingInvalidation pendingInvalidation = new PendingInvalidation();
+        pendingInvalidation.namespaceSet.add(namespace);
+        TransactionSynchronizationManager.registerSynchronization(pendingInvalidation);
+    }
+
+    private void doPublishInvalidation(String namespace) {
+        Consumer<String> publisher = invalidationPublisher;
+        if (publisher != null) {
+            publisher.accept(namespace);
+        }
+    }
+
+    private String makeCacheKey(String namespace, MappedStatement ms, BoundSql boundSql, Object parameter) {
+        AtomicLong version = namespaceVersionMap.computeIfAbsent(namespace, k -> new AtomicLong());
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(ms.getId()).append('#').append(version.get())
+                .append('#').append(DataSourceContextHolder.getDataSourceType())
+                .append('#').append(this.makeDataPermSignature())
+                .append('#').append(StringUtils.normalizeSpace(boundSql.getSql()));
+        this.appendParameterValues(sb, ms.getConfiguration(), boundSql, parameter);
+        return sb.toString();
+    }
+
+    private String makeDataPermSignature() {
+        TokenData tokenData = ContextUtil.hasRequestContext() ? TokenData.takeFromRequest() : null;
+        if (tokenData == null) {
+            return "-";
+        }
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(tokenData.getTenantId());
+        if (!GlobalThreadLocal.enabledDataFilter() || Boolean.TRUE.equals(tokenData.getIsAdmin())) {
+            return sb.append(":-").toString();
+        }
+        // 数据权限规则由用户、所在部门和所属角色共同决定，因此签名中需要包含这三部分信息。
+        return sb.append(':').append(tokenData.getUserId())
+                .append(':').append(tokenData.getDeptId())
+                .append(':').append(tokenData.getRoleIds()).toString();
+    }
+
+    private void appendParameterValues(
+            StringBuilder sb, Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings == null) {
+            return;
+        }
+        // 这里参数值的解析方式和Mybatis的DefaultParameterHandler保持一致。
+        MetaObject metaObject = null;
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String propertyName = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(propertyName)) {
+                value = boundSql.getAdditionalParameter(propertyName);
+            } else if (parameter == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                value = metaObject.getValue(propertyName);
+            }
+            sb.append('#').append(value instanceof Date ? ((Date) value).getTime() : value);
+        }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // 这里需要空注解，否则sonar会不happy。
+    }
+
+    /**
+     * 当前事务中等待提交后失效的命名空间集合。
+     */
+    private class PendingInvalidation implements TransactionSynchronization {
+        private final Set<String> namespaceSet = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            for (String namespace : namespaceSet) {
+                // 提交前并发执行的COUNT查询，可能已经将旧的结果写入了本地缓存，因此提交后再次失效本地缓存。
+                MybatisCountCacheInterceptor.this.invalidate(namespace);
+                MybatisCountCacheInterceptor.this.doPublishInvalidation(namespace);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.orangeforms.common.core.interceptor;
+
+import com.orangeforms.common.core.monitor.SqlStatementMetrics;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Mybatis拦截器。用于按照MappedStatement的Id，统计SQL语句的调用次数、返回或影响的行数以及执行耗时的分布。
+ * 执行耗时包含了数据权限和租户过滤改写SQL的时间，改写本身的耗时由数据过滤拦截器单独记录。
+ * 统计结果可以通过/actuator/sqlmetrics端点查看。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+@Component
+public class MybatisSqlMetricsInterceptor implements Interceptor {
+
+    /**
+     * 是否开启SQL执行统计。
+     */
+    @Value("${sqlmetrics.enabled:true}")
+    private Boolean enabled;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!enabled) {
+            return invocation.proceed();
+        }
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            SqlStatementMetrics.getOrCreate(ms.getId())
+                    .recordExecution(System.nanoTime() - start, this.countRows(result), success);
+        }
+    }
+
+    private long countRows(Object result) {
+        if (result instanceof List) {
+            return ((List<?>) result).size();
+        }
+        if (result instanceof Number) {
+            // 批量执行时，影响行数可能返回负数的SUCCESS_NO_INFO。
+            return Math.max(((Number) result).longValue(), 0L);
+        }
+        return 0L;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // 这里需要空注解，否则sonar会不happy。
+    }
+}
@@ -0,0 +1,65 @@
+package com.orangeforms.common.core.interceptor;
+
+import com.orangeforms.common.core.config.DataSourceContextHolder;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Properties;
+
+/**
+ * Mybatis拦截器。在实际执行写操作的位置记录当前请求执行过写操作，以便动态数据源在粘滞时间窗口内，
+ * 将该请求随后的只读操作继续路由到主库，从而保证读到自己写入的数据。
+ * 由于拦截的是Executor的update方法，因此BaseService、Mybatis-Plus的ServiceImpl以及直接调用Mapper的写操作都会被记录，
+ * 和Service方法上是否标记@Transactional无关。处于事务中时，事务结束后还会再次记录，使粘滞时间窗口从提交时开始计算。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+@Component
+public class MybatisWriteMarkInterceptor implements Interceptor {
+
+    /**
+     * 当前事务已经注册过事务结束回调的标记，作为事务资源的键，避免同一事务中的每条写语句都注册一次回调。
+     */
+    private static final String SYNCHRONIZATION_KEY = MybatisWriteMarkInterceptor.class.getName() + ".SYNCHRONIZATION";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } finally {
+            DataSourceContextHolder.markWritten();
+            this.markWrittenAfterCompletion();
+        }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // 这里需要空注解，否则sonar会不happy。
+    }
+
+    private void markWrittenAfterCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(SYNCHRONIZATION_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(SYNCHRONIZATION_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SYNCHRONIZATION_KEY);
+                DataSourceContextHolder.markWritten();
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.orangeforms.common.core.monitor;
+
+import com.orangeforms.common.core.base.service.BaseDictService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为所有BaseDictService的字典缓存自动添加指标统计的Bean后处理器。
+ * 指标通过Micrometer发布，可以在actuator的metrics端点中，通过dictionary.cache前缀查看。
+ * 设置dictionaryCache.metrics.enabled为false，可以关闭该功能。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+public class DictionaryCacheMetricsPostProcessor implements BeanPostProcessor {
+
+    @Value("${dictionaryCache.metrics.enabled:true}")
+    private Boolean enabled;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    public DictionaryCacheMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!Boolean.TRUE.equals(enabled)) {
+            return bean;
+        }
+        Object target = AopUtils.isAopProxy(bean) ? AopProxyUtils.getSingletonTarget(bean) : bean;
+        if (target instanceof BaseDictService) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+            if (meterRegistry != null) {
+                ((BaseDictService) target).enableCacheMetrics(meterRegistry);
+            }
+        }
+        return bean;
+    }
+}
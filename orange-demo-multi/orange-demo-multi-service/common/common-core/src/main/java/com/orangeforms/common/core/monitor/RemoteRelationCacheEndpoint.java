@@ -0,0 +1,69 @@
+package com.orangeforms.common.core.monitor;
+
+import com.orangeforms.common.core.cache.RemoteRelationNearCache;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 远程关联近端缓存的Actuator端点，访问路径为/actuator/relationcache，可由admin-monitor采集。
+ * 远程服务中的从表数据被修改后，也可以通过该端点的DELETE操作立即清空近端缓存。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+@Endpoint(id = "relationcache")
+public class RemoteRelationCacheEndpoint {
+
+    /**
+     * 获取全部近端缓存的命中统计数据。
+     *
+     * @return 统计数据列表。
+     */
+    @ReadOperation
+    public List<Map<String, Object>> caches() {
+        return RemoteRelationNearCache.getCacheMap().values().stream()
+                .map(RemoteRelationNearCache::toMap)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取指定近端缓存的命中统计数据。
+     *
+     * @param name 缓存名称，如"com.orangeforms.upms.model.SysUser.userId"。
+     * @return 统计数据，不存在时返回null，此时端点会返回404。
+     */
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name) {
+        RemoteRelationNearCache nearCache = RemoteRelationNearCache.getCacheMap().get(name);
+        return nearCache == null ? null : nearCache.toMap();
+    }
+
+    /**
+     * 清空全部近端缓存的数据。
+     */
+    @DeleteOperation
+    public void invalidateAll() {
+        RemoteRelationNearCache.getCacheMap().values().forEach(RemoteRelationNearCache::invalidateAll);
+    }
+
+    /**
+     * 清空指定近端缓存的数据。
+     *
+     * @param name 缓存名称，如"com.orangeforms.upms.model.SysUser.userId"。
+     */
+    @DeleteOperation
+    public void invalidate(@Selector String name) {
+        RemoteRelationNearCache nearCache = RemoteRelationNearCache.getCacheMap().get(name);
+        if (nearCache != null) {
+            nearCache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.orangeforms.common.core.monitor;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * SQL执行统计数据的Actuator端点，访问路径为/actuator/sqlmetrics，可由admin-monitor采集。
+ * 返回的语句列表按照累计执行耗时倒序排列。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+@Endpoint(id = "sqlmetrics")
+public class SqlMetricsEndpoint {
+
+    /**
+     * 获取全部语句的统计数据。
+     *
+     * @return 按累计执行耗时倒序排列的统计数据列表。
+     */
+    @ReadOperation
+    public List<Map<String, Object>> metrics() {
+        return SqlStatementMetrics.getMetricsMap().values().stream()
+                .sorted(Comparator.comparingDouble(SqlStatementMetrics::getTotalMillis).reversed())
+                .map(SqlStatementMetrics::toMap)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取指定语句的统计数据。
+     *
+     * @param statementId MappedStatement的Id。
+     * @return 统计数据，不存在时返回null，此时端点会返回404。
+     */
+    @ReadOperation
+    public Map<String, Object> metric(@Selector String statementId) {
+        SqlStatementMetrics metrics = SqlStatementMetrics.getMetricsMap().get(statementId);
+        return metrics == null ? null : metrics.toMap();
+    }
+
+    /**
+     * 清空全部的统计数据。
+     */
+    @DeleteOperation
+    public void reset() {
+        SqlStatementMetrics.resetAll();
+    }
+}
@@ -0,0 +1,128 @@
+package com.orangeforms.common.core.monitor;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个Mybatis MappedStatement的执行统计数据，包括调用次数、失败次数、返回或影响的行数、执行耗时的分布，
+ * 以及数据权限和租户过滤改写SQL所消耗的时间。耗时分布使用HdrHistogram记录，精度为微秒。
+ * 统计数据由MybatisSqlMetricsInterceptor和数据过滤拦截器负责记录，并通过SqlMetricsEndpoint对外暴露。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class SqlStatementMetrics {
+
+    /**
+     * 全部语句的统计数据。key为MappedStatement的Id。
+     */
+    private static final Map<String, SqlStatementMetrics> METRICS_MAP = new ConcurrentHashMap<>();
+    /**
+     * 直方图的有效数字位数，3位可以保证千分之一的精度。
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String statementId;
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder rowCount = new LongAdder();
+    private final LongAdder rewriteCount = new LongAdder();
+    private final Histogram latencyHistogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram rewriteHistogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    /**
+     * 获取指定语句的统计对象，如果不存在则创建。
+     *
+     * @param statementId MappedStatement的Id。
+     * @return 统计对象。
+     */
+    public static SqlStatementMetrics getOrCreate(String statementId) {
+        return METRICS_MAP.computeIfAbsent(statementId, SqlStatementMetrics::new);
+    }
+
+    /**
+     * 获取全部语句的统计对象。
+     *
+     * @return 全部语句的统计对象，key为MappedStatement的Id。
+     */
+    public static Map<String, SqlStatementMetrics> getMetricsMap() {
+        return Collections.unmodifiableMap(METRICS_MAP);
+    }
+
+    /**
+     * 清空全部的统计数据。
+     */
+    public static void resetAll() {
+        METRICS_MAP.clear();
+    }
+
+    private SqlStatementMetrics(String statementId) {
+        this.statementId = statementId;
+    }
+
+    /**
+     * 记录一次语句的执行。
+     *
+     * @param elapsedNanos 执行耗时的纳秒数。
+     * @param rows         返回或影响的行数。
+     * @param success      是否执行成功。
+     */
+    public void recordExecution(long elapsedNanos, long rows, boolean success) {
+        callCount.increment();
+        if (!success) {
+            errorCount.increment();
+        }
+        rowCount.add(rows);
+        latencyHistogram.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    /**
+     * 记录一次数据过滤改写SQL的耗时。
+     *
+     * @param elapsedNanos 改写耗时的纳秒数。
+     */
+    public void recordRewrite(long elapsedNanos) {
+        rewriteCount.increment();
+        rewriteHistogram.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    /**
+     * 获取语句的累计执行耗时毫秒数，通常用于排序。
+     *
+     * @return 累计执行耗时毫秒数。
+     */
+    public double getTotalMillis() {
+        return latencyHistogram.getMean() * latencyHistogram.getTotalCount() / 1000.0;
+    }
+
+    /**
+     * 将统计数据转换为Map对象，时间单位均为毫秒。
+     *
+     * @return 统计数据。
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> resultMap = new LinkedHashMap<>(16);
+        resultMap.put("statementId", statementId);
+        resultMap.put("callCount", callCount.sum());
+        resultMap.put("errorCount", errorCount.sum());
+        resultMap.put("rowCount", rowCount.sum());
+        resultMap.put("totalMillis", this.getTotalMillis());
+        resultMap.put("meanMillis", latencyHistogram.getMean() / 1000.0);
+        resultMap.put("p50Millis", latencyHistogram.getValueAtPercentile(50.0) / 1000.0);
+        resultMap.put("p95Millis", latencyHistogram.getValueAtPercentile(95.0) / 1000.0);
+        resultMap.put("p99Millis", latencyHistogram.getValueAtPercentile(99.0) / 1000.0);
+        resultMap.put("maxMillis", latencyHistogram.getMaxValue() / 1000.0);
+        resultMap.put("rewriteCount", rewriteCount.sum());
+        resultMap.put("rewriteTotalMillis",
+                rewriteHistogram.getMean() * rewriteHistogram.getTotalCount() / 1000.0);
+        resultMap.put("rewriteP99Millis", rewriteHistogram.getValueAtPercentile(99.0) / 1000.0);
+        return resultMap;
+    }
+}
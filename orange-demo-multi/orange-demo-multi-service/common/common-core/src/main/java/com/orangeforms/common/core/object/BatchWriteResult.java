@@ -0,0 +1,33 @@
+package com.orangeforms.common.core.object;
+
+import lombok.Data;
+
+/**
+ * 批量写入操作的执行结果，记录插入、更新、删除和未发生变化而忽略更新的数据数量。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Data
+public class BatchWriteResult {
+
+    /**
+     * 插入的数据数量。
+     */
+    private int insertCount;
+
+    /**
+     * 更新的数据数量。
+     */
+    private int updateCount;
+
+    /**
+     * 删除的数据数量。
+     */
+    private int deleteCount;
+
+    /**
+     * 与数据库中现有数据完全一致，因此被忽略更新的数据数量。
+     */
+    private int unchangedCount;
+}
@@ -1,6 +1,8 @@
 package com.orangeforms.common.core.object;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
@@ -68,4 +70,39 @@ public class MyAggregationParam {
      * 聚合类型，具体数值见AggregationType对象的常量值。如COUNT、SUM、MIN、MAX、AVG等。
      */
     private Integer aggregationType;
+
+    /**
+     * 附加的聚合计算列表，仅用于聚合类别为 ONE_TO_MANY 的场景。
+     * 附加聚合和aggregationField/aggregationType定义的聚合，会基于相同的分组字段和过滤条件，在同一个分组查询中完成计算。
+     * 第N个(从1开始)附加聚合的计算结果，在返回数据中的字段名为makeValueName(N)。
+     */
+    private List<AggregationItem> extraAggregationList;
+
+    /**
+     * 获取聚合值在返回数据中的字段名。
+     *
+     * @param index 聚合计算的序号。0为主聚合计算，N(N > 0)为第N个附加聚合计算。
+     * @return 聚合值在返回数据中的字段名。
+     */
+    public static String makeValueName(int index) {
+        return index == 0 ? VALUE_NAME : VALUE_NAME + index;
+    }
+
+    /**
+     * 附加的聚合计算。
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AggregationItem {
+        /**
+         * 聚合字段。(Java对象字段名称)
+         */
+        private String aggregationField;
+
+        /**
+         * 聚合类型，具体数值见AggregationType对象的常量值。
+         */
+        private Integer aggregationType;
+    }
 }
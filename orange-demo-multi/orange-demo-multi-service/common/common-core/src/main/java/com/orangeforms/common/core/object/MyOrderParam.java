@@ -226,6 +226,55 @@ public class MyOrderParam extends ArrayList<MyOrderParam.OrderInfo> {
         }
     }
 
+    /**
+     * 验证排序参数是否可以用于键集(Seek)分页。键集分页需要依赖(排序字段, 主键)的联合索引进行有序定位，因此要求：
+     * 1. 排序字段必须是主表字段，不能是一对一关联表的字段。
+     * 2. 不能对排序字段进行DATE_FORMAT等函数计算，否则将无法使用索引。
+     * 3. 所有排序字段的排序方向必须一致，否则无法基于同一个索引进行单向扫描。
+     *
+     * @param orderParam 排序参数对象。
+     * @param modelClazz 查询主表对应的主对象的Class。
+     * @return 验证结果对象。
+     */
+    public static CallResult verifyKeysetOrder(MyOrderParam orderParam, Class<?> modelClazz) {
+        if (orderParam == null) {
+            return CallResult.ok();
+        }
+        Boolean asc = null;
+        for (OrderInfo orderInfo : orderParam) {
+            if (StringUtils.isBlank(orderInfo.getFieldName())) {
+                continue;
+            }
+            String fieldName = getKeysetFieldName(orderInfo);
+            if (fieldName.contains(".")) {
+                return CallResult.error("键集分页的排序字段 [" + orderInfo.getFieldName() + "] 必须为主表字段！");
+            }
+            if (MyModelUtil.mapToColumnName(fieldName, modelClazz) == null) {
+                return CallResult.error("排序字段 [" + fieldName
+                        + "] 在实体对象 [" + modelClazz.getSimpleName() + "] 中并不存在！");
+            }
+            if (StringUtils.isNotBlank(orderInfo.getDateAggregateBy())) {
+                return CallResult.error("键集分页的排序字段 [" + fieldName + "] 不支持日期聚合！");
+            }
+            boolean currentAsc = orderInfo.getAsc() == null || orderInfo.getAsc();
+            if (asc != null && asc != currentAsc) {
+                return CallResult.error("键集分页的所有排序字段，排序方向必须一致！");
+            }
+            asc = currentAsc;
+        }
+        return CallResult.ok();
+    }
+
+    /**
+     * 获取键集分页中，排序信息对象对应的实体对象字段名。字典字段将被转换为其关联的Id字段。
+     *
+     * @param orderInfo 排序信息对象。
+     * @return 实体对象字段名。
+     */
+    public static String getKeysetFieldName(OrderInfo orderInfo) {
+        return StringUtils.substringBefore(orderInfo.getFieldName(), DICT_MAP);
+    }
+
     /**
      * 排序信息对象。
      */
@@ -1,6 +1,5 @@
 package com.orangeforms.common.core.object;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -15,7 +14,6 @@ import java.util.List;
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class MyPageData<T> {
     /**
      * 数据列表。
@@ -25,6 +23,26 @@ public class MyPageData<T> {
      * 数据总数量。
      */
     private Long totalCount;
+    /**
+     * 键集分页时，用于获取下一页数据的续页游标。为null时表示没有更多数据。
+     * 键集分页不会计算数据总数量，此时totalCount为null。
+     */
+    private String nextCursor;
+    /**
+     * 分页查询没有计算数据总数量时，是否还存在下一页数据。计算总数量时为null。
+     */
+    private Boolean hasNext;
+
+    /**
+     * 构造函数。
+     *
+     * @param dataList   数据列表。
+     * @param totalCount 数据总数量。
+     */
+    public MyPageData(List<T> dataList, Long totalCount) {
+        this.dataList = dataList;
+        this.totalCount = totalCount;
+    }
 
     /**
      * 为了保持前端的数据格式兼容性，在没有数据的时候，需要返回空分页对象。
@@ -1,6 +1,7 @@
 package com.orangeforms.common.core.object;
 
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * Controller参数中的分页请求对象
@@ -25,6 +26,26 @@ public class MyPageParam {
      */
     private Integer pageSize;
 
+    /**
+     * 是否计算数据总数量。为false时将不再执行COUNT查询，而是多获取一条数据用于判断是否存在下一页，
+     * 应答数据中的totalCount为null，hasNext为是否存在下一页。
+     */
+    @Setter
+    private Boolean count = true;
+
+    /**
+     * 是否使用键集(Seek)分页。为true时，将基于上一页最后一条记录的排序键值和主键值定位下一页数据，
+     * 不再使用LIMIT offset, size，也不再执行COUNT查询，此时pageNum参数将被忽略。适用于大数据表的深度翻页。
+     */
+    @Setter
+    private Boolean keyset = false;
+
+    /**
+     * 键集分页的续页游标，即上一页应答数据中的nextCursor。为空时返回第一页数据。
+     */
+    @Setter
+    private String cursor;
+
     /**
      * 设置当前分页页号。
      *
@@ -54,4 +75,22 @@ public class MyPageParam {
         }
         this.pageSize = pageSize;
     }
+
+    /**
+     * 是否需要计算数据总数量。
+     *
+     * @return 需要计算返回true，否则false。
+     */
+    public boolean isCountMode() {
+        return !Boolean.FALSE.equals(count);
+    }
+
+    /**
+     * 是否为键集分页模式。
+     *
+     * @return 键集分页模式返回true，否则false。
+     */
+    public boolean isKeysetMode() {
+        return Boolean.TRUE.equals(keyset);
+    }
 }
@@ -76,6 +76,13 @@ public class MyRelationParam {
      */
     private boolean buildRemoteAggregation;
 
+    /**
+     * 是否并行组装主表数据列表的关联数据。
+     * 为true时，相互之间没有依赖的关联组装阶段(如一对多、聚合计算和远程调用等)会在有界线程池中并行执行，
+     * 存在依赖的阶段(如依赖一对一结果的字典关联)仍保持先后顺序。仅作用于buildRelationForDataList方法。
+     */
+    private boolean buildParallel;
+
     /**
      * 便捷方法，返回仅做字典关联的参数对象。
      *
@@ -1,8 +1,8 @@
 package com.orangeforms.common.core.util;
 
 import cn.hutool.core.io.IoUtil;
-import cn.hutool.poi.excel.ExcelUtil;
-import cn.hutool.poi.excel.ExcelWriter;
+import cn.hutool.poi.excel.StyleSet;
+import cn.hutool.poi.excel.cell.CellUtil;
 import cn.jimmyshi.beanquery.BeanQuery;
 import com.orangeforms.common.core.constant.ApplicationConstant;
 import com.orangeforms.common.core.exception.MyRuntimeException;
@@ -11,16 +11,21 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 导出工具类，目前支持xlsx和csv两种类型。
+ * 所有导出均以流式方式写出，xlsx基于SXSSF，内存中仅保留有限的行数，其余行会被刷新到临时文件中。
  *
  * @author Jerry
  * @date 2020-08-08
@@ -28,6 +33,15 @@ import java.util.*;
 @Slf4j
 public class ExportUtil {
 
+    /**
+     * 流式导出时，每个批次读取的缺省数据行数。
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+    /**
+     * SXSSF在内存中保留的最大行数，超过后会刷新到临时文件。
+     */
+    private static final int ROW_ACCESS_WINDOW_SIZE = 200;
+
     /**
      * 数据导出。目前仅支持xlsx和csv。
      *
@@ -42,48 +56,193 @@ public class ExportUtil {
         if (CollectionUtils.isEmpty(dataList)) {
             return;
         }
-        StringBuilder sb = new StringBuilder(128);
-        for (Map.Entry<String, String> e : selectFieldMap.entrySet()) {
-            sb.append(e.getKey()).append(" as ").append(e.getValue()).append(", ");
+        doExport(dataList, DEFAULT_WINDOW_SIZE, null, selectFieldMap, filename);
+    }
+
+    /**
+     * 流式数据导出。目前仅支持xlsx和csv。
+     * 数据会按照windowSize分批读取，每个批次在写出前可由windowProcessor进行关联数据组装，写出后即可被回收，
+     * 因此内存占用仅和批次大小相关，与导出的总行数无关。通常dataIterable为MyBatis的Cursor对象。
+     *
+     * @param dataIterable    导出数据的迭代对象。
+     * @param windowSize      每个批次的数据行数。
+     * @param windowProcessor 每个批次写出前的处理函数，如组装关联数据，可以为null。
+     * @param selectFieldMap  导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename        导出文件名。
+     * @param <T>             数据对象类型。
+     * @throws IOException 文件操作失败。
+     */
+    public static <T> void doExport(
+            Iterable<T> dataIterable,
+            int windowSize,
+            Consumer<List<T>> windowProcessor,
+            Map<String, String> selectFieldMap,
+            String filename) throws IOException {
+        try (StreamExporter<T> exporter = createStreamExporter(selectFieldMap, filename)) {
+            List<T> window = new ArrayList<>(windowSize);
+            for (T data : dataIterable) {
+                window.add(data);
+                if (window.size() >= windowSize) {
+                    writeWindow(exporter, window, windowProcessor);
+                    window = new ArrayList<>(windowSize);
+                }
+            }
+            if (!window.isEmpty()) {
+                writeWindow(exporter, window, windowProcessor);
+            }
+        }
+    }
+
+    /**
+     * 创建流式导出对象，并写出标题行。调用者可多次调用其write方法写出数据，最后必须调用close方法结束导出。
+     *
+     * @param selectFieldMap 导出的数据字段，key为对象字段名称，value为中文标题名称。
+     * @param filename       导出文件名。
+     * @param <T>            数据对象类型。
+     * @return 流式导出对象。
+     * @throws IOException 文件操作失败。
+     */
+    public static <T> StreamExporter<T> createStreamExporter(
+            Map<String, String> selectFieldMap, String filename) throws IOException {
+        String extension = FilenameUtils.getExtension(filename);
+        if (!ApplicationConstant.XLSX_EXT.equals(extension) && !ApplicationConstant.CSV_EXT.equals(extension)) {
+            throw new MyRuntimeException("不支持的导出文件类型！");
         }
-        // 去掉末尾的逗号
-        String selectFieldString = sb.substring(0, sb.length() - 2);
-        // 写出数据到xcel格式的输出流
-        List<Map<String, Object>> resultList = BeanQuery.select(selectFieldString).executeFrom(dataList);
         // 构建HTTP输出流参数
         HttpServletResponse response = ContextUtil.getHttpResponse();
         response.setHeader("content-type", "application/octet-stream");
         response.setContentType("application/octet-stream");
         response.setHeader("Content-Disposition", "attachment;filename=" + filename);
-        if (ApplicationConstant.XLSX_EXT.equals(FilenameUtils.getExtension(filename))) {
-            ServletOutputStream out = response.getOutputStream();
-            ExcelWriter writer = ExcelUtil.getWriter(true);
-            writer.setRowHeight(-1, 30);
-            writer.setColumnWidth(-1, 30);
-            writer.setColumnWidth(1, 20);
-            writer.write(resultList);
-            writer.flush(out);
-            writer.close();
-            IoUtil.close(out);
-        } else if (ApplicationConstant.CSV_EXT.equals(FilenameUtils.getExtension(filename))) {
+        if (ApplicationConstant.XLSX_EXT.equals(extension)) {
+            return new XlsxStreamExporter<>(selectFieldMap, response.getOutputStream());
+        }
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return new CsvStreamExporter<>(selectFieldMap, response);
+    }
+
+    private static <T> void writeWindow(
+            StreamExporter<T> exporter, List<T> window, Consumer<List<T>> windowProcessor) throws IOException {
+        if (windowProcessor != null) {
+            windowProcessor.accept(window);
+        }
+        exporter.write(window);
+    }
+
+    /**
+     * 流式导出对象。
+     *
+     * @param <T> 数据对象类型。
+     */
+    public abstract static class StreamExporter<T> implements Closeable {
+        private final String selectFieldString;
+
+        protected StreamExporter(Map<String, String> selectFieldMap) {
+            StringBuilder sb = new StringBuilder(128);
+            for (Map.Entry<String, String> e : selectFieldMap.entrySet()) {
+                sb.append(e.getKey()).append(" as ").append(e.getValue()).append(", ");
+            }
+            // 去掉末尾的逗号
+            this.selectFieldString = sb.substring(0, sb.length() - 2);
+        }
+
+        /**
+         * 写出一个批次的数据。
+         *
+         * @param dataList 数据列表。
+         * @throws IOException 文件操作失败。
+         */
+        public void write(List<T> dataList) throws IOException {
+            if (CollectionUtils.isEmpty(dataList)) {
+                return;
+            }
+            this.writeRows(BeanQuery.select(selectFieldString).executeFrom(dataList));
+        }
+
+        /**
+         * 写出转换后的数据行。
+         *
+         * @param rowList 数据行列表，每行中字段的顺序和标题顺序一致。
+         * @throws IOException 文件操作失败。
+         */
+        protected abstract void writeRows(List<Map<String, Object>> rowList) throws IOException;
+    }
+
+    private static class XlsxStreamExporter<T> extends StreamExporter<T> {
+        private final SXSSFWorkbook workbook;
+        private final SXSSFSheet sheet;
+        private final StyleSet styleSet;
+        private final ServletOutputStream out;
+        private int rowIndex = 0;
+
+        XlsxStreamExporter(Map<String, String> selectFieldMap, ServletOutputStream out) {
+            super(selectFieldMap);
+            this.out = out;
+            this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+            this.workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet();
+            this.sheet.setDefaultRowHeightInPoints(30);
+            this.sheet.setDefaultColumnWidth(30);
+            this.sheet.setColumnWidth(1, 20 * 256);
+            this.styleSet = new StyleSet(workbook);
+            this.writeRow(selectFieldMap.values(), true);
+        }
+
+        @Override
+        protected void writeRows(List<Map<String, Object>> rowList) {
+            for (Map<String, Object> o : rowList) {
+                this.writeRow(o.values(), false);
+            }
+        }
+
+        private void writeRow(Collection<?> values, boolean isHeader) {
+            Row row = sheet.createRow(rowIndex++);
+            int columnIndex = 0;
+            for (Object value : values) {
+                CellUtil.setCellValue(row.createCell(columnIndex++), value, styleSet, isHeader);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                // 删除SXSSF生成的临时文件。
+                workbook.dispose();
+                IoUtil.close(workbook);
+                IoUtil.close(out);
+            }
+        }
+    }
+
+    private static class CsvStreamExporter<T> extends StreamExporter<T> {
+        private final CSVPrinter printer;
+
+        CsvStreamExporter(Map<String, String> selectFieldMap, HttpServletResponse response) throws IOException {
+            super(selectFieldMap);
             Collection<String> headerList = selectFieldMap.values();
             String[] headerArray = new String[headerList.size()];
             headerList.toArray(headerArray);
             CSVFormat format = CSVFormat.DEFAULT.withHeader(headerArray);
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            try (Writer out = response.getWriter(); CSVPrinter printer = new CSVPrinter(out, format)) {
-                for (Map<String, Object> o : resultList) {
-                    for (Map.Entry<String, Object> entry : o.entrySet()) {
-                        printer.print(entry.getValue());
-                    }
-                    printer.println();
+            this.printer = new CSVPrinter(response.getWriter(), format);
+        }
+
+        @Override
+        protected void writeRows(List<Map<String, Object>> rowList) throws IOException {
+            for (Map<String, Object> o : rowList) {
+                for (Map.Entry<String, Object> entry : o.entrySet()) {
+                    printer.print(entry.getValue());
                 }
-                printer.flush();
-            } catch (Exception e) {
-                log.error("Failed to call ExportUtil.doExport", e);
+                printer.println();
             }
-        } else {
-            throw new MyRuntimeException("不支持的导出文件类型！");
+            // 每个批次写出后立即刷新，避免数据在Writer的缓冲区中积压。
+            printer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            printer.close(true);
         }
     }
 
@@ -0,0 +1,207 @@
+package com.orangeforms.common.core.util;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ReflectUtil;
+import com.orangeforms.common.core.exception.MyRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 实体对象字段的高性能访问器。
+ * 在创建时一次性生成字段的读写函数，之后每次读写均无需再进行反射查找。优先基于LambdaMetafactory，
+ * 为字段的public getter/setter方法生成Function和BiConsumer对象，其调用可以被JIT内联。如果不存在
+ * 标准的getter/setter方法，则退化为基于MethodHandle的字段直接读写。
+ * 所有创建过的访问器都会被缓存，因此可以在任何地方直接调用of方法获取。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public final class FieldAccessor {
+
+    private static final Map<Field, FieldAccessor> CACHED_ACCESSOR_MAP = new ConcurrentHashMap<>();
+
+    private final Field field;
+    private final Class<?> boxedFieldType;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * 获取字段反射对象的访问器。
+     *
+     * @param field 字段反射对象。
+     * @return 字段访问器。如果参数为null，则返回null。
+     */
+    public static FieldAccessor of(Field field) {
+        if (field == null) {
+            return null;
+        }
+        return CACHED_ACCESSOR_MAP.computeIfAbsent(field, FieldAccessor::new);
+    }
+
+    /**
+     * 获取指定类中指定字段的访问器。
+     *
+     * @param clazz     字段所在的类。
+     * @param fieldName 字段名称。
+     * @return 字段访问器。如果字段不存在，则返回null。
+     */
+    public static FieldAccessor of(Class<?> clazz, String fieldName) {
+        return of(ReflectUtil.getField(clazz, fieldName));
+    }
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        this.boxedFieldType = MethodType.methodType(field.getType()).wrap().returnType();
+        this.getter = createGetter(field);
+        this.setter = createSetter(field);
+    }
+
+    /**
+     * 获取对象的字段值。
+     *
+     * @param bean 实体对象。
+     * @return 字段值。
+     */
+    public Object get(Object bean) {
+        return getter.apply(bean);
+    }
+
+    /**
+     * 设置对象的字段值。和ReflectUtil.setFieldValue的行为一致，如果参数值和字段的类型不一致，会先进行类型转换。
+     *
+     * @param bean  实体对象。
+     * @param value 字段值。
+     */
+    public void set(Object bean, Object value) {
+        if (value != null && !boxedFieldType.isInstance(value)) {
+            Object targetValue = Convert.convert(field.getType(), value);
+            if (targetValue != null) {
+                value = targetValue;
+            }
+        }
+        setter.accept(bean, value);
+    }
+
+    /**
+     * 获取当前访问器对应的字段反射对象。
+     *
+     * @return 字段反射对象。
+     */
+    public Field getField() {
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Field field) {
+        Method getterMethod = findAccessorMethod(field, true);
+        if (getterMethod != null) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(getterMethod);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.warn("Failed to create lambda getter for field [" + field + "], fallback to MethodHandle.", e);
+            }
+        }
+        MethodHandle handle = unreflectField(field, true);
+        return bean -> {
+            try {
+                return (Object) handle.invokeExact(bean);
+            } catch (Throwable e) {
+                throw new MyRuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Field field) {
+        Method setterMethod = findAccessorMethod(field, false);
+        if (setterMethod != null) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(setterMethod);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        handle.type().wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.warn("Failed to create lambda setter for field [" + field + "], fallback to MethodHandle.", e);
+            }
+        }
+        MethodHandle handle = unreflectField(field, false);
+        return (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new MyRuntimeException(e);
+            }
+        };
+    }
+
+    private static Method findAccessorMethod(Field field, boolean getter) {
+        Class<?> declaringClass = field.getDeclaringClass();
+        // 生成的Lambda类位于当前类的ClassLoader中，如果实体类对其不可见(如devtools的重启ClassLoader)，则不能使用。
+        if (Modifier.isStatic(field.getModifiers())
+                || !Modifier.isPublic(declaringClass.getModifiers())
+                || !isVisible(declaringClass)) {
+            return null;
+        }
+        String capitalizedName = StringUtils.capitalize(field.getName());
+        Method method;
+        if (getter) {
+            method = ReflectUtil.getMethodByName(declaringClass, "get" + capitalizedName);
+            if (method == null && field.getType() == boolean.class) {
+                method = ReflectUtil.getMethodByName(declaringClass, "is" + capitalizedName);
+            }
+            if (method == null || method.getParameterCount() != 0 || !method.getReturnType().equals(field.getType())) {
+                return null;
+            }
+        } else {
+            method = ReflectUtil.getMethod(declaringClass, "set" + capitalizedName, field.getType());
+            if (method == null || method.getReturnType() != void.class) {
+                return null;
+            }
+        }
+        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) ? method : null;
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, FieldAccessor.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle unreflectField(Field field, boolean getter) {
+        try {
+            ReflectUtil.setAccessible(field);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (getter) {
+                return lookup.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            }
+            return lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new MyRuntimeException(e);
+        }
+    }
+}
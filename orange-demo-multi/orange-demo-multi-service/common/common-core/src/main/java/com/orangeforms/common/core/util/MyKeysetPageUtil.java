@@ -0,0 +1,241 @@
+package com.orangeforms.common.core.util;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.orangeforms.common.core.exception.InvalidDataFieldException;
+import com.orangeforms.common.core.object.MyOrderParam;
+import com.orangeforms.common.core.object.MyPageParam;
+import com.orangeforms.common.core.object.Tuple2;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * 键集(Seek)分页的工具类。
+ * 和LIMIT offset, size的分页方式不同，键集分页基于上一页最后一条记录的排序键值和主键值，生成形如
+ * (sort_col > ?) OR (sort_col = ? AND id > ?) 的过滤条件，并始终从索引的有序位置直接定位，因此深度翻页时性能稳定，
+ * 同时也无需再执行COUNT查询。续页游标对前端是不透明的，前端只需将上一页应答中的nextCursor原样回传即可。
+ * NOTE: 排序字段必须为主表字段，且应存在与(排序字段, 主键)顺序一致的索引，排序字段的值也不能为NULL。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class MyKeysetPageUtil {
+
+    /**
+     * 根据排序参数和分页参数，构建键集分页的查询对象。
+     * 主键字段会自动作为最后一个排序字段，以保证排序结果的唯一性。
+     *
+     * @param orderParam  排序参数，必须先通过MyOrderParam.verifyKeysetOrder的验证。
+     * @param pageParam   分页参数。
+     * @param modelClazz  查询主表对应的主对象的Class。
+     * @param idFieldName 主键字段名。
+     * @return 键集分页的查询对象。
+     * @throws IllegalArgumentException 续页游标的数据格式非法时抛出该异常。
+     */
+    public static KeysetQuery prepare(
+            MyOrderParam orderParam, MyPageParam pageParam, Class<?> modelClazz, String idFieldName) {
+        boolean asc = true;
+        List<String> keyFieldList = new LinkedList<>();
+        if (CollectionUtils.isNotEmpty(orderParam)) {
+            for (MyOrderParam.OrderInfo orderInfo : orderParam) {
+                if (StringUtils.isBlank(orderInfo.getFieldName())) {
+                    continue;
+                }
+                keyFieldList.add(MyOrderParam.getKeysetFieldName(orderInfo));
+                asc = orderInfo.getAsc() == null || orderInfo.getAsc();
+            }
+        }
+        if (!keyFieldList.contains(idFieldName)) {
+            keyFieldList.add(idFieldName);
+        }
+        String tableName = MyModelUtil.mapToTableName(modelClazz);
+        List<KeyColumn> keyColumnList = new ArrayList<>(keyFieldList.size());
+        for (String fieldName : keyFieldList) {
+            Tuple2<String, Integer> columnInfo = MyModelUtil.mapToColumnInfo(fieldName, modelClazz);
+            if (columnInfo == null) {
+                throw new InvalidDataFieldException(modelClazz.getSimpleName(), fieldName);
+            }
+            keyColumnList.add(new KeyColumn(FieldAccessor.of(modelClazz, fieldName),
+                    tableName + "." + columnInfo.getFirst(), columnInfo.getSecond()));
+        }
+        KeysetQuery query = new KeysetQuery();
+        query.keyFieldNames = keyFieldList;
+        query.keyColumnList = keyColumnList;
+        query.pageSize = pageParam.getPageSize() == null ? MyPageParam.DEFAULT_PAGE_SIZE : pageParam.getPageSize();
+        StringBuilder orderBy = new StringBuilder(64);
+        for (KeyColumn keyColumn : keyColumnList) {
+            if (orderBy.length() > 0) {
+                orderBy.append(", ");
+            }
+            orderBy.append(keyColumn.columnName);
+            if (!asc) {
+                orderBy.append(" DESC");
+            }
+        }
+        query.orderBy = orderBy.toString();
+        if (StringUtils.isNotBlank(pageParam.getCursor())) {
+            query.seekClause = makeSeekClause(keyColumnList, decodeCursor(pageParam.getCursor(), keyColumnList.size()), asc);
+        }
+        return query;
+    }
+
+    /**
+     * 对查询结果进行截取，并生成下一页的续页游标。
+     * 查询时会多获取一条记录，以便判断是否还存在下一页数据，该条记录不会返回给前端。
+     *
+     * @param resultList 查询结果列表，数量最多为KeysetQuery.getLimit()。
+     * @param query      键集分页的查询对象。
+     * @param <T>        主对象类型。
+     * @return 下一页的续页游标，如果已经没有更多数据，返回null。
+     */
+    public static <T> String makeNextCursor(List<T> resultList, KeysetQuery query) {
+        if (resultList.size() <= query.pageSize) {
+            return null;
+        }
+        while (resultList.size() > query.pageSize) {
+            resultList.remove(resultList.size() - 1);
+        }
+        T lastData = resultList.get(resultList.size() - 1);
+        JSONArray keyValues = new JSONArray(query.keyColumnList.size());
+        for (KeyColumn keyColumn : query.keyColumnList) {
+            Object value = keyColumn.accessor.get(lastData);
+            keyValues.add(value instanceof Date ? ((Date) value).getTime() : value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(keyValues.toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JSONArray decodeCursor(String cursor, int keySize) {
+        JSONArray keyValues;
+        try {
+            keyValues = JSON.parseArray(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid keyset cursor [" + cursor + "].", e);
+        }
+        if (keyValues == null || keyValues.size() != keySize) {
+            throw new IllegalArgumentException("Keyset cursor [" + cursor + "] doesn't match the order fields.");
+        }
+        return keyValues;
+    }
+
+    private static String makeSeekClause(List<KeyColumn> keyColumnList, JSONArray keyValues, boolean asc) {
+        // 这里没有使用行构造器 (a, b) > (?, ?)，而是展开为 (a > ?) OR (a = ? AND b > ?)，以便兼容更多的数据库和版本。
+        String operator = asc ? " > " : " < ";
+        StringBuilder seekClause = new StringBuilder(128);
+        seekClause.append("(");
+        for (int i = 0; i < keyColumnList.size(); i++) {
+            if (i > 0) {
+                seekClause.append(" OR ");
+            }
+            seekClause.append("(");
+            for (int j = 0; j < i; j++) {
+                KeyColumn keyColumn = keyColumnList.get(j);
+                seekClause.append(keyColumn.columnName).append(" = ")
+                        .append(toSqlLiteral(keyColumn, keyValues.get(j))).append(" AND ");
+            }
+            KeyColumn keyColumn = keyColumnList.get(i);
+            seekClause.append(keyColumn.columnName).append(operator)
+                    .append(toSqlLiteral(keyColumn, keyValues.get(i))).append(")");
+        }
+        seekClause.append(")");
+        return seekClause.toString();
+    }
+
+    private static String toSqlLiteral(KeyColumn keyColumn, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value of keyset column [" + keyColumn.columnName + "] can't be NULL.");
+        }
+        // 游标数据来自前端，因此需要严格按照字段类型进行转换，以避免SQL注入。
+        if (MyModelUtil.DATE_FIELD_TYPE.equals(keyColumn.columnType)) {
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("Invalid date value [" + value + "] in keyset cursor.");
+            }
+            SimpleDateFormat formatter = new SimpleDateFormat(MyDateUtil.COMMON_DATETIME_FORMAT);
+            return "'" + formatter.format(new Date(((Number) value).longValue())) + "'";
+        }
+        if (MyModelUtil.STRING_FIELD_TYPE.equals(keyColumn.columnType)) {
+            return "'" + StringUtils.replaceEach(value.toString(),
+                    new String[]{"\\", "'"}, new String[]{"\\\\", "''"}) + "'";
+        }
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+        try {
+            return new BigDecimal(value.toString()).toPlainString();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid numeric value [" + value + "] in keyset cursor.", e);
+        }
+    }
+
+    /**
+     * 键集分页的查询对象。
+     */
+    @Getter
+    public static class KeysetQuery {
+        /**
+         * 排序从句，包含主键字段。
+         */
+        private String orderBy;
+        /**
+         * 定位到续页起始位置的过滤从句。获取第一页时为null。
+         */
+        private String seekClause;
+        /**
+         * 每页的数据数量。
+         */
+        private int pageSize;
+        /**
+         * 排序键字段列表，包含主键字段。
+         */
+        private List<String> keyFieldNames;
+        @Getter(AccessLevel.NONE)
+        private List<KeyColumn> keyColumnList;
+
+        /**
+         * 查询时实际获取的数据数量，比pageSize多一条，用于判断是否存在下一页。
+         *
+         * @return 查询时实际获取的数据数量。
+         */
+        public int getLimit() {
+            return pageSize + 1;
+        }
+
+        /**
+         * 将定位从句合并到参数过滤从句中。
+         *
+         * @param whereClause 原有的过滤从句，可以为空。
+         * @return 合并后的过滤从句。
+         */
+        public String mergeWhereClause(String whereClause) {
+            if (seekClause == null) {
+                return whereClause;
+            }
+            return StringUtils.isBlank(whereClause) ? seekClause : "(" + whereClause + ") AND " + seekClause;
+        }
+    }
+
+    private static class KeyColumn {
+        private final FieldAccessor accessor;
+        private final String columnName;
+        private final Integer columnType;
+
+        KeyColumn(FieldAccessor accessor, String columnName, Integer columnType) {
+            this.accessor = accessor;
+            this.columnName = columnName;
+            this.columnType = columnType;
+        }
+    }
+
+    /**
+     * 私有构造函数，明确标识该常量类的作用。
+     */
+    private MyKeysetPageUtil() {
+    }
+}
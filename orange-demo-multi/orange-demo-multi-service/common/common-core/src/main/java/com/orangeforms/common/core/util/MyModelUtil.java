@@ -357,14 +357,15 @@ public class MyModelUtil {
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         Map<String, Object> m = new HashMap<>(2);
-        m.put("id", ReflectUtil.getFieldValue(thatModel, slaveIdField));
-        m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-        ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+        m.put("id", slaveIdAccessor.get(thatModel));
+        m.put("name", slaveNameAccessor.get(thatModel));
+        thisTargetAccessor.set(thisModel, m);
     }
 
     /**
@@ -386,25 +387,26 @@ public class MyModelUtil {
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         Map<Object, R> thatMap = new HashMap<>(20);
         thatModelList.forEach(thatModel -> {
-            Object id = ReflectUtil.getFieldValue(thatModel, slaveIdField);
+            Object id = slaveIdAccessor.get(thatModel);
             thatMap.put(id, thatModel);
         });
         thisModelList.forEach(thisModel -> {
             if (thisModel != null) {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
                     Map<String, Object> m = new HashMap<>(4);
                     m.put("id", id);
-                    m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+                    m.put("name", slaveNameAccessor.get(thatModel));
+                    thisTargetAccessor.set(thisModel, m);
                 }
             }
         });
@@ -430,19 +432,20 @@ public class MyModelUtil {
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         RelationDict r = thisTargetField.getAnnotation(RelationDict.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveNameField = ReflectUtil.getField(thatClass, r.slaveNameField());
+        FieldAccessor slaveNameAccessor = FieldAccessor.of(thatClass, r.slaveNameField());
         thisModelList.forEach(thisModel -> {
             if (thisModel != null) {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMadelMap.get(id);
                 if (thatModel != null) {
                     Map<String, Object> m = new HashMap<>(4);
                     m.put("id", id);
-                    m.put("name", ReflectUtil.getFieldValue(thatModel, slaveNameField));
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, m);
+                    m.put("name", slaveNameAccessor.get(thatModel));
+                    thisTargetAccessor.set(thisModel, m);
                 }
             }
         });
@@ -467,30 +470,31 @@ public class MyModelUtil {
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         RelationOneToOne r = thisTargetField.getAnnotation(RelationOneToOne.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
         Map<Object, R> thatMap = new HashMap<>(20);
         thatModelList.forEach(thatModel -> {
-            Object id = ReflectUtil.getFieldValue(thatModel, slaveIdField);
+            Object id = slaveIdAccessor.get(thatModel);
             thatMap.put(id, thatModel);
         });
         // 判断放在循环的外部，提升一点儿效率。
         if (thisTargetField.getType().equals(Map.class)) {
             thisModelList.forEach(thisModel -> {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, BeanUtil.beanToMap(thatModel));
+                    thisTargetAccessor.set(thisModel, BeanUtil.beanToMap(thatModel));
                 }
             });
         } else {
             thisModelList.forEach(thisModel -> {
-                Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+                Object id = masterIdAccessor.get(thisModel);
                 R thatModel = thatMap.get(id);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, thatModel);
+                    thisTargetAccessor.set(thisModel, thatModel);
                 }
             });
         }
@@ -548,6 +552,7 @@ public class MyModelUtil {
             return;
         }
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         boolean isMap = thisTargetField.getType().equals(Map.class);
         if (orderByThatList) {
             List<T> newThisModelList = new LinkedList<>();
@@ -557,7 +562,7 @@ public class MyModelUtil {
                 Object thatId = thatIdGetterFunc.apply(thatModel);
                 T thisModel = thisModelMap.get(thatId);
                 if (thisModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, normalize(isMap, thatModel));
+                    thisTargetAccessor.set(thisModel, normalize(isMap, thatModel));
                     newThisModelList.add(thisModel);
                 }
             });
@@ -570,7 +575,7 @@ public class MyModelUtil {
                 Object thisId = thisIdGetterFunc.apply(thisModel);
                 R thatModel = thatMadelMap.get(thisId);
                 if (thatModel != null) {
-                    ReflectUtil.setFieldValue(thisModel, thisTargetField, normalize(isMap, thatModel));
+                    thisTargetAccessor.set(thisModel, normalize(isMap, thatModel));
                 }
             });
         }
@@ -594,21 +599,22 @@ public class MyModelUtil {
         }
         // 这里不做任何空值判断，从而让配置错误在调试期间即可抛出
         Field thisTargetField = ReflectUtil.getField(thisClazz, thisRelationField);
+        FieldAccessor thisTargetAccessor = FieldAccessor.of(thisTargetField);
         RelationOneToMany r = thisTargetField.getAnnotation(RelationOneToMany.class);
-        Field masterIdField = ReflectUtil.getField(thisClazz, r.masterIdField());
+        FieldAccessor masterIdAccessor = FieldAccessor.of(thisClazz, r.masterIdField());
         Class<?> thatClass = r.slaveModelClass();
-        Field slaveIdField = ReflectUtil.getField(thatClass, r.slaveIdField());
+        FieldAccessor slaveIdAccessor = FieldAccessor.of(thatClass, r.slaveIdField());
         Map<Object, List<R>> thatMap = new HashMap<>(20);
         thatModelList.forEach(thatModel -> {
-            Object id = ReflectUtil.getFieldValue(thatModel, slaveIdField);
+            Object id = slaveIdAccessor.get(thatModel);
             List<R> thatModelSubList = thatMap.computeIfAbsent(id, k -> new LinkedList<>());
             thatModelSubList.add(thatModel);
         });
         thisModelList.forEach(thisModel -> {
-            Object id = ReflectUtil.getFieldValue(thisModel, masterIdField);
+            Object id = masterIdAccessor.get(thisModel);
             List<R> thatModel = thatMap.get(id);
             if (thatModel != null) {
-                ReflectUtil.setFieldValue(thisModel, thisTargetField, thatModel);
+                thisTargetAccessor.set(thisModel, thatModel);
             }
         });
     }
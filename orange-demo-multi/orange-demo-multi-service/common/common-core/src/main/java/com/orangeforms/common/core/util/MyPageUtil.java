@@ -3,9 +3,11 @@ package com.orangeforms.common.core.util;
 import cn.jimmyshi.beanquery.BeanQuery;
 import com.alibaba.fastjson.JSONObject;
 import com.github.pagehelper.Page;
+import com.github.pagehelper.page.PageMethod;
 import org.apache.commons.collections4.CollectionUtils;
 import com.orangeforms.common.core.base.mapper.BaseModelMapper;
 import com.orangeforms.common.core.object.MyPageData;
+import com.orangeforms.common.core.object.MyPageParam;
 import com.orangeforms.common.core.object.Tuple2;
 
 import java.util.List;
@@ -20,6 +22,46 @@ public class MyPageUtil {
 
     private static final String DATA_LIST_LITERAL = "dataList";
     private static final String TOTAL_COUNT_LITERAL = "totalCount";
+    private static final String HAS_NEXT_LITERAL = "hasNext";
+
+    /**
+     * 根据分页参数开启分页。如果分页参数中指定不计算总数量，则不会执行COUNT查询，而是多获取一条数据，
+     * 用于判断是否存在下一页。此时查询结果需要通过当前类的makeResponseData方法生成应答数据，以截掉多获取的数据。
+     *
+     * @param pageParam 分页参数。为null时不进行分页。
+     */
+    public static void startPage(MyPageParam pageParam) {
+        if (pageParam == null) {
+            return;
+        }
+        int pageNum = pageParam.getPageNum() == null ? MyPageParam.DEFAULT_PAGE_NUM : pageParam.getPageNum();
+        int pageSize = pageParam.getPageSize() == null ? MyPageParam.DEFAULT_PAGE_SIZE : pageParam.getPageSize();
+        if (pageParam.isCountMode()) {
+            PageMethod.startPage(pageNum, pageSize);
+        } else {
+            PageMethod.offsetPage((pageNum - 1) * pageSize, pageSize + 1, false);
+        }
+    }
+
+    /**
+     * 对于没有计算总数量的分页查询结果，截掉用于判断下一页而多获取的一条数据。
+     *
+     * @param dataList 数据列表，该参数必须是调用startPage之后，立即执行mybatis查询操作的结果集。
+     * @return 没有计算总数量的分页查询，返回是否存在下一页，否则返回null。
+     */
+    public static Boolean trimExtraRow(List<?> dataList) {
+        if (!(dataList instanceof Page) || ((Page<?>) dataList).isCount()) {
+            return null;
+        }
+        int pageSize = ((Page<?>) dataList).getPageSize() - 1;
+        if (dataList.size() <= pageSize) {
+            return false;
+        }
+        while (dataList.size() > pageSize) {
+            dataList.remove(dataList.size() - 1);
+        }
+        return true;
+    }
 
     /**
      * 用户构建带有分页信息的数据列表。
@@ -31,8 +73,11 @@ public class MyPageUtil {
      */
     public static <T> JSONObject makeResponseData(List<T> dataList, String includeFields) {
         JSONObject pageData = new JSONObject();
+        Boolean hasNext = trimExtraRow(dataList);
         pageData.put(DATA_LIST_LITERAL, BeanQuery.select(includeFields).from(dataList).execute());
-        if (dataList instanceof Page) {
+        if (hasNext != null) {
+            pageData.put(HAS_NEXT_LITERAL, hasNext);
+        } else if (dataList instanceof Page) {
             pageData.put(TOTAL_COUNT_LITERAL, ((Page<?>)dataList).getTotal());
         }
         return pageData;
@@ -47,8 +92,11 @@ public class MyPageUtil {
      */
     public static <T> MyPageData<T> makeResponseData(List<T> dataList) {
         MyPageData<T> pageData = new MyPageData<>();
+        Boolean hasNext = trimExtraRow(dataList);
         pageData.setDataList(dataList);
-        if (dataList instanceof Page) {
+        if (hasNext != null) {
+            pageData.setHasNext(hasNext);
+        } else if (dataList instanceof Page) {
             pageData.setTotalCount(((Page<?>)dataList).getTotal());
         }
         return pageData;
@@ -86,6 +134,13 @@ public class MyPageUtil {
             // 这里需要构建分页数据对象，统一前端数据格式
             return MyPageData.emptyPageData();
         }
+        Boolean hasNext = trimExtraRow(dataList);
+        if (hasNext != null) {
+            MyPageData<D> pageData = new MyPageData<>();
+            pageData.setDataList(modelMapper.fromModelList(dataList));
+            pageData.setHasNext(hasNext);
+            return pageData;
+        }
         if (dataList instanceof Page) {
             totalCount = ((Page<T>) dataList).getTotal();
         }
@@ -48,6 +48,15 @@ public class RedisKeyUtil {
         return "SESSIONID__" + sessionId;
     }
 
+    /**
+     * 获取会话失效通知的Redis主题名称。消息内容为失效会话的SessionId或SessionId前缀。
+     *
+     * @return 会话失效通知的Redis主题名称。
+     */
+    public static String getSessionInvalidateTopic() {
+        return "SESSION_INVALIDATE_TOPIC";
+    }
+
     /**
      * 计算SessionId关联的权限数据存储于Redis中的键。
      *
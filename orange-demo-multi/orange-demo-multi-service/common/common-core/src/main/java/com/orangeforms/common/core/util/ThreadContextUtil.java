@@ -0,0 +1,75 @@
+package com.orangeforms.common.core.util;
+
+import com.orangeforms.common.core.config.DataSourceContextHolder;
+import com.orangeforms.common.core.object.GlobalThreadLocal;
+import com.orangeforms.common.core.object.TokenData;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * 线程上下文传递的工具类。主要用于将当前Servlet线程中的请求对象、令牌数据、数据过滤开关、数据源类型和只读标记等
+ * 线程本地化数据，传递到异步执行的工作线程中，并在任务结束后恢复工作线程原有的上下文。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class ThreadContextUtil {
+
+    /**
+     * 包装任务对象。在调用线程中捕获当前的线程上下文，并在任务执行前设置到工作线程中。
+     * NOTE: 该方法必须在调用线程中执行。
+     *
+     * @param task 待包装的任务对象。
+     * @return 包装后的任务对象。
+     */
+    public static Runnable wrap(Runnable task) {
+        Supplier<Void> supplier = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return supplier::get;
+    }
+
+    /**
+     * 包装任务对象。在调用线程中捕获当前的线程上下文，并在任务执行前设置到工作线程中。
+     * NOTE: 该方法必须在调用线程中执行。
+     *
+     * @param task 待包装的任务对象。
+     * @param <T>  任务返回值类型。
+     * @return 包装后的任务对象。
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            // 令牌数据在首次获取时会被写入请求属性中，这里预先在调用线程中完成，
+            // 避免多个工作线程并发修改同一个HttpServletRequest对象的属性。
+            TokenData.takeFromRequest();
+        }
+        boolean dataFilterEnabled = GlobalThreadLocal.enabledDataFilter();
+        Integer datasourceType = DataSourceContextHolder.getDataSourceType();
+        boolean readOnly = DataSourceContextHolder.isReadOnly();
+        return () -> {
+            RequestAttributes originalAttributes = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            boolean originalDataFilter = GlobalThreadLocal.setDataFilter(dataFilterEnabled);
+            Integer originalDatasourceType = DataSourceContextHolder.setDataSourceType(datasourceType);
+            Boolean originalReadOnly = DataSourceContextHolder.setReadOnly(readOnly);
+            try {
+                return task.get();
+            } finally {
+                DataSourceContextHolder.unsetReadOnly(originalReadOnly);
+                DataSourceContextHolder.unset(originalDatasourceType);
+                GlobalThreadLocal.setDataFilter(originalDataFilter);
+                RequestContextHolder.setRequestAttributes(originalAttributes);
+            }
+        };
+    }
+
+    /**
+     * 私有构造函数，明确标识该常量类的作用。
+     */
+    private ThreadContextUtil() {
+    }
+}
@@ -0,0 +1,209 @@
+package com.orangeforms.common.core.warmup;
+
+import com.orangeforms.common.core.annotation.MyCacheWarmup;
+import com.orangeforms.common.core.base.service.BaseDictService;
+import com.orangeforms.common.core.base.service.BaseService;
+import com.orangeforms.common.core.exception.MyRuntimeException;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 服务启动预热的管理对象。
+ * 应用程序启动后，该对象会收集所有需要预热的任务，并在有界线程池中并行执行，包括：
+ * 1. 全部BaseService的本地和远程关联关系结构加载。
+ * 2. 全部BaseDictService的字典缓存加载，可以通过@MyCacheWarmup注解将其标记为非关键任务。
+ *    NOTE: 预热执行时服务已经完成注册并开始接收请求，而这里的加载仅在缓存为空时执行。
+ *    因此仅缓存在本地内存且不会过期的字典数据，如行政区划，仍需在@PostConstruct中强制加载。
+ * 3. 所有实现WarmupTask接口的Spring Bean。
+ * 启动事件的处理会一直等待到全部关键任务执行完毕，非关键任务则在后台继续执行。
+ * 关键任务执行失败时，会抛出异常并终止服务启动，这和之前顺序加载的行为保持一致。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class CacheWarmupManager implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Value("${warmup.poolSize:4}")
+    private Integer poolSize;
+
+    @Value("${warmup.criticalTimeoutSeconds:300}")
+    private Integer criticalTimeoutSeconds;
+
+    /**
+     * 全部预热任务的执行状态，按照任务的提交顺序排列。
+     */
+    private final Map<String, WarmupTaskStatus> taskStatusMap = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile boolean criticalFinished = false;
+
+    /**
+     * 全部关键预热任务是否已经执行完毕。
+     *
+     * @return 执行完毕返回true，否则false。
+     */
+    public boolean isCriticalFinished() {
+        return criticalFinished;
+    }
+
+    /**
+     * 获取全部预热任务的执行状态。
+     *
+     * @return 任务名称和执行状态的映射。
+     */
+    public Map<String, WarmupTaskStatus> getTaskStatusMap() {
+        synchronized (taskStatusMap) {
+            return new LinkedHashMap<>(taskStatusMap);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent applicationReadyEvent) {
+        List<WarmupTask> taskList = this.collectTasks(applicationReadyEvent.getApplicationContext());
+        // 优先提交关键任务，保证关键任务不会排在非关键任务之后等待。
+        taskList.sort(Comparator.comparing(task -> !task.isCritical()));
+        ExecutorService executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new BasicThreadFactory.Builder().namingPattern("cache-warmup-%d").daemon(true).build());
+        List<CompletableFuture<Void>> allFutureList = new ArrayList<>(taskList.size());
+        List<CompletableFuture<Void>> criticalFutureList = new ArrayList<>(taskList.size());
+        long startTime = System.currentTimeMillis();
+        for (WarmupTask task : taskList) {
+            WarmupTaskStatus status = new WarmupTaskStatus(task.isCritical());
+            taskStatusMap.put(task.getName(), status);
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> this.runTask(task, status), executor);
+            allFutureList.add(future);
+            if (task.isCritical()) {
+                criticalFutureList.add(future);
+            }
+        }
+        CompletableFuture.allOf(allFutureList.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            executor.shutdown();
+            log.info("All [{}] warmup tasks are finished in [{}] ms.",
+                    allFutureList.size(), System.currentTimeMillis() - startTime);
+        });
+        try {
+            CompletableFuture.allOf(criticalFutureList.toArray(new CompletableFuture[0]))
+                    .get(criticalTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Failed to finish critical warmup tasks.", e);
+            throw new MyRuntimeException(e);
+        }
+        criticalFinished = true;
+        log.info("All [{}] critical warmup tasks are finished in [{}] ms.",
+                criticalFutureList.size(), System.currentTimeMillis() - startTime);
+    }
+
+    @SuppressWarnings("all")
+    private List<WarmupTask> collectTasks(ApplicationContext applicationContext) {
+        List<WarmupTask> taskList = new LinkedList<>();
+        Map<String, BaseService> serviceMap = applicationContext.getBeansOfType(BaseService.class);
+        for (Map.Entry<String, BaseService> e : serviceMap.entrySet()) {
+            BaseService service = e.getValue();
+            taskList.add(new DefaultWarmupTask(e.getKey() + ".relationStruct", true, () -> {
+                service.loadLocalRelationStruct();
+                service.loadRemoteRelationStruct();
+            }));
+            if (service instanceof BaseDictService) {
+                MyCacheWarmup cacheWarmup =
+                        AnnotationUtils.findAnnotation(AopUtils.getTargetClass(service), MyCacheWarmup.class);
+                boolean critical = cacheWarmup == null || cacheWarmup.critical();
+                taskList.add(new DefaultWarmupTask(e.getKey() + ".dictionaryCache", critical,
+                        () -> ((BaseDictService) service).reloadCachedData(false)));
+            }
+        }
+        taskList.addAll(applicationContext.getBeansOfType(WarmupTask.class).values());
+        return taskList;
+    }
+
+    private void runTask(WarmupTask task, WarmupTaskStatus status) {
+        long startTime = System.currentTimeMillis();
+        status.setStatus(WarmupTaskStatus.RUNNING);
+        try {
+            task.warmup();
+            status.setStatus(WarmupTaskStatus.FINISHED);
+        } catch (Exception e) {
+            status.setStatus(WarmupTaskStatus.FAILED);
+            status.setErrorMessage(e.getMessage());
+            log.error("Failed to run warmup task [" + task.getName() + "].", e);
+            if (task.isCritical()) {
+                throw e;
+            }
+        } finally {
+            status.setElapsedMillis(System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * 预热任务的执行状态。
+     */
+    @Data
+    public static class WarmupTaskStatus {
+        public static final String PENDING = "PENDING";
+        public static final String RUNNING = "RUNNING";
+        public static final String FINISHED = "FINISHED";
+        public static final String FAILED = "FAILED";
+
+        /**
+         * 是否为关键预热任务。
+         */
+        private final boolean critical;
+        /**
+         * 执行状态。
+         */
+        private volatile String status = PENDING;
+        /**
+         * 执行耗时毫秒数。
+         */
+        private volatile Long elapsedMillis;
+        /**
+         * 执行失败时的错误信息。
+         */
+        private volatile String errorMessage;
+    }
+
+    private static class DefaultWarmupTask implements WarmupTask {
+        private final String name;
+        private final boolean critical;
+        private final Runnable runnable;
+
+        DefaultWarmupTask(String name, boolean critical, Runnable runnable) {
+            this.name = name;
+            this.critical = critical;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isCritical() {
+            return critical;
+        }
+
+        @Override
+        public void warmup() {
+            runnable.run();
+        }
+    }
+}
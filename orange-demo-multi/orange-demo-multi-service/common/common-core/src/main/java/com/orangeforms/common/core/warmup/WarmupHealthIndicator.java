@@ -0,0 +1,30 @@
+package com.orangeforms.common.core.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * 服务启动预热的健康检查对象。全部关键预热任务执行完毕之前，返回OUT_OF_SERVICE，并列出每个预热任务的执行状态。
+ * NOTE: 该状态仅供监控和部署脚本参考，并不能阻止注册中心将请求路由到当前服务实例。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+
+    @Autowired
+    private CacheWarmupManager cacheWarmupManager;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (cacheWarmupManager.isCriticalFinished()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("tasks", cacheWarmupManager.getTaskStatusMap());
+    }
+}
@@ -0,0 +1,31 @@
+package com.orangeforms.common.core.warmup;
+
+/**
+ * 服务启动预热任务接口。实现该接口的Spring Bean，会在服务启动后由CacheWarmupManager统一并行执行。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface WarmupTask {
+
+    /**
+     * 获取预热任务的名称，用于日志和健康检查的输出。
+     *
+     * @return 预热任务名称。
+     */
+    String getName();
+
+    /**
+     * 是否为关键预热任务。只有全部关键预热任务执行完毕，服务才会被视为就绪。
+     *
+     * @return true表示关键预热任务，否则false。
+     */
+    default boolean isCritical() {
+        return true;
+    }
+
+    /**
+     * 执行预热。
+     */
+    void warmup();
+}
@@ -0,0 +1,161 @@
+package com.orangeforms.common.datafilter.cache;
+
+import com.orangeforms.common.datafilter.config.DataFilterProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.*;
+
+/**
+ * 部门层级关系的内存索引。将sys_dept_relation表的闭包数据，以上级部门Id到全部下级部门Id(包含自身)的形式保存在内存中，
+ * 数据过滤拦截器可据此直接生成dept_id IN (...)的过滤条件，以替代需要逐行执行的EXISTS关联子查询。
+ * 下级部门Id以排序后的long数组保存，相比装箱的集合对象可以显著减少内存占用。
+ * 部门数据发生变化时，通过Redis主题通知所有服务实例，索引会在下次使用时重新加载。同时索引也会定期重新加载，以防通知丢失。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class DeptClosureIndex {
+
+    /**
+     * 通知各服务实例重新加载索引的Redis主题名称。
+     */
+    private static final String INVALIDATE_TOPIC = "DEPT_CLOSURE_INDEX_INVALIDATE_TOPIC";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private RedissonClient redissonClient;
+    @Autowired
+    private DataFilterProperties properties;
+
+    /**
+     * 上级部门Id和全部下级部门Id之间的映射，每次加载都会整体替换。
+     */
+    private volatile Map<Long, long[]> descendantMap;
+    private volatile long loadTime;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.getEnabledDeptIndex()) {
+            return;
+        }
+        redissonClient.getTopic(INVALIDATE_TOPIC).addListener(String.class, (channel, message) -> {
+            log.debug("DeptClosureIndex is invalidated.");
+            descendantMap = null;
+        });
+    }
+
+    /**
+     * 获取指定部门及其全部下级部门的Id列表字符串，多个Id之间以逗号分隔。
+     *
+     * @param deptIds 部门Id列表。
+     * @return 逗号分隔的部门Id列表字符串。如果索引没有开启、部门不在索引中，或部门数量超过了阈值，则返回null，
+     * 此时调用方应继续使用EXISTS子查询。
+     */
+    public String getDescendantIdString(Collection<Long> deptIds) {
+        if (!properties.getEnabledDeptIndex()) {
+            return null;
+        }
+        Map<Long, long[]> map = this.getDescendantMap();
+        int threshold = properties.getDeptIndexInListThreshold();
+        if (deptIds.size() == 1) {
+            long[] descendants = map.get(deptIds.iterator().next());
+            if (descendants == null || descendants.length > threshold) {
+                return null;
+            }
+            return this.join(descendants);
+        }
+        Set<Long> resultSet = new TreeSet<>();
+        for (Long deptId : deptIds) {
+            long[] descendants = map.get(deptId);
+            if (descendants == null) {
+                return null;
+            }
+            for (long descendant : descendants) {
+                resultSet.add(descendant);
+            }
+            if (resultSet.size() > threshold) {
+                return null;
+            }
+        }
+        return StringUtils.join(resultSet, ",");
+    }
+
+    /**
+     * 通知所有服务实例重新加载索引。在部门的层级关系发生变化后调用，如果处于事务中，会在事务提交后再发出通知。
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate();
+                }
+            });
+        } else {
+            this.doInvalidate();
+        }
+    }
+
+    private void doInvalidate() {
+        descendantMap = null;
+        redissonClient.getTopic(INVALIDATE_TOPIC).publishAsync(INVALIDATE_TOPIC);
+    }
+
+    private Map<Long, long[]> getDescendantMap() {
+        Map<Long, long[]> map = descendantMap;
+        long refreshMillis = properties.getDeptIndexRefreshSeconds() * 1000L;
+        if (map != null && System.currentTimeMillis() - loadTime < refreshMillis) {
+            return map;
+        }
+        synchronized (this) {
+            map = descendantMap;
+            if (map == null || System.currentTimeMillis() - loadTime >= refreshMillis) {
+                map = this.load();
+                descendantMap = map;
+                loadTime = System.currentTimeMillis();
+            }
+        }
+        return map;
+    }
+
+    private Map<Long, long[]> load() {
+        // 这里直接使用JDBC读取，不经过Mybatis，因此也不会被数据过滤拦截器再次处理。
+        String sql = "SELECT parent_dept_id, dept_id FROM "
+                + properties.getDeptRelationTablePrefix() + "sys_dept_relation";
+        Map<Long, List<Long>> relationMap = new HashMap<>(256);
+        new JdbcTemplate(dataSource).query(sql, (RowCallbackHandler) rs -> {
+            relationMap.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(rs.getLong(2));
+        });
+        Map<Long, long[]> resultMap = new HashMap<>(relationMap.size());
+        for (Map.Entry<Long, List<Long>> entry : relationMap.entrySet()) {
+            long[] descendants = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            resultMap.put(entry.getKey(), descendants);
+        }
+        log.info("DeptClosureIndex is loaded with [{}] parent depts.", resultMap.size());
+        return resultMap;
+    }
+
+    private String join(long[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 20);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.orangeforms.common.datafilter.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orangeforms.common.core.util.ContextUtil;
+import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.common.datafilter.config.DataFilterProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话数据权限规则的多级缓存。
+ * 同一请求内的多条SQL语句，只会从Redis读取并解析一次数据权限规则，解析结果保存在HttpServletRequest的属性中。
+ * 如果开启了进程内缓存，解析结果还会以会话Id为键缓存在本地。数据权限缓存被重建或删除时，
+ * 总会通过Redis的发布订阅通知所有服务实例，只有开启了进程内缓存的实例才会订阅该通知并失效本地缓存。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class SessionDataPermCache {
+
+    /**
+     * 请求属性中保存解析后数据权限规则的键名。
+     */
+    private static final String REQUEST_ATTRIBUTE_NAME = "SESSION_DATA_PERM_RULE_MAP";
+    /**
+     * 通知各服务实例失效本地缓存的Redis主题名称。
+     */
+    private static final String INVALIDATE_TOPIC = "DATA_PERM_CACHE_INVALIDATE_TOPIC";
+
+    @Autowired
+    private RedissonClient redissonClient;
+    @Autowired
+    private DataFilterProperties properties;
+
+    private Cache<String, Map<Integer, String>> localCache;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.getEnabledDataPermLocalCache()) {
+            return;
+        }
+        localCache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getDataPermLocalCacheExpiredSeconds(), TimeUnit.SECONDS)
+                .maximumSize(properties.getDataPermLocalCacheMaximumSize())
+                .build();
+        redissonClient.getTopic(INVALIDATE_TOPIC).addListener(String.class, (channel, sessionId) -> {
+            log.debug("Invalidate local DataPerm cache for session [{}]", sessionId);
+            localCache.invalidate(sessionId);
+        });
+    }
+
+    /**
+     * 获取指定会话的数据权限规则。
+     *
+     * @param sessionId 会话Id。
+     * @return 数据权限规则，key为规则类型，value为部门Id列表字符串。不存在时返回空Map。返回对象不可修改。
+     */
+    public Map<Integer, String> get(String sessionId) {
+        HttpServletRequest request = ContextUtil.hasRequestContext() ? ContextUtil.getHttpRequest() : null;
+        if (request != null) {
+            @SuppressWarnings("unchecked")
+            Map<Integer, String> dataPermMap = (Map<Integer, String>) request.getAttribute(REQUEST_ATTRIBUTE_NAME);
+            if (dataPermMap != null) {
+                return dataPermMap;
+            }
+        }
+        Map<Integer, String> dataPermMap = localCache == null ? null : localCache.getIfPresent(sessionId);
+        if (dataPermMap == null) {
+            dataPermMap = this.loadFromRedis(sessionId);
+            // 空规则通常意味着数据权限尚未写入，因此不会缓存，以免错过随后写入的规则。
+            if (localCache != null && !dataPermMap.isEmpty()) {
+                localCache.put(sessionId, dataPermMap);
+            }
+        }
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE_NAME, dataPermMap);
+        }
+        return dataPermMap;
+    }
+
+    /**
+     * 失效指定会话的数据权限规则缓存。在会话的数据权限缓存被重建或删除时调用，所有服务实例的本地缓存都会被失效。
+     *
+     * @param sessionId 会话Id。
+     */
+    public void invalidate(String sessionId) {
+        if (localCache != null) {
+            localCache.invalidate(sessionId);
+        }
+        if (ContextUtil.hasRequestContext()) {
+            ContextUtil.getHttpRequest().removeAttribute(REQUEST_ATTRIBUTE_NAME);
+        }
+        // 无论当前实例是否开启了本地缓存都需要发布通知，是否持有本地缓存由订阅的服务实例自行决定。
+        redissonClient.getTopic(INVALIDATE_TOPIC).publishAsync(sessionId);
+    }
+
+    private Map<Integer, String> loadFromRedis(String sessionId) {
+        String dataPermSessionKey = RedisKeyUtil.makeSessionDataPermIdKey(sessionId);
+        Object dataPermData = redissonClient.getBucket(dataPermSessionKey).get();
+        if (dataPermData == null || StringUtils.isBlank(dataPermData.toString())) {
+            return Collections.emptyMap();
+        }
+        // 这里使用TreeMap，以保证同一规则组合生成的过滤条件的顺序都是稳定的。
+        Map<Integer, String> dataPermMap = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : JSON.parseObject(dataPermData.toString()).entrySet()) {
+            dataPermMap.put(Integer.valueOf(entry.getKey()), entry.getValue().toString());
+        }
+        return Collections.unmodifiableMap(dataPermMap);
+    }
+}
@@ -41,4 +41,46 @@ public class DataFilterProperties {
      */
     @Value("${datafilter.dataperm.addTableNamePrefix:true}")
     private Boolean addTableNamePrefix;
+
+    /**
+     * 改写后SQL模板缓存的最大条目数。
+     */
+    @Value("${datafilter.rewriteCacheMaximumSize:5000}")
+    private Integer rewriteCacheMaximumSize;
+
+    /**
+     * 是否开启会话数据权限规则的进程内缓存。开启后，数据权限缓存的重建和删除会通过Redis主题通知各服务实例。
+     */
+    @Value("${datafilter.dataperm.localCache.enabled:false}")
+    private Boolean enabledDataPermLocalCache;
+
+    /**
+     * 会话数据权限规则进程内缓存的过期秒数。
+     */
+    @Value("${datafilter.dataperm.localCache.expiredSeconds:60}")
+    private Integer dataPermLocalCacheExpiredSeconds;
+
+    /**
+     * 会话数据权限规则进程内缓存的最大条目数。
+     */
+    @Value("${datafilter.dataperm.localCache.maximumSize:10000}")
+    private Integer dataPermLocalCacheMaximumSize;
+
+    /**
+     * 是否开启部门层级关系的内存索引。开启后，数据权限中包含下级部门的过滤条件，会优先使用dept_id IN (...)的形式。
+     */
+    @Value("${datafilter.dataperm.deptIndex.enabled:false}")
+    private Boolean enabledDeptIndex;
+
+    /**
+     * 使用IN列表过滤的部门数量上限，超过该值时仍然使用EXISTS子查询。
+     */
+    @Value("${datafilter.dataperm.deptIndex.inListThreshold:500}")
+    private Integer deptIndexInListThreshold;
+
+    /**
+     * 部门层级关系索引的定期重新加载秒数。
+     */
+    @Value("${datafilter.dataperm.deptIndex.refreshSeconds:600}")
+    private Integer deptIndexRefreshSeconds;
 }
@@ -2,17 +2,20 @@ package com.orangeforms.common.datafilter.interceptor;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ReflectUtil;
-import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.orangeforms.common.core.base.dao.BaseDaoMapper;
 import com.orangeforms.common.core.annotation.*;
 import com.orangeforms.common.core.exception.NoDataPermException;
+import com.orangeforms.common.core.monitor.SqlStatementMetrics;
 import com.orangeforms.common.core.object.GlobalThreadLocal;
 import com.orangeforms.common.core.object.TokenData;
 import com.orangeforms.common.core.util.ApplicationContextHolder;
 import com.orangeforms.common.core.util.ContextUtil;
 import com.orangeforms.common.core.util.MyModelUtil;
-import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.common.datafilter.cache.DeptClosureIndex;
+import com.orangeforms.common.datafilter.cache.SessionDataPermCache;
 import com.orangeforms.common.datafilter.config.DataFilterProperties;
 import com.orangeforms.common.datafilter.constant.DataPermRuleType;
 import lombok.Data;
@@ -36,10 +39,10 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.plugin.*;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.sql.Connection;
@@ -56,10 +59,27 @@ import java.util.*;
 @Component
 public class MybatisDataFilterInterceptor implements Interceptor {
 
-    @Autowired
-    private RedissonClient redissonClient;
+    /**
+     * 改写后SQL模板中过滤数据值的占位符。由于占位符在SQL解析时会被视为普通的字段名，因此可以原样保留在改写后的SQL中。
+     */
+    private static final String TENANT_ID_PLACEHOLDER = "ORANGE_DF_TENANT_ID_";
+    private static final String USER_ID_PLACEHOLDER = "ORANGE_DF_USER_ID_";
+    private static final String DEPT_ID_PLACEHOLDER = "ORANGE_DF_DEPT_ID_";
+    /**
+     * 部门Id列表的占位符前缀，后面会拼接数据权限的规则类型，因为不同规则类型的部门Id列表是不同的。
+     */
+    private static final String DEPT_ID_LIST_PLACEHOLDER = "ORANGE_DF_DEPT_IDS_";
+    /**
+     * 从部门层级索引中获取的全部下级部门Id列表的占位符前缀，后面会拼接数据权限的规则类型。
+     */
+    private static final String CHILD_DEPT_ID_LIST_PLACEHOLDER = "ORANGE_DF_CHILD_DEPT_IDS_";
+
     @Autowired
     private DataFilterProperties properties;
+    @Autowired
+    private SessionDataPermCache sessionDataPermCache;
+    @Autowired
+    private DeptClosureIndex deptClosureIndex;
 
     /**
      * 对象缓存。由于Set是排序后的，因此在查找排除方法名称时效率更高。
@@ -70,9 +90,18 @@ public class MybatisDataFilterInterceptor implements Interceptor {
      * 租户租户对象缓存。
      */
     private final Map<String, ModelTenantInfo> cachedTenantMap = new HashMap<>();
+    /**
+     * 改写后的SQL模板缓存。
+     */
+    private Cache<String, String> rewriteSqlCache;
+
+    @PostConstruct
+    public void init() {
+        rewriteSqlCache = Caffeine.newBuilder().maximumSize(properties.getRewriteCacheMaximumSize()).build();
+    }
 
     /**
-     * 预先加载与数据过滤相关的数据到缓存，该函数会在(LoadDataFilterInfoListener)监听器中调用。
+     * 预先加载与数据过滤相关的数据到缓存，该函数会在(DataFilterInfoWarmupTask)预热任务中调用。
      */
     public void loadInfoWithDataFilter() {
         Map<String, BaseDaoMapper> mapperMap =
@@ -189,7 +218,8 @@ public class MybatisDataFilterInterceptor implements Interceptor {
         // 没有登录的用户，不会参与租户过滤，如果需要过滤的，自己在代码中手动实现
         // 通常对于无需登录的白名单url，也无需过滤了。
         // 另外就是登录接口中，获取菜单列表的接口，由于尚未登录，没有TokenData，所以这个接口我们手动加入了该条件。
-        if (TokenData.takeFromRequest() == null) {
+        TokenData tokenData = TokenData.takeFromRequest();
+        if (tokenData == null) {
             return invocation.proceed();
         }
         RoutingStatementHandler handler = (RoutingStatementHandler) invocation.getTarget();
@@ -207,32 +237,162 @@ public class MybatisDataFilterInterceptor implements Interceptor {
         int pos = StringUtils.lastIndexOf(sqlId, ".");
         String className = StringUtils.substring(sqlId, 0, pos);
         String methodName = StringUtils.substring(sqlId, pos + 1);
-        // 先进行租户过滤条件的处理，再将解析并处理后的SQL Statement交给下一步的数据权限过滤去处理。
-        // 这样做的目的主要是为了减少一次SQL解析的过程，因为这是高频操作，所以要尽量去优化。
-        Statement statement = null;
+        long start = System.nanoTime();
+        ModelTenantInfo tenantInfo = null;
         if (properties.getEnabledTenantFilter()) {
-            statement = this.processTenantFilter(className, methodName, delegate.getBoundSql(), commandType);
+            tenantInfo = this.findTenantInfo(className, methodName);
         }
-        // 处理数据权限过滤。
+        ModelDataPermInfo dataPermInfo = null;
+        Map<Integer, String> dataPermMap = null;
         if (properties.getEnabledDataPermFilter()) {
-            this.processDataPermFilter(className, methodName, delegate.getBoundSql(), commandType, statement, sqlId);
+            dataPermInfo = this.findDataPermInfo(className, methodName, tokenData);
+            if (dataPermInfo != null) {
+                dataPermMap = this.getDataPermMap(tokenData, sqlId);
+            }
+        }
+        if (tenantInfo == null && dataPermMap == null) {
+            return invocation.proceed();
         }
+        // 包含下级部门的数据权限规则，如果能从部门层级索引中获取全部下级部门，则改用IN列表过滤。
+        Map<Integer, String> childDeptIdsMap = this.resolveChildDeptIds(tokenData, dataPermMap);
+        BoundSql boundSql = delegate.getBoundSql();
+        // 改写后的SQL只与原始SQL、命令类型和过滤规则的组合有关，过滤数据值以占位符的形式保存在缓存的模板中。
+        // 缓存命中时只需替换占位符，从而避免了高频的SQL解析和AST序列化。
+        String cacheKey = this.makeRewriteCacheKey(
+                className, commandType, tenantInfo != null, dataPermMap, childDeptIdsMap, boundSql.getSql());
+        String sqlTemplate = rewriteSqlCache.getIfPresent(cacheKey);
+        if (sqlTemplate == null) {
+            sqlTemplate = this.rewriteSql(
+                    boundSql.getSql(), commandType, tenantInfo, dataPermInfo, dataPermMap, childDeptIdsMap);
+            rewriteSqlCache.put(cacheKey, sqlTemplate);
+        }
+        String sql = this.fillPlaceholders(sqlTemplate, tokenData, dataPermMap, childDeptIdsMap);
+        ReflectUtil.setFieldValue(boundSql, "sql", sql);
+        // 记录SQL改写的耗时，可通过/actuator/sqlmetrics端点查看。
+        SqlStatementMetrics.getOrCreate(sqlId).recordRewrite(System.nanoTime() - start);
         return invocation.proceed();
     }
 
-    private Statement processTenantFilter(
-            String className, String methodName, BoundSql boundSql, SqlCommandType commandType) throws JSQLParserException {
+    private ModelTenantInfo findTenantInfo(String className, String methodName) {
         ModelTenantInfo info = cachedTenantMap.get(className);
         if (info == null || CollUtil.contains(info.getExcludeMethodNameSet(), methodName)) {
             return null;
         }
-        String sql = boundSql.getSql();
+        return info;
+    }
+
+    private ModelDataPermInfo findDataPermInfo(String className, String methodName, TokenData tokenData) {
+        // 数据过滤权限中，INSERT不过滤。如果是管理员则不参与数据权限的数据过滤，显示全部数据。
+        if (Boolean.TRUE.equals(tokenData.getIsAdmin())) {
+            return null;
+        }
+        ModelDataPermInfo info = cachedDataPermMap.get(className);
+        // 再次查找当前方法是否为排除方法，如果不是，就参与数据权限注入过滤。
+        if (info == null || CollUtil.contains(info.getExcludeMethodNameSet(), methodName)) {
+            return null;
+        }
+        return info;
+    }
+
+    private Map<Integer, String> getDataPermMap(TokenData tokenData, String sqlId) {
+        // 同一请求内的多条SQL语句，会共享已经解析的数据权限规则。
+        Map<Integer, String> dataPermMap = sessionDataPermCache.get(tokenData.getSessionId());
+        if (MapUtils.isEmpty(dataPermMap)) {
+            throw new NoDataPermException("No Related DataPerm found for SQL_ID [ " + sqlId + " ].");
+        }
+        if (dataPermMap.containsKey(DataPermRuleType.TYPE_ALL)) {
+            return null;
+        }
+        return dataPermMap;
+    }
+
+    private Map<Integer, String> resolveChildDeptIds(TokenData tokenData, Map<Integer, String> dataPermMap) {
+        if (dataPermMap == null || !properties.getEnabledDeptIndex()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, String> childDeptIdsMap = new TreeMap<>();
+        if (dataPermMap.containsKey(DataPermRuleType.TYPE_DEPT_AND_CHILD_DEPT)) {
+            String deptIds = deptClosureIndex.getDescendantIdString(
+                    Collections.singletonList(tokenData.getDeptId()));
+            if (deptIds != null) {
+                childDeptIdsMap.put(DataPermRuleType.TYPE_DEPT_AND_CHILD_DEPT, deptIds);
+            }
+        }
+        String parentDeptIds = dataPermMap.get(DataPermRuleType.TYPE_MULTI_DEPT_AND_CHILD_DEPT);
+        if (StringUtils.isNotBlank(parentDeptIds)) {
+            List<Long> parentDeptIdList = new LinkedList<>();
+            for (String parentDeptId : StringUtils.split(parentDeptIds, ",")) {
+                parentDeptIdList.add(Long.valueOf(parentDeptId.trim()));
+            }
+            String deptIds = deptClosureIndex.getDescendantIdString(parentDeptIdList);
+            if (deptIds != null) {
+                childDeptIdsMap.put(DataPermRuleType.TYPE_MULTI_DEPT_AND_CHILD_DEPT, deptIds);
+            }
+        }
+        return childDeptIdsMap;
+    }
+
+    private String makeRewriteCacheKey(
+            String className,
+            SqlCommandType commandType,
+            boolean tenantFilter,
+            Map<Integer, String> dataPermMap,
+            Map<Integer, String> childDeptIdsMap,
+            String sql) {
+        StringBuilder sb = new StringBuilder(sql.length() + 64);
+        sb.append(className).append('#').append(commandType).append('#').append(tenantFilter).append('#');
+        if (dataPermMap != null) {
+            sb.append(dataPermMap.keySet());
+        }
+        sb.append('#').append(childDeptIdsMap.keySet());
+        return sb.append('#').append(sql).toString();
+    }
+
+    private String rewriteSql(
+            String sql,
+            SqlCommandType commandType,
+            ModelTenantInfo tenantInfo,
+            ModelDataPermInfo dataPermInfo,
+            Map<Integer, String> dataPermMap,
+            Map<Integer, String> childDeptIdsMap) throws JSQLParserException {
+        // 先进行租户过滤条件的处理，再将解析并处理后的SQL Statement交给下一步的数据权限过滤去处理。
+        // 这样做的目的主要是为了减少一次SQL解析的过程。
         Statement statement = CCJSqlParserUtil.parse(sql);
+        if (tenantInfo != null) {
+            this.processTenantFilter(tenantInfo, commandType, statement);
+        }
+        if (dataPermMap != null) {
+            this.processDataPerm(dataPermInfo, dataPermMap, childDeptIdsMap, commandType, statement);
+        }
+        return statement.toString();
+    }
+
+    private String fillPlaceholders(
+            String sqlTemplate,
+            TokenData tokenData,
+            Map<Integer, String> dataPermMap,
+            Map<Integer, String> childDeptIdsMap) {
+        String sql = StringUtils.replace(sqlTemplate, TENANT_ID_PLACEHOLDER, String.valueOf(tokenData.getTenantId()));
+        sql = StringUtils.replace(sql, USER_ID_PLACEHOLDER, String.valueOf(tokenData.getUserId()));
+        sql = StringUtils.replace(sql, DEPT_ID_PLACEHOLDER, String.valueOf(tokenData.getDeptId()));
+        if (dataPermMap != null) {
+            for (Map.Entry<Integer, String> entry : dataPermMap.entrySet()) {
+                sql = StringUtils.replace(sql, DEPT_ID_LIST_PLACEHOLDER + entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<Integer, String> entry : childDeptIdsMap.entrySet()) {
+            sql = StringUtils.replace(sql, CHILD_DEPT_ID_LIST_PLACEHOLDER + entry.getKey(), entry.getValue());
+        }
+        return sql;
+    }
+
+    private void processTenantFilter(
+            ModelTenantInfo info, SqlCommandType commandType, Statement statement) throws JSQLParserException {
         StringBuilder filterBuilder = new StringBuilder(64);
         filterBuilder.append(info.tableName).append(".")
                 .append(info.columnName)
                 .append("=")
-                .append(TokenData.takeFromRequest().getTenantId());
+                .append(TENANT_ID_PLACEHOLDER);
         String dataFilter = filterBuilder.toString();
         if (commandType == SqlCommandType.UPDATE) {
             Update update = (Update) statement;
@@ -257,51 +417,18 @@ public class MybatisDataFilterInterceptor implements Interceptor {
             }
         }
         log.info("Tenant Filter Where Clause [{}]", dataFilter);
-        ReflectUtil.setFieldValue(boundSql, "sql", statement.toString());
-        return statement;
-    }
-
-    private void processDataPermFilter(
-            String className, String methodName, BoundSql boundSql, SqlCommandType commandType, Statement statement, String sqlId)
-            throws JSQLParserException {
-        // 判断当前线程本地存储中，业务操作是否禁用了数据权限过滤，如果禁用，则不进行后续的数据过滤处理了。
-        // 数据过滤权限中，INSERT不过滤。如果是管理员则不参与数据权限的数据过滤，显示全部数据。
-        TokenData tokenData = TokenData.takeFromRequest();
-        if (Boolean.TRUE.equals(tokenData.getIsAdmin())) {
-            return;
-        }
-        ModelDataPermInfo info = cachedDataPermMap.get(className);
-        // 再次查找当前方法是否为排除方法，如果不是，就参与数据权限注入过滤。
-        if (info == null || CollUtil.contains(info.getExcludeMethodNameSet(), methodName)) {
-            return;
-        }
-        String dataPermSessionKey = RedisKeyUtil.makeSessionDataPermIdKey(tokenData.getSessionId());
-        String dataPermData = redissonClient.getBucket(dataPermSessionKey).get().toString();
-        if (StringUtils.isBlank(dataPermData)) {
-            throw new NoDataPermException("No Related DataPerm found for SQL_ID [ " + sqlId + " ].");
-        }
-        Map<Integer, String> dataPermMap = new HashMap<>(8);
-        for (Map.Entry<String, Object> entry : JSON.parseObject(dataPermData).entrySet()) {
-            dataPermMap.put(Integer.valueOf(entry.getKey()), entry.getValue().toString());
-        }
-        if (MapUtils.isEmpty(dataPermMap)) {
-            throw new NoDataPermException("No Related DataPerm found for SQL_ID [ " + sqlId + " ].");
-        }
-        if (dataPermMap.containsKey(DataPermRuleType.TYPE_ALL)) {
-            return;
-        }
-        this.processDataPerm(info, dataPermMap, boundSql, commandType, statement);
     }
 
     private void processDataPerm(
             ModelDataPermInfo info,
             Map<Integer, String> dataPermMap,
-            BoundSql boundSql,
+            Map<Integer, String> childDeptIdsMap,
             SqlCommandType commandType,
             Statement statement) throws JSQLParserException {
         List<String> criteriaList = new LinkedList<>();
-        for (Map.Entry<Integer, String> entry : dataPermMap.entrySet()) {
-            String filterClause = processDataPermRule(info, entry.getKey(), entry.getValue());
+        for (Integer ruleType : dataPermMap.keySet()) {
+            String filterClause = childDeptIdsMap.containsKey(ruleType)
+                    ? processChildDeptInListRule(info, ruleType) : processDataPermRule(info, ruleType);
             if (StringUtils.isNotBlank(filterClause)) {
                 criteriaList.add(filterClause);
             }
@@ -314,10 +441,6 @@ public class MybatisDataFilterInterceptor implements Interceptor {
         filterBuilder.append(StringUtils.join(criteriaList, " OR "));
         filterBuilder.append(")");
         String dataFilter = filterBuilder.toString();
-        if (statement == null) {
-            String sql = boundSql.getSql();
-            statement = CCJSqlParserUtil.parse(sql);
-        }
         if (commandType == SqlCommandType.UPDATE) {
             Update update = (Update) statement;
             this.buildWhereClause(update, dataFilter);
@@ -341,11 +464,24 @@ public class MybatisDataFilterInterceptor implements Interceptor {
             }
         }
         log.info("DataPerm Filter Where Clause [{}]", dataFilter);
-        ReflectUtil.setFieldValue(boundSql, "sql", statement.toString());
     }
 
-    private String processDataPermRule(ModelDataPermInfo info, Integer ruleType, String deptIds) {
-        TokenData tokenData = TokenData.takeFromRequest();
+    private String processChildDeptInListRule(ModelDataPermInfo info, Integer ruleType) {
+        if (StringUtils.isBlank(info.getDeptFilterColumn())) {
+            return null;
+        }
+        StringBuilder filter = new StringBuilder(128);
+        if (properties.getAddTableNamePrefix()) {
+            filter.append(info.getMainTableName()).append(".");
+        }
+        filter.append(info.getDeptFilterColumn())
+                .append(" IN (")
+                .append(CHILD_DEPT_ID_LIST_PLACEHOLDER).append(ruleType)
+                .append(") ");
+        return filter.toString();
+    }
+
+    private String processDataPermRule(ModelDataPermInfo info, Integer ruleType) {
         StringBuilder filter = new StringBuilder(128);
         if (ruleType == DataPermRuleType.TYPE_USER_ONLY) {
             if (StringUtils.isNotBlank(info.getUserFilterColumn())) {
@@ -354,7 +490,7 @@ public class MybatisDataFilterInterceptor implements Interceptor {
                 }
                 filter.append(info.getUserFilterColumn())
                         .append(" = ")
-                        .append(tokenData.getUserId());
+                        .append(USER_ID_PLACEHOLDER);
             }
         } else {
             if (StringUtils.isNotBlank(info.getDeptFilterColumn())) {
@@ -364,7 +500,7 @@ public class MybatisDataFilterInterceptor implements Interceptor {
                     }
                     filter.append(info.getDeptFilterColumn())
                             .append(" = ")
-                            .append(tokenData.getDeptId());
+                            .append(DEPT_ID_PLACEHOLDER);
                 } else if (ruleType == DataPermRuleType.TYPE_DEPT_AND_CHILD_DEPT) {
                     filter.append(" EXISTS ")
                             .append("(SELECT 1 FROM ")
@@ -372,7 +508,7 @@ public class MybatisDataFilterInterceptor implements Interceptor {
                             .append("sys_dept_relation WHERE ")
                             .append(properties.getDeptRelationTablePrefix())
                             .append("sys_dept_relation.parent_dept_id = ")
-                            .append(tokenData.getDeptId())
+                            .append(DEPT_ID_PLACEHOLDER)
                             .append(" AND ");
                     if (properties.getAddTableNamePrefix()) {
                         filter.append(info.getMainTableName()).append(".");
@@ -388,7 +524,7 @@ public class MybatisDataFilterInterceptor implements Interceptor {
                             .append("sys_dept_relation WHERE ")
                             .append(properties.getDeptRelationTablePrefix())
                             .append("sys_dept_relation.parent_dept_id IN (")
-                            .append(deptIds)
+                            .append(DEPT_ID_LIST_PLACEHOLDER).append(ruleType)
                             .append(") AND ");
                     if (properties.getAddTableNamePrefix()) {
                         filter.append(info.getMainTableName()).append(".");
@@ -403,7 +539,7 @@ public class MybatisDataFilterInterceptor implements Interceptor {
                     }
                     filter.append(info.getDeptFilterColumn())
                             .append(" IN (")
-                            .append(deptIds)
+                            .append(DEPT_ID_LIST_PLACEHOLDER).append(ruleType)
                             .append(") ");
                 }
             }
@@ -0,0 +1,31 @@
+package com.orangeforms.common.datafilter.warmup;
+
+import com.orangeforms.common.core.warmup.WarmupTask;
+import com.orangeforms.common.datafilter.interceptor.MybatisDataFilterInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据过滤的启动预热任务。
+ * 目前主要功能是调用MybatisDataFilterInterceptor中的loadInfoWithDataFilter方法，
+ * 将标记有过滤注解的数据加载到缓存，以提升系统运行时效率。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Component
+public class DataFilterInfoWarmupTask implements WarmupTask {
+
+    @Autowired
+    private MybatisDataFilterInterceptor mybatisDataFilterInterceptor;
+
+    @Override
+    public String getName() {
+        return "dataFilterInfo";
+    }
+
+    @Override
+    public void warmup() {
+        mybatisDataFilterInterceptor.loadInfoWithDataFilter();
+    }
+}
@@ -0,0 +1,45 @@
+package com.orangeforms.common.redis.cache;
+
+import com.orangeforms.common.core.interceptor.MybatisCountCacheInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 分页COUNT查询结果缓存的跨实例失效通知。
+ * 任何服务实例通过Mapper执行写操作后，都会通过Redis主题通知其他实例，使其本地缓存的COUNT结果同时失效。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+@Component
+public class CountCacheInvalidationBroadcaster {
+
+    /**
+     * 发送COUNT缓存失效通知的Redis主题名称，消息内容为Mapper命名空间。
+     */
+    private static final String INVALIDATE_TOPIC = "COUNT_CACHE_INVALIDATE_TOPIC";
+
+    @Autowired(required = false)
+    private MybatisCountCacheInterceptor countCacheInterceptor;
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @PostConstruct
+    public void init() {
+        if (countCacheInterceptor == null || !countCacheInterceptor.isEnabled()) {
+            return;
+        }
+        RTopic topic = redissonClient.getTopic(INVALIDATE_TOPIC);
+        topic.addListener(String.class, (channel, namespace) -> {
+            log.debug("Count cache of namespace [{}] is invalidated.", namespace);
+            countCacheInterceptor.invalidate(namespace);
+        });
+        countCacheInterceptor.setInvalidationPublisher(topic::publishAsync);
+    }
+}
@@ -0,0 +1,442 @@
+package com.orangeforms.common.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orangeforms.common.core.cache.TenantLoadMetricsAware;
+import com.orangeforms.common.core.constant.ApplicationConstant;
+import com.orangeforms.common.core.exception.RedisCacheAccessException;
+import com.orangeforms.common.core.exception.StaleCacheDataException;
+import com.orangeforms.common.core.object.TokenData;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 按租户延迟加载的租户字典数据Redis缓存对象。
+ * 每个租户的字典数据在第一次被访问时，才会从数据库加载到Redis，加载过程具有如下特性：
+ * 1. 同一服务实例内，相同租户的并发加载请求只会有一个线程执行加载，其余线程等待该线程的加载结果。
+ * 2. 不同服务实例之间，通过Redisson分布式锁保证同一租户只会有一个实例执行加载，其余实例等待后直接读取Redis。
+ * 3. 同一服务实例内，同时执行加载的租户数量是有限的，从而避免冷启动时大量租户同时加载对数据库造成冲击。
+ * 加载完成后，租户的全部字典数据还会保存在本地内存中，本地内存最多保存maxLocalTenants个租户的数据，超出时淘汰最近最少使用的租户。
+ * 写操作会通过Redis主题通知所有服务实例，清空该租户在本地内存中的数据。
+ * 被MetricsDictionaryCache包装后，每个租户的加载耗时和数据数量会以租户Id为标签注册为指标。
+ *
+ * @param <K> 字典表主键类型。
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class LazyRedisTenantDictionaryCache<K, V>
+        extends RedisTenantDictionaryCache<K, V> implements TenantLoadMetricsAware {
+
+    /**
+     * 缺省的本地内存最多保存的租户数量。
+     */
+    private static final int DEFAULT_MAX_LOCAL_TENANTS = 200;
+    /**
+     * 缺省的同时加载的最大租户数量。
+     */
+    private static final int DEFAULT_MAX_CONCURRENT_LOADS = 4;
+    /**
+     * 等待租户数据加载的超时时长。单位毫秒。
+     */
+    private static final long LOAD_TIMEOUT = 10000L;
+    private static final String METRIC_PREFIX = "dictionary.cache.tenant";
+    private static final String TENANT_TAG = "tenant";
+
+    /**
+     * 从数据库中加载指定租户全部字典数据的函数对象。
+     */
+    private final Function<Long, List<V>> tenantLoader;
+    /**
+     * 本地内存中的租户字典数据。
+     */
+    private final Cache<Long, TenantSnapshot<K, V>> localCache;
+    /**
+     * 当前服务实例中正在加载的租户。
+     */
+    private final Map<Long, CompletableFuture<TenantSnapshot<K, V>>> loadingMap = new ConcurrentHashMap<>();
+    /**
+     * 限制同时加载的租户数量。
+     */
+    private final Semaphore loadingSemaphore;
+    /**
+     * 本地内存的清空次数。从Redis读取数据期间如果本地内存被清空，读取的结果将不会再保存到本地。
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /**
+     * 用于通知所有服务实例清空租户本地数据的Redis主题。
+     */
+    private final RTopic invalidateTopic;
+    /**
+     * 租户字典数据的加载统计。
+     */
+    private final Map<Long, TenantLoadStats> loadStatsMap = new ConcurrentHashMap<>();
+    /**
+     * 指标注册对象，为null时不注册租户加载指标。
+     */
+    private volatile MeterRegistry meterRegistry;
+    /**
+     * 当前缓存的公共指标标签。
+     */
+    private volatile Tags metricTags;
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param tenantLoader   从数据库中加载指定租户全部字典数据的函数对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的延迟加载租户字典缓存对象。
+     */
+    public static <K, V> LazyRedisTenantDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            Function<Long, List<V>> tenantLoader) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        if (tenantLoader == null) {
+            throw new IllegalArgumentException("TenantLoader can't be NULL.");
+        }
+        return new LazyRedisTenantDictionaryCache<>(redissonClient, dictionaryName, valueClazz,
+                idGetter, tenantLoader, DEFAULT_MAX_LOCAL_TENANTS, DEFAULT_MAX_CONCURRENT_LOADS);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient     Redisson的客户端对象。
+     * @param dictionaryName     字典表的名称。
+     * @param valueClazz         值对象的Class对象。
+     * @param idGetter           获取当前类主键字段值的函数对象。
+     * @param tenantLoader       从数据库中加载指定租户全部字典数据的函数对象。
+     * @param maxLocalTenants    本地内存最多保存的租户数量。
+     * @param maxConcurrentLoads 当前服务实例中同时加载的最大租户数量。
+     */
+    public LazyRedisTenantDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            Function<Long, List<V>> tenantLoader,
+            int maxLocalTenants,
+            int maxConcurrentLoads) {
+        super(redissonClient, dictionaryName, valueClazz, idGetter);
+        this.tenantLoader = tenantLoader;
+        this.localCache = Caffeine.newBuilder().maximumSize(maxLocalTenants).build();
+        this.loadingSemaphore = new Semaphore(maxConcurrentLoads);
+        this.invalidateTopic = redissonClient.getTopic(dictionaryName + "-TENANT-INVALIDATE");
+        this.invalidateTopic.addListener(Long.class, (channel, tenantId) -> this.invalidateLocal(tenantId));
+    }
+
+    /**
+     * 获取全部租户字典数据的加载统计。
+     *
+     * @return 租户Id和加载统计的映射，返回的Map不可修改。
+     */
+    public Map<Long, TenantLoadStats> getTenantLoadStatsMap() {
+        return Collections.unmodifiableMap(loadStatsMap);
+    }
+
+    @Override
+    public void bindTenantLoadMetrics(MeterRegistry meterRegistry, Tags tags) {
+        this.metricTags = tags;
+        this.meterRegistry = meterRegistry;
+        loadStatsMap.forEach(this::registerSizeGauge);
+    }
+
+    @Override
+    public List<V> getAll() {
+        return new LinkedList<>(this.getTenantSnapshot().dataMap.values());
+    }
+
+    @Override
+    public List<V> getInList(Set<K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return new LinkedList<>();
+        }
+        Map<K, V> dataMap = this.getTenantSnapshot().dataMap;
+        List<V> resultList = new LinkedList<>();
+        keys.forEach(key -> {
+            V data = dataMap.get(key);
+            if (data != null) {
+                resultList.add(data);
+            }
+        });
+        return resultList;
+    }
+
+    @Override
+    public V get(K id) {
+        if (id == null) {
+            return null;
+        }
+        return this.getTenantSnapshot().dataMap.get(id);
+    }
+
+    @Override
+    public int getCount() {
+        return this.getTenantSnapshot().dataMap.size();
+    }
+
+    @Override
+    public void putAll(List<V> dataList) {
+        super.putAll(dataList);
+        this.publishChange();
+    }
+
+    @Override
+    public void put(K id, V data) {
+        super.put(id, data);
+        this.publishChange();
+    }
+
+    @Override
+    public void reload(List<V> dataList, boolean force) {
+        super.reload(dataList, force);
+        this.getLoadedFlag(TokenData.takeFromRequest().getTenantId()).set(Boolean.TRUE.toString());
+        this.publishChange();
+    }
+
+    @Override
+    public V invalidate(K id) {
+        V data = super.invalidate(id);
+        this.publishChange();
+        return data;
+    }
+
+    @Override
+    public void invalidateSet(Set<K> keys) {
+        super.invalidateSet(keys);
+        this.publishChange();
+    }
+
+    /**
+     * 清空当前租户的缓存，下次访问时会重新从数据库加载。
+     */
+    @Override
+    public void invalidateAll() {
+        super.invalidateAll();
+        this.getLoadedFlag(TokenData.takeFromRequest().getTenantId()).delete();
+        this.publishChange();
+    }
+
+    private TenantSnapshot<K, V> getTenantSnapshot() {
+        Long tenantId = TokenData.takeFromRequest().getTenantId();
+        TenantSnapshot<K, V> snapshot = localCache.getIfPresent(tenantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        CompletableFuture<TenantSnapshot<K, V>> future = new CompletableFuture<>();
+        CompletableFuture<TenantSnapshot<K, V>> loadingFuture = loadingMap.putIfAbsent(tenantId, future);
+        if (loadingFuture != null) {
+            return this.waitForLoading(tenantId, loadingFuture);
+        }
+        try {
+            snapshot = this.loadTenantSnapshot(tenantId);
+            future.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingMap.remove(tenantId, future);
+        }
+    }
+
+    private TenantSnapshot<K, V> waitForLoading(Long tenantId, CompletableFuture<TenantSnapshot<K, V>> future) {
+        try {
+            return future.get(LOAD_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String exceptionMessage = String.format(
+                    "Waiting for [LazyRedisTenantDictionaryCache::load] encountered EXCEPTION [%s] for DICT [%s] and TENANT [%s].",
+                    e.getClass().getSimpleName(), valueClazz.getSimpleName(), tenantId);
+            log.warn(exceptionMessage);
+            throw new RedisCacheAccessException(exceptionMessage, e);
+        }
+    }
+
+    private TenantSnapshot<K, V> loadTenantSnapshot(Long tenantId) {
+        long currentGeneration = generation.get();
+        RBucket<String> loadedFlag = this.getLoadedFlag(tenantId);
+        if (!loadedFlag.isExists()) {
+            this.loadTenantData(tenantId, loadedFlag);
+        }
+        List<V> dataList;
+        try {
+            dataList = super.getAll();
+        } catch (StaleCacheDataException e) {
+            // 缓存中存在其他版本服务节点写入的数据，此时需要从数据库重新加载，并以当前格式回写缓存。
+            loadedFlag.delete();
+            this.loadTenantData(tenantId, loadedFlag);
+            dataList = super.getAll();
+        }
+        TenantSnapshot<K, V> snapshot = new TenantSnapshot<>(dataList, idGetter);
+        if (generation.get() == currentGeneration) {
+            localCache.put(tenantId, snapshot);
+        }
+        return snapshot;
+    }
+
+    private void loadTenantData(Long tenantId, RBucket<String> loadedFlag) {
+        String exceptionMessage;
+        try {
+            if (!loadingSemaphore.tryAcquire(LOAD_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException();
+            }
+            try {
+                RLock loadingLock = redissonClient.getLock(this.makeTenantKeyPrefix(tenantId) + "-LOADING");
+                if (!loadingLock.tryLock(LOAD_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException();
+                }
+                try {
+                    // 等待分布式锁期间，其他服务实例可能已经完成了加载。
+                    if (!loadedFlag.isExists()) {
+                        long startTime = System.currentTimeMillis();
+                        List<V> dataList = tenantLoader.apply(tenantId);
+                        super.reload(dataList, true);
+                        loadedFlag.set(Boolean.TRUE.toString());
+                        this.recordLoad(tenantId, dataList, System.currentTimeMillis() - startTime);
+                    }
+                } finally {
+                    loadingLock.unlock();
+                }
+            } finally {
+                loadingSemaphore.release();
+            }
+        } catch (RedisCacheAccessException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            exceptionMessage = String.format(
+                    "LOCK Operation of [LazyRedisTenantDictionaryCache::load] encountered EXCEPTION [%s] for DICT [%s] and TENANT [%s].",
+                    e.getClass().getSimpleName(), valueClazz.getSimpleName(), tenantId);
+            log.warn(exceptionMessage);
+            throw new RedisCacheAccessException(exceptionMessage, e);
+        }
+    }
+
+    private void recordLoad(Long tenantId, List<V> dataList, long elapse) {
+        int size = dataList == null ? 0 : dataList.size();
+        TenantLoadStats stats = loadStatsMap.computeIfAbsent(tenantId, k -> new TenantLoadStats());
+        long loadCount;
+        synchronized (stats) {
+            stats.setLoadCount(stats.getLoadCount() + 1);
+            stats.setTotalLoadMillis(stats.getTotalLoadMillis() + elapse);
+            stats.setLastLoadMillis(elapse);
+            stats.setLastLoadTime(new Date());
+            stats.setSize(size);
+            loadCount = stats.getLoadCount();
+        }
+        MeterRegistry registry = this.meterRegistry;
+        if (registry != null) {
+            Timer.builder(METRIC_PREFIX + ".load")
+                    .tags(metricTags).tag(TENANT_TAG, tenantId.toString())
+                    .register(registry).record(elapse, TimeUnit.MILLISECONDS);
+            if (loadCount == 1) {
+                this.registerSizeGauge(tenantId, stats);
+            }
+        }
+        log.info("DICT [{}] of TENANT [{}] is loaded with [{}] items in [{}] ms.",
+                valueClazz.getSimpleName(), tenantId, size, elapse);
+    }
+
+    private void registerSizeGauge(Long tenantId, TenantLoadStats stats) {
+        Gauge.builder(METRIC_PREFIX + ".size", stats, s -> {
+            synchronized (s) {
+                return s.getSize();
+            }
+        }).tags(metricTags).tag(TENANT_TAG, tenantId.toString()).register(meterRegistry);
+    }
+
+    private void invalidateLocal(Long tenantId) {
+        generation.incrementAndGet();
+        localCache.invalidate(tenantId);
+    }
+
+    private void publishChange() {
+        Long tenantId = TokenData.takeFromRequest().getTenantId();
+        this.invalidateLocal(tenantId);
+        invalidateTopic.publishAsync(tenantId);
+    }
+
+    private RBucket<String> getLoadedFlag(Long tenantId) {
+        return redissonClient.getBucket(this.makeTenantKeyPrefix(tenantId) + "-LOADED");
+    }
+
+    private String makeTenantKeyPrefix(Long tenantId) {
+        StringBuilder s = new StringBuilder(64);
+        s.append(dictionaryName).append("-")
+                .append(tenantId).append(ApplicationConstant.TREE_DICT_CACHE_NAME_SUFFIX);
+        return s.toString();
+    }
+
+    /**
+     * 租户字典数据的加载统计。
+     */
+    @Data
+    public static class TenantLoadStats {
+        /**
+         * 从数据库加载的次数。
+         */
+        private long loadCount;
+        /**
+         * 累计的加载毫秒数。
+         */
+        private long totalLoadMillis;
+        /**
+         * 最近一次加载的毫秒数。
+         */
+        private long lastLoadMillis;
+        /**
+         * 最近一次加载的时间。
+         */
+        private Date lastLoadTime;
+        /**
+         * 最近一次加载的字典数据数量。
+         */
+        private int size;
+    }
+
+    /**
+     * 租户全部字典数据的本地快照。
+     *
+     * @param <K> 字典表主键类型。
+     * @param <V> 字典表对象类型。
+     */
+    private static class TenantSnapshot<K, V> {
+        private final Map<K, V> dataMap;
+
+        private TenantSnapshot(List<V> dataList, Function<V, K> idGetter) {
+            Map<K, V> m = new LinkedHashMap<>(dataList.size());
+            dataList.forEach(data -> m.put(idGetter.apply(data), data));
+            this.dataMap = Collections.unmodifiableMap(m);
+        }
+    }
+}
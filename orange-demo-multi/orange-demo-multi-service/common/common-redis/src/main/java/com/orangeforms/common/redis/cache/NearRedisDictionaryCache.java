@@ -0,0 +1,266 @@
+package com.orangeforms.common.redis.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 带有进程内近端缓存的字典数据Redis缓存对象。
+ * 读操作优先从本地内存中获取已经反序列化的字典对象，未命中时再读取Redis，并将结果保存到本地。
+ * 写操作在更新Redis之后，会递增Redis中的字典版本号，并通过Redis主题通知所有服务实例清空本地缓存。
+ * 为了防止通知消息丢失，读操作还会按照固定的时间间隔比对本地和Redis中的版本号，不一致时同样会清空本地缓存。
+ * 该缓存适用于读取频繁、修改很少的字典数据。
+ * NOTE: 本地缓存的字典对象会被多个请求共享，因此业务代码不应修改从该缓存中获取的字典对象。
+ *
+ * @param <K> 字典表主键类型。
+ * @param <V> 字典表对象类型。
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class NearRedisDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
+
+    /**
+     * 缺省的版本号比对间隔毫秒数。
+     */
+    private static final long DEFAULT_VERSION_CHECK_MILLIS = 5000L;
+
+    /**
+     * 本地缓存的字典数据。
+     */
+    private final Map<K, V> localMap = new ConcurrentHashMap<>();
+    /**
+     * 本地缓存的全部字典数据列表，只有在调用过getAll之后才会存在，本地缓存被清空时同时被置为null。
+     */
+    private volatile List<V> localAllList;
+    /**
+     * 本地缓存的清空次数。从Redis读取数据期间如果本地缓存被清空，读取的结果将不会再保存到本地。
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /**
+     * Redis中的字典版本号，每次写操作都会递增。
+     */
+    private final RAtomicLong versionCounter;
+    /**
+     * 用于通知所有服务实例清空本地缓存的Redis主题。
+     */
+    private final RTopic invalidateTopic;
+    private final long versionCheckMillis;
+    private volatile long localVersion;
+    private volatile long lastVersionCheckTime;
+
+    /**
+     * 当前对象的构造器函数。
+     *
+     * @param redissonClient Redisson的客户端对象。
+     * @param dictionaryName 字典表的名称。等同于redis hash对象的key。
+     * @param valueClazz     值对象的Class对象。
+     * @param idGetter       获取当前类主键字段值的函数对象。
+     * @param <K>            字典主键类型。
+     * @param <V>            字典对象类型
+     * @return 实例化后的字典近端缓存对象。
+     */
+    public static <K, V> NearRedisDictionaryCache<K, V> create(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter) {
+        if (idGetter == null) {
+            throw new IllegalArgumentException("IdGetter can't be NULL.");
+        }
+        return new NearRedisDictionaryCache<>(
+                redissonClient, dictionaryName, valueClazz, idGetter, DEFAULT_VERSION_CHECK_MILLIS);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient     Redisson的客户端对象。
+     * @param dictionaryName     字典表的名称。等同于redis hash对象的key。确保全局唯一。
+     * @param valueClazz         值对象的Class对象。
+     * @param idGetter           获取当前类主键字段值的函数对象。
+     * @param versionCheckMillis 比对本地和Redis字典版本号的间隔毫秒数。
+     */
+    public NearRedisDictionaryCache(
+            RedissonClient redissonClient,
+            String dictionaryName,
+            Class<V> valueClazz,
+            Function<V, K> idGetter,
+            long versionCheckMillis) {
+        super(redissonClient, dictionaryName, valueClazz, idGetter);
+        this.versionCheckMillis = versionCheckMillis;
+        this.versionCounter = redissonClient.getAtomicLong(dataMap.getName() + "-VERSION");
+        this.invalidateTopic = redissonClient.getTopic(dataMap.getName() + "-INVALIDATE");
+        this.localVersion = versionCounter.get();
+        this.lastVersionCheckTime = System.currentTimeMillis();
+        this.invalidateTopic.addListener(Long.class, (channel, version) -> {
+            if (version != localVersion) {
+                log.debug("Near cache of DICT [{}] is invalidated by version [{}].", dataMap.getName(), version);
+                localVersion = version;
+                this.clearLocal();
+            }
+        });
+    }
+
+    @Override
+    public List<V> getAll() {
+        this.checkVersion();
+        List<V> allList = localAllList;
+        if (allList != null) {
+            return new LinkedList<>(allList);
+        }
+        long currentGeneration = generation.get();
+        List<V> dataList = super.getAll();
+        if (generation.get() == currentGeneration) {
+            this.putLocalAll(dataList, currentGeneration);
+        }
+        return dataList;
+    }
+
+    @Override
+    public List<V> getInList(Set<K> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return new LinkedList<>();
+        }
+        this.checkVersion();
+        List<V> resultList = new LinkedList<>();
+        Set<K> missingKeys = new HashSet<>();
+        for (K key : keys) {
+            V data = localMap.get(key);
+            if (data != null) {
+                resultList.add(data);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        // 已经加载了全部字典数据时，本地未命中就说明数据不存在，无需再读取Redis。
+        if (missingKeys.isEmpty() || localAllList != null) {
+            return resultList;
+        }
+        long currentGeneration = generation.get();
+        List<V> dataList = super.getInList(missingKeys);
+        for (V data : dataList) {
+            this.putLocal(idGetter.apply(data), data, currentGeneration);
+        }
+        resultList.addAll(dataList);
+        return resultList;
+    }
+
+    @Override
+    public V get(K id) {
+        if (id == null) {
+            return null;
+        }
+        this.checkVersion();
+        V data = localMap.get(id);
+        if (data != null || localAllList != null) {
+            return data;
+        }
+        long currentGeneration = generation.get();
+        data = super.get(id);
+        if (data != null) {
+            this.putLocal(id, data, currentGeneration);
+        }
+        return data;
+    }
+
+    @Override
+    public int getCount() {
+        this.checkVersion();
+        List<V> allList = localAllList;
+        return allList != null ? allList.size() : super.getCount();
+    }
+
+    @Override
+    public void putAll(List<V> dataList) {
+        super.putAll(dataList);
+        this.publishChange();
+    }
+
+    @Override
+    public void put(K id, V data) {
+        super.put(id, data);
+        this.publishChange();
+    }
+
+    @Override
+    public void reload(List<V> dataList, boolean force) {
+        super.reload(dataList, force);
+        this.publishChange();
+    }
+
+    @Override
+    public V invalidate(K id) {
+        V data = super.invalidate(id);
+        this.publishChange();
+        return data;
+    }
+
+    @Override
+    public void invalidateSet(Set<K> keys) {
+        super.invalidateSet(keys);
+        this.publishChange();
+    }
+
+    @Override
+    public void invalidateAll() {
+        super.invalidateAll();
+        this.publishChange();
+    }
+
+    private void putLocal(K id, V data, long expectedGeneration) {
+        localMap.put(id, data);
+        // 写入期间本地缓存可能已被清空，此时需要移除刚刚写入的旧数据。
+        if (generation.get() != expectedGeneration) {
+            localMap.remove(id, data);
+        }
+    }
+
+    private void putLocalAll(List<V> dataList, long expectedGeneration) {
+        dataList.forEach(data -> localMap.put(idGetter.apply(data), data));
+        List<V> allList = Collections.unmodifiableList(new ArrayList<>(dataList));
+        localAllList = allList;
+        // 和putLocal相同，先写入再检查。如果写入期间本地缓存已被清空，则撤销刚刚写入的旧数据，
+        // 否则失效通知已经更新了localVersion，checkVersion也不会再清空这些旧数据。
+        if (generation.get() != expectedGeneration) {
+            if (localAllList == allList) {
+                localAllList = null;
+            }
+            dataList.forEach(data -> localMap.remove(idGetter.apply(data), data));
+        }
+    }
+
+    private void clearLocal() {
+        generation.incrementAndGet();
+        localAllList = null;
+        localMap.clear();
+    }
+
+    private void publishChange() {
+        long version = versionCounter.incrementAndGet();
+        localVersion = version;
+        this.clearLocal();
+        invalidateTopic.publishAsync(version);
+    }
+
+    private void checkVersion() {
+        long now = System.currentTimeMillis();
+        if (now - lastVersionCheckTime < versionCheckMillis) {
+            return;
+        }
+        lastVersionCheckTime = now;
+        long version = versionCounter.get();
+        if (version != localVersion) {
+            log.debug("Near cache of DICT [{}] is stale, version [{}] -> [{}].", dataMap.getName(), localVersion, version);
+            localVersion = version;
+            this.clearLocal();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.orangeforms.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import com.orangeforms.common.core.cache.DictionaryCache;
+import com.orangeforms.common.core.cache.LockWaitAware;
 import com.orangeforms.common.core.constant.ApplicationConstant;
 import com.orangeforms.common.core.exception.RedisCacheAccessException;
+import com.orangeforms.common.core.exception.StaleCacheDataException;
+import com.orangeforms.common.redis.codec.RedisValueCodecs;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.redisson.api.RMap;
@@ -12,6 +15,7 @@ import org.redisson.api.RedissonClient;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -26,7 +30,7 @@ import java.util.stream.Collectors;
  * @date 2020-08-08
  */
 @Slf4j
-public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
+public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V>, LockWaitAware {
 
     /**
      * redisson客户端。
@@ -52,6 +56,10 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
      * 超时时长。单位毫秒。
      */
     protected static final long TIMEOUT = 2000L;
+    /**
+     * 记录等待读写锁耗时的计时器，为null时不记录。
+     */
+    protected volatile Timer lockWaitTimer;
 
     /**
      * 当前对象的构造器函数。
@@ -105,7 +113,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Collection<String> dataList;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     dataList = dataMap.readAllValues();
                 } finally {
@@ -126,9 +134,19 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (CollectionUtils.isEmpty(dataList)) {
             return new LinkedList<>();
         }
-        return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+        List<V> resultList = dataList.stream()
+                .map(data -> RedisValueCodecs.decode(data, valueClazz))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toCollection(LinkedList::new));
+        // 存在无法解码的数据时，不能返回不完整的字典数据，调用方需要从数据库重新加载并回写缓存。
+        if (resultList.size() != dataList.size()) {
+            String exceptionMessage = String.format(
+                    "[RedisDictionaryCache::getAll] found [%d] undecodable items for DICT [%s].",
+                    dataList.size() - resultList.size(), valueClazz.getSimpleName());
+            log.warn(exceptionMessage);
+            throw new StaleCacheDataException(exceptionMessage);
+        }
+        return resultList;
     }
 
     /**
@@ -145,7 +163,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Collection<String> dataList;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     dataList = dataMap.getAll(keys).values();
                 } finally {
@@ -164,8 +182,10 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (dataList == null) {
             return new LinkedList<>();
         }
+        // 无法解码的数据视为缓存未命中，BaseDictService.getInList会从数据库读取这些数据，并以当前格式回写缓存。
         return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+                .map(data -> RedisValueCodecs.decode(data, valueClazz))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toCollection(LinkedList::new));
     }
 
@@ -183,7 +203,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         String data;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     data = dataMap.get(id);
                 } finally {
@@ -202,7 +222,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return RedisValueCodecs.decode(data, valueClazz);
     }
 
     /**
@@ -226,10 +246,10 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
             return;
         }
         Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
+                .collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     dataMap.putAll(map, 1000);
                 } finally {
@@ -260,9 +280,9 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
-                    dataMap.fastPut(id, JSON.toJSONString(data));
+                    dataMap.fastPut(id, RedisValueCodecs.encode(data));
                 } finally {
                     lock.writeLock().unlock();
                 }
@@ -288,11 +308,11 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
     public void reload(List<V> dataList, boolean force) {
         Map<K, String> map = null;
         if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
+            map = dataList.stream().collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     // 如果不强制刷新，需要先判断缓存中是否存在数据。
                     if (!force && this.getCount() > 0) {
@@ -331,7 +351,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         String data;
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     data = dataMap.remove(id);
                 } finally {
@@ -350,7 +370,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return RedisValueCodecs.decode(data, valueClazz);
     }
 
     /**
@@ -367,7 +387,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Object[] keyArray = keys.toArray(new Object[]{});
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     dataMap.fastRemove((K[]) keyArray);
                 } finally {
@@ -392,7 +412,7 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
     public void invalidateAll() {
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     dataMap.clear();
                 } finally {
@@ -409,4 +429,29 @@ public class RedisDictionaryCache<K, V> implements DictionaryCache<K, V> {
             throw new RedisCacheAccessException(exceptionMessage, e);
         }
     }
+
+    @Override
+    public void setLockWaitTimer(Timer lockWaitTimer) {
+        this.lockWaitTimer = lockWaitTimer;
+    }
+
+    /**
+     * 在超时时间内获取锁，同时记录等待锁的耗时。
+     *
+     * @param l 读锁或写锁对象。
+     * @return 成功获取锁返回true，超时返回false。
+     * @throws InterruptedException 等待期间线程被中断。
+     */
+    protected boolean tryLock(Lock l) throws InterruptedException {
+        Timer timer = lockWaitTimer;
+        if (timer == null) {
+            return l.tryLock(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return l.tryLock(TIMEOUT, TimeUnit.MILLISECONDS);
+        } finally {
+            timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
 }
@@ -1,10 +1,13 @@
 package com.orangeforms.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import com.orangeforms.common.core.cache.DictionaryCache;
+import com.orangeforms.common.core.cache.LockWaitAware;
 import com.orangeforms.common.core.constant.ApplicationConstant;
 import com.orangeforms.common.core.exception.RedisCacheAccessException;
+import com.orangeforms.common.core.exception.StaleCacheDataException;
+import com.orangeforms.common.redis.codec.RedisValueCodecs;
 import com.orangeforms.common.core.object.TokenData;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.redisson.api.RMap;
@@ -13,6 +16,7 @@ import org.redisson.api.RedissonClient;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -27,7 +31,7 @@ import java.util.stream.Collectors;
  * @date 2020-08-08
  */
 @Slf4j
-public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
+public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V>, LockWaitAware {
 
     /**
      * redisson客户端。
@@ -53,6 +57,10 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
      * 超时时长。单位毫秒。
      */
     protected static final long TIMEOUT = 2000L;
+    /**
+     * 记录等待读写锁耗时的计时器，为null时不记录。
+     */
+    protected volatile Timer lockWaitTimer;
 
     /**
      * 当前对象的构造器函数。
@@ -117,7 +125,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Collection<String> dataList;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     dataList = this.getTenantDataMap().readAllValues();
                 } finally {
@@ -138,9 +146,19 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (CollectionUtils.isEmpty(dataList)) {
             return new LinkedList<>();
         }
-        return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+        List<V> resultList = dataList.stream()
+                .map(data -> RedisValueCodecs.decode(data, valueClazz))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toCollection(LinkedList::new));
+        // 存在无法解码的数据时，不能返回不完整的字典数据，调用方需要从数据库重新加载并回写缓存。
+        if (resultList.size() != dataList.size()) {
+            String exceptionMessage = String.format(
+                    "[RedisTenantDictionaryCache::getAll] found [%d] undecodable items for DICT [%s].",
+                    dataList.size() - resultList.size(), valueClazz.getSimpleName());
+            log.warn(exceptionMessage);
+            throw new StaleCacheDataException(exceptionMessage);
+        }
+        return resultList;
     }
 
     /**
@@ -157,7 +175,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Collection<String> dataList = null;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     Map<K, String> m = this.getTenantDataMap().getAll(keys);
                     if (m != null) {
@@ -179,8 +197,10 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (dataList == null) {
             return new LinkedList<>();
         }
+        // 无法解码的数据视为缓存未命中，BaseDictService.getInList会从数据库读取这些数据，并以当前格式回写缓存。
         return dataList.stream()
-                .map(data -> JSON.parseObject(data, valueClazz))
+                .map(data -> RedisValueCodecs.decode(data, valueClazz))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toCollection(LinkedList::new));
     }
 
@@ -198,7 +218,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         String data;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     data = this.getTenantDataMap().get(id);
                 } finally {
@@ -217,7 +237,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return RedisValueCodecs.decode(data, valueClazz);
     }
 
     /**
@@ -241,10 +261,10 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
             return;
         }
         Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
+                .collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().putAll(map, 1000);
                 } finally {
@@ -275,9 +295,9 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
-                    this.getTenantDataMap().fastPut(id, JSON.toJSONString(data));
+                    this.getTenantDataMap().fastPut(id, RedisValueCodecs.encode(data));
                 } finally {
                     lock.writeLock().unlock();
                 }
@@ -303,11 +323,11 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
     public void reload(List<V> dataList, boolean force) {
         Map<K, String> map = null;
         if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
+            map = dataList.stream().collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     // 如果不强制刷新，需要先判断缓存中是否存在数据。
                     if (!force && this.getCount() > 0) {
@@ -347,7 +367,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         String data = null;
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().remove(id);
                 } finally {
@@ -366,7 +386,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         if (data == null) {
             return null;
         }
-        return JSON.parseObject(data, valueClazz);
+        return RedisValueCodecs.decode(data, valueClazz);
     }
 
     /**
@@ -383,7 +403,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
         Object[] keyArray = keys.toArray(new Object[]{});
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().fastRemove((K[]) keyArray);
                 } finally {
@@ -408,7 +428,7 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
     public void invalidateAll() {
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().clear();
                 } finally {
@@ -425,4 +445,29 @@ public class RedisTenantDictionaryCache<K, V> implements DictionaryCache<K, V> {
             throw new RedisCacheAccessException(exceptionMessage, e);
         }
     }
+
+    @Override
+    public void setLockWaitTimer(Timer lockWaitTimer) {
+        this.lockWaitTimer = lockWaitTimer;
+    }
+
+    /**
+     * 在超时时间内获取锁，同时记录等待锁的耗时。
+     *
+     * @param l 读锁或写锁对象。
+     * @return 成功获取锁返回true，超时返回false。
+     * @throws InterruptedException 等待期间线程被中断。
+     */
+    protected boolean tryLock(Lock l) throws InterruptedException {
+        Timer timer = lockWaitTimer;
+        if (timer == null) {
+            return l.tryLock(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return l.tryLock(TIMEOUT, TimeUnit.MILLISECONDS);
+        } finally {
+            timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
 }
@@ -1,8 +1,8 @@
 package com.orangeforms.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import com.orangeforms.common.core.constant.ApplicationConstant;
 import com.orangeforms.common.core.exception.RedisCacheAccessException;
+import com.orangeforms.common.redis.codec.RedisValueCodecs;
 import com.orangeforms.common.core.object.TokenData;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
@@ -13,7 +13,6 @@ import org.redisson.api.RMap;
 import org.redisson.api.RedissonClient;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -100,7 +99,7 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     dataList = this.getTenantTreeDataMap().get(parentId);
                 } finally {
@@ -120,7 +119,12 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
             return new LinkedList<>();
         }
         List<V> resultList = new LinkedList<>();
-        dataList.forEach(data -> resultList.add(JSON.parseObject(data, valueClazz)));
+        dataList.forEach(data -> {
+            V value = RedisValueCodecs.decode(data, valueClazz);
+            if (value != null) {
+                resultList.add(value);
+            }
+        });
         return resultList;
     }
 
@@ -136,16 +140,16 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         }
         // 锁外执行数据结构组装，降低锁的粒度，提高并发性。
         Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
+                .collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         Multimap<K, String> treeMap = LinkedListMultimap.create();
         for (V data : dataList) {
-            treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
+            treeMap.put(parentIdGetter.apply(data), RedisValueCodecs.encode(data));
         }
         Set<Map.Entry<K, Collection<String>>> entries = treeMap.asMap().entrySet();
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().putAll(map, 1000);
                     RListMultimap<K, String> allTenantTreeMap = this.getTenantTreeDataMap();
@@ -179,12 +183,12 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         if (id == null || data == null) {
             return;
         }
-        String stringData = JSON.toJSONString(data);
+        String stringData = RedisValueCodecs.encode(data);
         K parentId = parentIdGetter.apply(data);
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     RMap<K, String> tenantDataMap = this.getTenantDataMap();
                     String oldData = tenantDataMap.put(id, stringData);
@@ -220,17 +224,17 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         Map<K, String> map = null;
         Set<Map.Entry<K, Collection<String>>> entries = null;
         if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
+            map = dataList.stream().collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
             Multimap<K, String> treeMap = LinkedListMultimap.create();
             for (V data : dataList) {
-                treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
+                treeMap.put(parentIdGetter.apply(data), RedisValueCodecs.encode(data));
             }
             entries = treeMap.asMap().entrySet();
         }
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     // 如果不强制刷新，需要先判断缓存中是否存在数据。
                     if (!force && this.getCount() > 0) {
@@ -277,13 +281,12 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     String stringData = this.getTenantDataMap().remove(id);
                     if (stringData != null) {
-                        data = JSON.parseObject(stringData, valueClazz);
-                        K parentId = parentIdGetter.apply(data);
-                        this.getTenantTreeDataMap().remove(parentId, stringData);
+                        data = RedisValueCodecs.decode(stringData, valueClazz);
+                        this.removeTreeData(data, stringData);
                     }
                 } finally {
                     lock.writeLock().unlock();
@@ -314,14 +317,13 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     keys.forEach(id -> {
                         if (id != null) {
                             String stringData = this.getTenantDataMap().remove(id);
                             if (stringData != null) {
-                                K parentId = parentIdGetter.apply(JSON.parseObject(stringData, valueClazz));
-                                this.getTenantTreeDataMap().remove(parentId, stringData);
+                                this.removeTreeData(RedisValueCodecs.decode(stringData, valueClazz), stringData);
                             }
                         }
                     });
@@ -348,7 +350,7 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
         String exceptionMessage;
         Long tenantId = TokenData.takeFromRequest().getTenantId();
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     this.getTenantDataMap().clear();
                     this.getTenantTreeDataMap().clear();
@@ -366,4 +368,18 @@ public class RedisTenantTreeDictionaryCache<K, V> extends RedisTenantDictionaryC
             throw new RedisCacheAccessException(exceptionMessage, e);
         }
     }
+
+    private void removeTreeData(V data, String stringData) {
+        RListMultimap<K, String> allTreeMap = this.getTenantTreeDataMap();
+        if (data != null) {
+            allTreeMap.remove(parentIdGetter.apply(data), stringData);
+            return;
+        }
+        // 数据结构版本号不一致等原因导致无法解码时，只能在全部父主键中查找并删除。
+        for (K parentId : allTreeMap.keySet()) {
+            if (allTreeMap.remove(parentId, stringData)) {
+                break;
+            }
+        }
+    }
 }
@@ -1,9 +1,9 @@
 package com.orangeforms.common.redis.cache;
 
-import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
 import com.orangeforms.common.core.constant.ApplicationConstant;
 import com.orangeforms.common.core.exception.RedisCacheAccessException;
+import com.orangeforms.common.redis.codec.RedisValueCodecs;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import org.apache.commons.collections4.CollectionUtils;
@@ -11,7 +11,6 @@ import org.redisson.api.RListMultimap;
 import org.redisson.api.RedissonClient;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -95,7 +94,7 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         List<String> dataList;
         String exceptionMessage;
         try {
-            if (lock.readLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.readLock())) {
                 try {
                     dataList = allTreeMap.get(parentId);
                 } finally {
@@ -115,7 +114,12 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
             return new LinkedList<>();
         }
         List<V> resultList = new LinkedList<>();
-        dataList.forEach(data -> resultList.add(JSON.parseObject(data, valueClazz)));
+        dataList.forEach(data -> {
+            V value = RedisValueCodecs.decode(data, valueClazz);
+            if (value != null) {
+                resultList.add(value);
+            }
+        });
         return resultList;
     }
 
@@ -131,15 +135,15 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         }
         // 锁外执行数据结构组装，降低锁的粒度，提高并发性。
         Map<K, String> map = dataList.stream()
-                .collect(Collectors.toMap(idGetter, JSON::toJSONString));
+                .collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
         Multimap<K, String> treeMap = LinkedListMultimap.create();
         for (V data : dataList) {
-            treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
+            treeMap.put(parentIdGetter.apply(data), RedisValueCodecs.encode(data));
         }
         Set<Map.Entry<K, Collection<String>>> entries = treeMap.asMap().entrySet();
         String exceptionMessage;
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     dataMap.putAll(map, 1000);
                     for (Map.Entry<K, Collection<String>> entry : entries) {
@@ -172,11 +176,11 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         if (id == null || data == null) {
             return;
         }
-        String stringData = JSON.toJSONString(data);
+        String stringData = RedisValueCodecs.encode(data);
         K parentId = parentIdGetter.apply(data);
         String exceptionMessage;
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     String oldData = dataMap.put(id, stringData);
                     if (oldData != null) {
@@ -211,16 +215,16 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         Map<K, String> map = null;
         Set<Map.Entry<K, Collection<String>>> entries = null;
         if (CollectionUtils.isNotEmpty(dataList)) {
-            map = dataList.stream().collect(Collectors.toMap(idGetter, JSON::toJSONString));
+            map = dataList.stream().collect(Collectors.toMap(idGetter, RedisValueCodecs::encode));
             Multimap<K, String> treeMap = LinkedListMultimap.create();
             for (V data : dataList) {
-                treeMap.put(parentIdGetter.apply(data), JSON.toJSONString(data));
+                treeMap.put(parentIdGetter.apply(data), RedisValueCodecs.encode(data));
             }
             entries = treeMap.asMap().entrySet();
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     // 如果不强制刷新，需要先判断缓存中是否存在数据。
                     if (!force && this.getCount() > 0) {
@@ -264,13 +268,12 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         V data = null;
         String exceptionMessage;
         try {
-            if (this.lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     String stringData = dataMap.remove(id);
                     if (stringData != null) {
-                        data = JSON.parseObject(stringData, valueClazz);
-                        K parentId = parentIdGetter.apply(data);
-                        allTreeMap.remove(parentId, stringData);
+                        data = RedisValueCodecs.decode(stringData, valueClazz);
+                        this.removeTreeData(data, stringData);
                     }
                 } finally {
                     lock.writeLock().unlock();
@@ -300,14 +303,13 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
         }
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     keys.forEach(id -> {
                         if (id != null) {
                             String stringData = dataMap.remove(id);
                             if (stringData != null) {
-                                K parentId = parentIdGetter.apply(JSON.parseObject(stringData, valueClazz));
-                                allTreeMap.remove(parentId, stringData);
+                                this.removeTreeData(RedisValueCodecs.decode(stringData, valueClazz), stringData);
                             }
                         }
                     });
@@ -333,7 +335,7 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
     public void invalidateAll() {
         String exceptionMessage;
         try {
-            if (lock.writeLock().tryLock(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (this.tryLock(lock.writeLock())) {
                 try {
                     dataMap.clear();
                     allTreeMap.clear();
@@ -351,4 +353,17 @@ public class RedisTreeDictionaryCache<K, V> extends RedisDictionaryCache<K, V> {
             throw new RedisCacheAccessException(exceptionMessage, e);
         }
     }
+
+    private void removeTreeData(V data, String stringData) {
+        if (data != null) {
+            allTreeMap.remove(parentIdGetter.apply(data), stringData);
+            return;
+        }
+        // 数据结构版本号不一致等原因导致无法解码时，只能在全部父主键中查找并删除。
+        for (K parentId : allTreeMap.keySet()) {
+            if (allTreeMap.remove(parentId, stringData)) {
+                break;
+            }
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.orangeforms.common.redis.cache;
 
 import com.orangeforms.common.core.object.TokenData;
+import com.orangeforms.common.core.util.RedisKeyUtil;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
@@ -21,6 +23,8 @@ public class SessionCacheHelper {
 
     @Autowired
     private CacheManager cacheManager;
+    @Autowired
+    private RedissonClient redissonClient;
 
     /**
      * 缓存当前session内，上传过的文件名。
@@ -71,4 +75,16 @@ public class SessionCacheHelper {
             cacheManager.getCache(c.name()).evict(sessionId);
         }
     }
+
+    /**
+     * 通知网关等持有会话本地缓存的服务，清除指定会话的本地缓存数据。
+     * 在登出、强制下线以及重复登录踢出原有会话时调用。
+     *
+     * @param sessionIdPrefix 失效会话的SessionId，也可以是SessionId的前缀，此时所有匹配该前缀的会话都会失效。
+     */
+    public void publishSessionInvalidation(String sessionIdPrefix) {
+        if (sessionIdPrefix != null) {
+            redissonClient.getTopic(RedisKeyUtil.getSessionInvalidateTopic()).publishAsync(sessionIdPrefix);
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.orangeforms.common.redis.codec;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * 基于fastjson的缓存值编解码器，也是缺省的编解码器。
+ * 由于JSON对象中包含字段名，字段的增减不会影响解码，因此数据结构版本号固定为0。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public class FastJsonValueCodec implements RedisValueCodec {
+
+    /**
+     * 编解码器名称。
+     */
+    public static final String NAME = "json";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getSchemaVersion(Class<?> clazz) {
+        return "0";
+    }
+
+    @Override
+    public String encode(Object value) {
+        return JSON.toJSONString(value);
+    }
+
+    @Override
+    public <T> T decode(String data, Class<T> clazz) {
+        return JSON.parseObject(data, clazz);
+    }
+}
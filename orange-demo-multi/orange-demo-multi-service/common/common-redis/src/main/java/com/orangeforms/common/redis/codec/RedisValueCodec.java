@@ -0,0 +1,46 @@
+package com.orangeforms.common.redis.codec;
+
+/**
+ * Redis缓存值的编解码接口。
+ * 除了内置的实现之外，还可以通过java.util.ServiceLoader的方式，在META-INF/services目录下注册自定义的实现，
+ * 或者直接调用RedisValueCodecs.register方法注册。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public interface RedisValueCodec {
+
+    /**
+     * 获取编解码器的名称，该名称会写入到缓存值的头部，因此必须全局唯一，且不能包含冒号和井号。
+     *
+     * @return 编解码器名称。
+     */
+    String getName();
+
+    /**
+     * 获取指定类型的数据结构版本号，该版本号会写入到缓存值的头部。
+     * 读取时如果缓存值中的版本号和当前类型的版本号不一致，该缓存值将被视为不存在，以便各服务节点可以滚动升级。
+     *
+     * @param clazz 缓存值的类型。
+     * @return 数据结构版本号，不能包含井号。
+     */
+    String getSchemaVersion(Class<?> clazz);
+
+    /**
+     * 编码缓存值。
+     *
+     * @param value 缓存值对象。
+     * @return 编码后的字符串。
+     */
+    String encode(Object value);
+
+    /**
+     * 解码缓存值。
+     *
+     * @param data  编码后的字符串，不包含头部信息。
+     * @param clazz 缓存值的类型。
+     * @param <T>   缓存值的类型。
+     * @return 缓存值对象。
+     */
+    <T> T decode(String data, Class<T> clazz);
+}
@@ -0,0 +1,126 @@
+package com.orangeforms.common.redis.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis缓存值编解码的统一入口。
+ * 使用头部信息的缓存值格式为"#编解码器名称:数据结构版本号#编码后的数据"，不包含头部信息的缓存值，均视为旧版本的fastjson格式。
+ * 读取时会根据头部信息自动选择编解码器，因此可以同时读取新旧两种格式。写入格式由redis.valueCodec参数决定，可选值如下：
+ * legacy: 缺省值，使用不包含头部信息的fastjson格式，和旧版本的服务完全兼容。在所有服务节点升级之前，应使用该迁移模式。
+ * json: 使用包含头部信息的fastjson格式。
+ * compact: 使用包含头部信息的紧凑格式。
+ * 其他值: 通过ServiceLoader或register方法注册的自定义编解码器名称。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+@Slf4j
+public class RedisValueCodecs {
+
+    /**
+     * 迁移模式的写入格式名称。
+     */
+    public static final String LEGACY = "legacy";
+    private static final char HEADER_PREFIX = '#';
+    private static final char VERSION_SEPARATOR = ':';
+
+    private static final Map<String, RedisValueCodec> CODEC_MAP = new ConcurrentHashMap<>();
+    private static final RedisValueCodec LEGACY_CODEC = new FastJsonValueCodec();
+    private static volatile RedisValueCodec writeCodec = null;
+
+    static {
+        register(LEGACY_CODEC);
+        register(new CompactValueCodec());
+        for (RedisValueCodec codec : ServiceLoader.load(RedisValueCodec.class)) {
+            register(codec);
+        }
+    }
+
+    /**
+     * 注册编解码器。
+     *
+     * @param codec 编解码器对象。
+     */
+    public static void register(RedisValueCodec codec) {
+        CODEC_MAP.put(codec.getName(), codec);
+    }
+
+    /**
+     * 设置写入缓存值时使用的编解码器。
+     *
+     * @param name 编解码器名称，legacy表示不包含头部信息的fastjson格式。
+     */
+    public static void setWriteCodec(String name) {
+        if (StringUtils.isBlank(name) || LEGACY.equals(name)) {
+            writeCodec = null;
+            return;
+        }
+        RedisValueCodec codec = CODEC_MAP.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown redis value codec [" + name + "].");
+        }
+        writeCodec = codec;
+    }
+
+    /**
+     * 编码缓存值。
+     *
+     * @param value 缓存值对象。
+     * @return 编码后的字符串。
+     */
+    public static String encode(Object value) {
+        RedisValueCodec codec = writeCodec;
+        if (codec == null) {
+            return LEGACY_CODEC.encode(value);
+        }
+        return HEADER_PREFIX + codec.getName() + VERSION_SEPARATOR
+                + codec.getSchemaVersion(value.getClass()) + HEADER_PREFIX + codec.encode(value);
+    }
+
+    /**
+     * 解码缓存值，可同时识别包含和不包含头部信息的格式。
+     *
+     * @param data  编码后的字符串。
+     * @param clazz 缓存值的类型。
+     * @param <T>   缓存值的类型。
+     * @return 缓存值对象。如果缓存值的编解码器未注册，或数据结构版本号和当前类型不一致，则返回null。
+     */
+    public static <T> T decode(String data, Class<T> clazz) {
+        if (data == null) {
+            return null;
+        }
+        if (data.isEmpty() || data.charAt(0) != HEADER_PREFIX) {
+            return LEGACY_CODEC.decode(data, clazz);
+        }
+        int versionPos = data.indexOf(VERSION_SEPARATOR);
+        int payloadPos = data.indexOf(HEADER_PREFIX, 1);
+        if (versionPos < 0 || payloadPos < versionPos) {
+            log.warn("Invalid header of redis value for class [{}].", clazz.getSimpleName());
+            return null;
+        }
+        RedisValueCodec codec = CODEC_MAP.get(data.substring(1, versionPos));
+        if (codec == null) {
+            log.warn("Unknown codec [{}] of redis value for class [{}].",
+                    data.substring(1, versionPos), clazz.getSimpleName());
+            return null;
+        }
+        String schemaVersion = data.substring(versionPos + 1, payloadPos);
+        if (!schemaVersion.equals(codec.getSchemaVersion(clazz))) {
+            log.warn("Schema version [{}] of redis value is out of date for class [{}].",
+                    schemaVersion, clazz.getSimpleName());
+            return null;
+        }
+        return codec.decode(data.substring(payloadPos + 1), clazz);
+    }
+
+    /**
+     * 私有构造函数，明确标识该常量类的作用。
+     */
+    private RedisValueCodecs() {
+    }
+}
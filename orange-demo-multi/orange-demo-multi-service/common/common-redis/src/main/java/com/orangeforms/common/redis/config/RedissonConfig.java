@@ -3,6 +3,7 @@ package com.orangeforms.common.redis.config;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.StrUtil;
 import com.orangeforms.common.core.exception.InvalidRedisModeException;
+import com.orangeforms.common.redis.codec.RedisValueCodecs;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -48,6 +49,12 @@ public class RedissonConfig {
     @Value("${redis.redisson.pool.minIdle}")
     private Integer minIdle;
 
+    /**
+     * 字典和会话等缓存值的写入格式，可选值为legacy/json/compact，具体含义可参考RedisValueCodecs。
+     */
+    @Value("${redis.valueCodec:legacy}")
+    private String valueCodec;
+
     @Bean
     public RedissonClient redissonClient() {
         if (StrUtil.isBlank(password)) {
@@ -100,6 +107,7 @@ public class RedissonConfig {
         } else {
             throw new InvalidRedisModeException(mode);
         }
+        RedisValueCodecs.setWriteCodec(valueCodec);
         return Redisson.create(config);
     }
 }
@@ -1,6 +1,8 @@
 package com.orangeforms.webadmin.interceptor;
 
 import com.alibaba.fastjson.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.orangeforms.webadmin.config.ApplicationConfig;
 import com.orangeforms.webadmin.upms.model.SysPermWhitelist;
 import com.orangeforms.webadmin.upms.service.SysPermWhitelistService;
@@ -12,6 +14,7 @@ import com.orangeforms.common.core.object.TokenData;
 import com.orangeforms.common.core.util.ApplicationContextHolder;
 import com.orangeforms.common.core.util.JwtUtil;
 import com.orangeforms.common.core.util.RedisKeyUtil;
+import com.orangeforms.common.core.util.UrlPatternMatcher;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -28,6 +31,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Set;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -50,12 +54,32 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
     private static SysPermWhitelistService sysPermWhitelistService =
             ApplicationContextHolder.getBean(SysPermWhitelistService.class);
 
+    /**
+     * 本地缓存编译后权限url模式的最大会话数量。
+     */
+    private static final long PERM_PATTERN_CACHE_MAXIMUM_SIZE = 10000L;
+
+    /**
+     * 每个会话编译后的Ant风格权限url模式匹配器，以会话Id为键。
+     * 权限数据是在登录时生成的，会话存续期间不会改变，因此缓存数据和会话具有相同的过期时间，且无需失效通知。
+     */
+    private final Cache<String, UrlPatternMatcher> permPatternCache = Caffeine.newBuilder()
+            .maximumSize(PERM_PATTERN_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(appConfig.getSessionExpiredSeconds(), TimeUnit.SECONDS)
+            .build();
+
     private static Set<String> whitelistPermSet;
+    /**
+     * 权限资源白名单中Ant风格的url模式，如"/admin/app/course/**"，在类加载时一次性编译。
+     */
+    private static UrlPatternMatcher whitelistPermMatcher;
 
     static {
         List<SysPermWhitelist> sysPermWhitelistList = sysPermWhitelistService.getAllList();
         whitelistPermSet = sysPermWhitelistList.stream()
                 .map(SysPermWhitelist::getPermUrl).collect(Collectors.toSet());
+        whitelistPermMatcher = UrlPatternMatcher.compile(
+                whitelistPermSet.stream().filter(UrlPatternMatcher::isPattern).collect(Collectors.toList()));
     }
 
     @Override
@@ -96,9 +120,10 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         }
         TokenData.addToRequest(tokenData);
         // 如果url在权限资源白名单中，则不需要进行鉴权操作
-        if (Boolean.FALSE.equals(tokenData.getIsAdmin()) && !whitelistPermSet.contains(url)) {
+        if (Boolean.FALSE.equals(tokenData.getIsAdmin())
+                && !whitelistPermSet.contains(url) && !whitelistPermMatcher.matches(url)) {
             RSet<String> permSet = redissonClient.getSet(RedisKeyUtil.makeSessionPermIdKey(sessionId));
-            if (!permSet.contains(url)) {
+            if (!permSet.contains(url) && !this.matchPermUrlPattern(sessionId, permSet, url)) {
                 response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                 this.outputResponseMessage(response, ResponseResult.error(ErrorCodeEnum.NO_OPERATION_PERMISSION));
                 return false;
@@ -123,6 +148,21 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         // 这里需要空注解，否则sonar会不happy。
     }
 
+    /**
+     * 精确匹配失败时，再匹配权限url中Ant风格的url模式，如"/admin/app/course/**"。
+     * 每个会话只在首次需要时读取全部权限url并编译，之后的请求(包括被拒绝的请求)都直接使用本地缓存的匹配器。
+     *
+     * @param sessionId 会话Id。
+     * @param permSet   当前会话的权限url集合。
+     * @param url       请求的url。
+     * @return 匹配返回true，否则false。
+     */
+    private boolean matchPermUrlPattern(String sessionId, RSet<String> permSet, String url) {
+        UrlPatternMatcher matcher = permPatternCache.get(sessionId, k -> UrlPatternMatcher.compile(
+                permSet.readAll().stream().filter(UrlPatternMatcher::isPattern).collect(Collectors.toList())));
+        return matcher.matches(url);
+    }
+
     private void outputResponseMessage(HttpServletResponse response, ResponseResult<Object> respObj) {
         PrintWriter out;
         try {
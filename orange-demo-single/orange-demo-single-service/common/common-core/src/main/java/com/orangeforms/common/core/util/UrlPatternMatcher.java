@@ -0,0 +1,177 @@
+package com.orangeforms.common.core.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的url匹配器。用于替代在循环中逐个调用AntPathMatcher.match的方式，判断url是否与一组Ant风格的url模式匹配。
+ * 构造时会将全部url模式按照"/"拆分为路径段，并合并到同一棵前缀树中，每个节点的子节点分为以下几种：
+ * 1. 普通字符串路径段，通过HashMap精确查找。
+ * 2. "*"或"{name}"路径段，匹配任意的单个路径段。
+ * 3. "**"路径段，匹配零个或多个路径段。
+ * 4. 包含"*"或"?"的其他路径段，如"*.json"，会被预编译为正则表达式。
+ * 由于共同前缀只会比较一次，匹配的耗时仅与url的路径段数量相关，而与url模式的数量无关。
+ * NOTE: 与AntPathMatcher不同，url末尾的"/"会被忽略，即"/a/b"和"/a/b/"被视为相同的url。
+ * 该对象构造后不可修改，因此可以被多个线程安全的共享。
+ *
+ * @author Jerry
+ * @date 2020-08-08
+ */
+public final class UrlPatternMatcher {
+
+    private static final String PATH_SEPARATOR = "/";
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+    private static final UrlPatternMatcher EMPTY = new UrlPatternMatcher(Collections.emptyList());
+
+    private final Node root = new Node();
+    private final boolean empty;
+
+    /**
+     * 编译url模式集合。
+     *
+     * @param patterns url模式集合，可以同时包含普通url和Ant风格的url模式。
+     * @return 编译后的匹配器对象。
+     */
+    public static UrlPatternMatcher compile(Collection<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return EMPTY;
+        }
+        return new UrlPatternMatcher(patterns);
+    }
+
+    private UrlPatternMatcher(Collection<String> patterns) {
+        boolean hasPattern = false;
+        for (String pattern : patterns) {
+            if (StringUtils.isBlank(pattern)) {
+                continue;
+            }
+            Node node = root;
+            for (String segment : split(pattern)) {
+                node = node.getOrCreateChild(segment);
+            }
+            node.terminal = true;
+            hasPattern = true;
+        }
+        this.empty = !hasPattern;
+    }
+
+    /**
+     * 判断字符串是否为Ant风格的url模式，普通url直接通过集合精确匹配的效率更高。
+     *
+     * @param url 待判断的字符串。
+     * @return 包含通配符或路径变量时返回true，否则false。
+     */
+    public static boolean isPattern(String url) {
+        return StringUtils.containsAny(url, '*', '?', '{');
+    }
+
+    /**
+     * 判断url是否与任意一个url模式匹配。
+     *
+     * @param url 待匹配的url。
+     * @return 匹配返回true，否则false。
+     */
+    public boolean matches(String url) {
+        if (empty || url == null) {
+            return false;
+        }
+        String[] segments = split(url);
+        return match(root, segments, 0);
+    }
+
+    private static boolean match(Node node, String[] segments, int index) {
+        if (node.multiWildcardChild != null && matchMultiWildcard(node.multiWildcardChild, segments, index)) {
+            return true;
+        }
+        if (index == segments.length) {
+            return node.terminal;
+        }
+        String segment = segments[index];
+        Node child = node.literalChildren.get(segment);
+        if (child != null && match(child, segments, index + 1)) {
+            return true;
+        }
+        if (node.singleWildcardChild != null && match(node.singleWildcardChild, segments, index + 1)) {
+            return true;
+        }
+        for (Map.Entry<Pattern, Node> e : node.patternChildren.entrySet()) {
+            if (e.getKey().matcher(segment).matches() && match(e.getValue(), segments, index + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchMultiWildcard(Node node, String[] segments, int index) {
+        // "**"可以匹配零个或多个路径段，如果"**"是模式的最后一段，则剩余的任何路径段都可以匹配。
+        if (node.terminal && node.isLeaf()) {
+            return true;
+        }
+        for (int i = index; i <= segments.length; i++) {
+            if (match(node, segments, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] split(String url) {
+        return StringUtils.split(url, PATH_SEPARATOR);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literalChildren = new HashMap<>(4);
+        private final Map<Pattern, Node> patternChildren = new LinkedHashMap<>(2);
+        private Node singleWildcardChild;
+        private Node multiWildcardChild;
+        private boolean terminal;
+
+        private Node getOrCreateChild(String segment) {
+            if (MULTI_WILDCARD.equals(segment)) {
+                if (multiWildcardChild == null) {
+                    multiWildcardChild = new Node();
+                }
+                return multiWildcardChild;
+            }
+            if (SINGLE_WILDCARD.equals(segment) || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (singleWildcardChild == null) {
+                    singleWildcardChild = new Node();
+                }
+                return singleWildcardChild;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                for (Map.Entry<Pattern, Node> e : patternChildren.entrySet()) {
+                    if (e.getKey().pattern().equals(toRegex(segment))) {
+                        return e.getValue();
+                    }
+                }
+                Node child = new Node();
+                patternChildren.put(Pattern.compile(toRegex(segment)), child);
+                return child;
+            }
+            return literalChildren.computeIfAbsent(segment, k -> new Node());
+        }
+
+        private boolean isLeaf() {
+            return literalChildren.isEmpty() && patternChildren.isEmpty()
+                    && singleWildcardChild == null && multiWildcardChild == null;
+        }
+
+        private static String toRegex(String segment) {
+            StringBuilder sb = new StringBuilder(segment.length() + 8);
+            for (char c : segment.toCharArray()) {
+                if (c == '*') {
+                    sb.append(".*");
+                } else if (c == '?') {
+                    sb.append('.');
+                } else {
+                    sb.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
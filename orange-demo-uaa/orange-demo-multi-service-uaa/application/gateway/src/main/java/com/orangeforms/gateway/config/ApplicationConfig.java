@@ -1,10 +1,13 @@
 package com.orangeforms.gateway.config;
 
+import com.orangeforms.gateway.constant.GatewayConstant;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -52,4 +55,10 @@ public class ApplicationConfig {
      * 基于Ant Pattern模式判定规则的白名单地址集合。如：/aa/**。
      */
     private Set<String> whitelistUrlPattern;
+    /**
+     * 需要读取完整应答消息体的url集合，其他请求的应答数据直接透传。
+     * 除登出url之外，集合中的其他url均视为登录类接口(如登录和令牌刷新)，网关会从其应答中提取令牌数据并保存会话。
+     */
+    private Set<String> bodyCaptureUrl = new HashSet<>(Arrays.asList(
+            GatewayConstant.ADMIN_LOGIN_URL, GatewayConstant.ADMIN_LOGIN_BY_UAA_URL, GatewayConstant.ADMIN_LOGOUT_URL));
 }
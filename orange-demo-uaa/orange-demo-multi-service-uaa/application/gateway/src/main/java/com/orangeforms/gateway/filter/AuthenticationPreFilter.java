@@ -8,13 +8,15 @@ import com.orangeforms.common.core.object.TokenData;
 import com.orangeforms.common.core.util.JwtUtil;
 import com.orangeforms.common.core.util.RedisKeyUtil;
 import com.orangeforms.common.core.util.IpUtil;
+import com.orangeforms.common.core.util.UrlPatternMatcher;
 import com.orangeforms.gateway.config.ApplicationConfig;
 import com.orangeforms.gateway.constant.GatewayConstant;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.redisson.api.RBucket;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -24,7 +26,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -32,6 +33,7 @@ import reactor.core.publisher.Mono;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 /**
  * 全局前处理过滤器。主要用于用户操作权限验证。
@@ -47,9 +49,10 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
     @Autowired
     private RedissonClient redissonClient;
     /**
-     * Ant Pattern模式的白名单地址匹配器。
+     * 编译后的Ant Pattern模式白名单地址匹配器。
+     * 配置刷新后appConfig会返回新的集合对象，此时会基于新的配置重新编译。
      */
-    private final AntPathMatcher antMatcher = new AntPathMatcher();
+    private volatile CompiledWhitelist compiledWhitelist;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -75,14 +78,31 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
             exchange.getAttributes().put(appConfig.getRefreshedTokenHeaderKey(),
                     JwtUtil.generateToken(c, appConfig.getExpiration(), appConfig.getTokenSigningKey()));
         }
-        // 先基于sessionId获取userInfo
         String sessionId = (String) c.get(GatewayConstant.SESSION_ID_KEY_NAME);
-        String sessionIdKey = RedisKeyUtil.makeSessionIdKey(sessionId);
-        RBucket<String> sessionData = redissonClient.getBucket(sessionIdKey);
-        JSONObject tokenData = null;
-        if (sessionData.isExists()) {
-            tokenData = JSON.parseObject(sessionData.get());
-        }
+        // 对于退出登录操作，不需要进行权限验证，仅仅确认是已经登录的合法用户即可。
+        boolean checkPermission = !url.equals(GatewayConstant.ADMIN_LOGOUT_URL);
+        // 会话数据和权限数据通过同一个批量请求一次性获取，整个过程都是异步的，不会阻塞网关的事件循环线程。
+        // 由于此时还无法确定是否为管理员，这里会预先查询权限数据，管理员用户直接忽略该结果即可。
+        RBatch batch = redissonClient.createBatch();
+        RFuture<String> sessionFuture = batch.<String>getBucket(RedisKeyUtil.makeSessionIdKey(sessionId)).getAsync();
+        RFuture<Boolean> permFuture = checkPermission
+                ? batch.getSet(RedisKeyUtil.makeSessionPermIdKey(sessionId)).containsAsync(url) : null;
+        return Mono.fromCompletionStage(batch.executeAsync()).flatMap(batchResult -> {
+            boolean hasPermission = permFuture == null || Boolean.TRUE.equals(permFuture.getNow());
+            return this.doFilter(exchange, chain, sessionId, sessionFuture.getNow(), hasPermission);
+        });
+    }
+
+    private Mono<Void> doFilter(
+            ServerWebExchange exchange,
+            GatewayFilterChain chain,
+            String sessionId,
+            String sessionData,
+            boolean hasPermission) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String url = request.getURI().getPath();
+        JSONObject tokenData = sessionData == null ? null : JSON.parseObject(sessionData);
         if (tokenData == null) {
             log.warn("UNAUTHORIZED request [{}] from REMOTE-IP [{}] because no sessionId exists in redis.",
                     url, IpUtil.getRemoteIpAddress(request));
@@ -111,7 +131,7 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
             log.error("Failed to call AuthenticationPreFilter.filter.", e);
         }
         boolean isAdmin = tokenData.getBoolean("isAdmin");
-        if (Boolean.FALSE.equals(isAdmin) && !this.hasPermission(redissonClient, sessionId, url)) {
+        if (Boolean.FALSE.equals(isAdmin) && !hasPermission) {
             log.warn("FORBIDDEN request [{}] from REMOTE-IP [{}] for USER [{} -- {}] no perm!",
                     url, IpUtil.getRemoteIpAddress(request), userId, showName);
             response.setStatusCode(HttpStatus.FORBIDDEN);
@@ -147,15 +167,6 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
         return token;
     }
 
-    private boolean hasPermission(RedissonClient redissonClient, String sessionId, String url) {
-        // 对于退出登录操作，不需要进行权限验证，仅仅确认是已经登录的合法用户即可。
-        if (url.equals(GatewayConstant.ADMIN_LOGOUT_URL)) {
-            return true;
-        }
-        String permKey = RedisKeyUtil.makeSessionPermIdKey(sessionId);
-        return redissonClient.getSet(permKey).contains(url);
-    }
-
     /**
      * 判断当前请求的url是否为配置中的白名单地址。以及一些内置的不需要登录即可访问的url。
      * @param url 请求的url。
@@ -178,13 +189,26 @@ public class AuthenticationPreFilter implements GlobalFilter, Ordered {
             }
         }
         // 过滤ant pattern模式的白名单url。
-        if (CollectionUtils.isNotEmpty(appConfig.getWhitelistUrlPattern())) {
-            for (String urlPattern : appConfig.getWhitelistUrlPattern()) {
-                if (antMatcher.match(urlPattern, url)) {
-                    return true;
-                }
-            }
+        return this.getWhitelistMatcher().matches(url);
+    }
+
+    private UrlPatternMatcher getWhitelistMatcher() {
+        Set<String> whitelistUrlPattern = appConfig.getWhitelistUrlPattern();
+        CompiledWhitelist c = compiledWhitelist;
+        if (c == null || c.source != whitelistUrlPattern) {
+            c = new CompiledWhitelist(whitelistUrlPattern, UrlPatternMatcher.compile(whitelistUrlPattern));
+            compiledWhitelist = c;
+        }
+        return c.matcher;
+    }
+
+    private static class CompiledWhitelist {
+        private final Set<String> source;
+        private final UrlPatternMatcher matcher;
+
+        CompiledWhitelist(Set<String> source, UrlPatternMatcher matcher) {
+            this.source = source;
+            this.matcher = matcher;
         }
-        return false;
     }
 }
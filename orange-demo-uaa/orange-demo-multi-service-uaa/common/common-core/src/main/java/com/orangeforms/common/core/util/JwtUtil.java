@@ -1,12 +1,19 @@
 package com.orangeforms.common.core.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClaims;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 基于JWT的Token生成工具类
@@ -28,6 +35,36 @@ public class JwtUtil {
      * 缺省情况下，Token会每5分钟被刷新一次
      */
     private static final Long REFRESH_TOKEN_INTERVAL = 300000L;
+    /**
+     * 已验证令牌缓存的最大数量。
+     */
+    private static final long VERIFIED_TOKEN_CACHE_SIZE = 10000L;
+    /**
+     * 已经通过签名验证的令牌缓存，每个令牌的数据都会在令牌自身过期时被移除。
+     * 缓存键包含完整的令牌字符串和密钥，因此任何被篡改的令牌都不可能命中缓存，而是会重新进行签名验证。
+     */
+    private static final Cache<TokenCacheKey, Claims> VERIFIED_TOKEN_CACHE = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<TokenCacheKey, Claims>() {
+                @Override
+                public long expireAfterCreate(TokenCacheKey key, Claims claims, long currentTime) {
+                    long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0L));
+                }
+
+                @Override
+                public long expireAfterUpdate(
+                        TokenCacheKey key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(
+                        TokenCacheKey key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
     /**
      * 生成加密后的JWT令牌，生成的结果中包含令牌前缀，如"Bearer "
@@ -59,12 +96,47 @@ public class JwtUtil {
     }
 
     /**
-     * 获取token中的数据对象
+     * 获取token中的数据对象。
+     * 同一令牌签名验证通过后，其数据会被缓存到令牌过期为止，之后的调用不会再重复进行签名验证和解析。
+     * 每次返回的都是缓存数据的副本，调用者可以放心的修改，如在generateToken中刷新令牌。
      *
      * @param token 令牌信息(需要包含令牌前缀，如"Bearer ")
      * @return 令牌中的数据对象，解析视频返回null。
      */
     public static Claims parseToken(String token, String signingKey) {
+        if (token == null || !token.startsWith(TOKEN_PREFIX)) {
+            return null;
+        }
+        TokenCacheKey cacheKey = new TokenCacheKey(token, signingKey);
+        Claims claims = VERIFIED_TOKEN_CACHE.getIfPresent(cacheKey);
+        if (claims != null) {
+            return copyClaims(claims);
+        }
+        claims = parseTokenWithoutCache(token, signingKey);
+        if (claims != null && claims.getExpiration() != null) {
+            VERIFIED_TOKEN_CACHE.put(cacheKey, copyClaims(claims));
+        }
+        return claims;
+    }
+
+    /**
+     * 复制令牌数据。DefaultClaims(Map)只是引用传入的Map，并不会复制数据，因此这里需要先复制一个新的Map。
+     * 令牌数据中的值都是字符串、数值等不可变对象，浅复制即可保证缓存中的数据不会被调用者修改。
+     *
+     * @param claims 令牌中的数据对象。
+     * @return 复制后的数据对象。
+     */
+    private static Claims copyClaims(Claims claims) {
+        return new DefaultClaims(new LinkedHashMap<>(claims));
+    }
+
+    /**
+     * 获取token中的数据对象，每次调用都会进行签名验证和解析。
+     *
+     * @param token 令牌信息(需要包含令牌前缀，如"Bearer ")
+     * @return 令牌中的数据对象，解析失败返回null。
+     */
+    public static Claims parseTokenWithoutCache(String token, String signingKey) {
         if (token == null || !token.startsWith(TOKEN_PREFIX)) {
             return null;
         }
@@ -107,4 +179,31 @@ public class JwtUtil {
      */
     private JwtUtil() {
     }
+
+    private static final class TokenCacheKey {
+        private final String token;
+        private final String signingKey;
+
+        TokenCacheKey(String token, String signingKey) {
+            this.token = token;
+            this.signingKey = signingKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TokenCacheKey)) {
+                return false;
+            }
+            TokenCacheKey other = (TokenCacheKey) o;
+            return token.equals(other.token) && Objects.equals(signingKey, other.signingKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return token.hashCode();
+        }
+    }
 }